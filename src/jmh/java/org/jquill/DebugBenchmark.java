@@ -0,0 +1,62 @@
+package org.jquill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single {@link Debug#info(String)} call, with the level enabled ({@code LOW})
+ * and filtered out ({@code HIGH}), for every {@link TimeMode} and with thread names on and off.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DebugBenchmark {
+
+    @Param({"LOW", "HIGH"})
+    public String level;
+
+    @Param({"NONE", "ABSOLUTE", "ELAPSED"})
+    public String timeMode;
+
+    @Param({"false", "true"})
+    public boolean showThread;
+
+    private int counter;
+
+    @Setup
+    public void setup() {
+        NullOutput.install();
+        Debug.setLevel(Level.parse(level));
+        Debug.setTimeMode(TimeMode.valueOf(timeMode));
+        Debug.setShowThread(showThread);
+    }
+
+    @Benchmark
+    public void info() {
+        Debug.info("Request handled");
+    }
+
+    @Benchmark
+    public void infoConcat() {
+        Debug.info("Request " + (counter++) + " handled");
+    }
+
+    @Benchmark
+    public void infoTemplate() {
+        Debug.info("Request {} handled", counter++);
+    }
+}
@@ -0,0 +1,45 @@
+package org.jquill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a filtered {@link Debug#info(String, Object)} call with the flight recorder off
+ * ({@code 0}) and on, which adds the clock reading and the ring slot write to the filtered path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightRecorderBenchmark {
+
+    @Param({"0", "4096"})
+    public int capacity;
+
+    private int counter;
+
+    @Setup
+    public void setup() {
+        NullOutput.install();
+        Debug.setLevel(Level.WARN);
+        Debug.setFlightRecorder(capacity);
+    }
+
+    @Benchmark
+    public void filteredInfo() {
+        Debug.info("Request {} handled", counter++);
+    }
+}
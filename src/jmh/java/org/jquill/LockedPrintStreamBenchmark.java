@@ -0,0 +1,55 @@
+package org.jquill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a shared {@link LockedPrintStream} written to by 1, 4 and 16 threads.
+ * Each benchmark uses a fresh stream per trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LockedPrintStreamBenchmark {
+
+    private static final String LINE = Style.lock("[worker] ") + "processed batch";
+
+    private LockedPrintStream stream;
+
+    @Setup
+    public void setup() {
+        stream = new LockedPrintStream(NullOutput.STREAM);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void println1() {
+        stream.println(LINE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void println4() {
+        stream.println(LINE);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void println16() {
+        stream.println(LINE);
+    }
+}
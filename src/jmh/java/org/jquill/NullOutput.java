@@ -0,0 +1,22 @@
+package org.jquill;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Output targets that discard everything, so benchmarks measure formatting and locking
+ * rather than terminal I/O.
+ */
+final class NullOutput {
+
+    static final PrintStream STREAM = new PrintStream(OutputStream.nullOutputStream());
+    static final Sink SINK = text -> { };
+
+    private NullOutput() {
+        // Utility class — prevent instantiation
+    }
+
+    static void install() {
+        Debug.setSink(SINK);
+    }
+}
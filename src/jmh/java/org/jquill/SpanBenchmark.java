@@ -0,0 +1,39 @@
+package org.jquill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of timing an empty block with {@link Debug#span(String)} and
+ * {@link Debug#time(String, Runnable)}. With {@code -prof gc} the allocation rate should be zero:
+ * the span is scalar-replaced once the call is inlined.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpanBenchmark {
+
+    @Benchmark
+    public void span() {
+        // The measured block is empty, so there is nothing for try-with-resources to guard
+        Span span = Debug.span("block");
+        span.close();
+    }
+
+    @Benchmark
+    public void timeRunnable() {
+        Debug.time("block", () -> { });
+    }
+}
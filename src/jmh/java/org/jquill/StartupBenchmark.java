@@ -0,0 +1,33 @@
+package org.jquill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to the first {@link Debug#info(String)} on a cold JVM, including loading and initializing
+ * {@link Debug}, {@link Level} and {@link Style}. Every fork makes exactly one call, so the score is
+ * the startup cost a short-lived tool pays for its first log line.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Benchmark
+    public void firstInfo() {
+        Debug.setSink(NullOutput.SINK);
+        Debug.info("Application started");
+    }
+}
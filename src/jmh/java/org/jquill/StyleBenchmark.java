@@ -0,0 +1,70 @@
+package org.jquill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link Style#processLocks(StringBuilder, String, Style...)} on plain, styled and locked
+ * input, and of building colors with {@link Style#fg(int, int, int)} and {@link Style#fg(String)}
+ * and combining them with {@link Style#and(Style)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StyleBenchmark {
+
+    private final String plain = "Connection pool resized from 8 to 16 workers";
+    private final String styled = Style.BOLD.getCode() + "Connection pool" + Style.RESET.getCode()
+            + " resized from " + Style.RED.getCode() + "8" + Style.RESET.getCode() + " to 16 workers";
+    private final String locked = Style.lock("[main] ") + "Connection pool resized " + Style.lock("8 -> 16") + " workers";
+    private final StringBuilder sb = new StringBuilder(256);
+
+    private int r;
+
+    @Benchmark
+    public String processLocksPlain() {
+        sb.setLength(0);
+        return Style.processLocks(sb, plain, Style.INFO);
+    }
+
+    @Benchmark
+    public String processLocksStyled() {
+        sb.setLength(0);
+        return Style.processLocks(sb, styled, Style.INFO);
+    }
+
+    @Benchmark
+    public String processLocksLocked() {
+        sb.setLength(0);
+        return Style.processLocks(sb, locked, Style.INFO);
+    }
+
+    @Benchmark
+    public Style fgRgb() {
+        r = (r + 1) & 0xFF;
+        return Style.fg(r, 128, 64);
+    }
+
+    @Benchmark
+    public Style fgRgbBold() {
+        r = (r + 1) & 0xFF;
+        return Style.fg(r, 128, 64).and(Style.BOLD);
+    }
+
+    @Benchmark
+    public Style fgHex() {
+        return Style.fg("#FF8040");
+    }
+}
@@ -0,0 +1,205 @@
+package org.jquill;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background writer used by {@link Debug} when asynchronous output is enabled.
+ * Producers publish already formatted text into a bounded, lock-free ring buffer
+ * (a multi-producer / single-consumer variant of the Vyukov bounded queue) and return
+ * immediately. A single daemon thread drains the buffer in batches and writes each
+ * batch to {@link Debug}'s current {@link Sink} with one call.
+ *
+ * @see Debug#setAsync(boolean)
+ * @see OverflowPolicy
+ */
+final class AsyncWriter {
+
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+    private static final long WAIT_PARK_NANOS = 50_000L;
+
+    private final OverflowPolicy policy;
+    private final int mask;
+
+    private final AtomicLongArray sequences;
+    private final String[] texts;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final StringBuilder batch = new StringBuilder(1024);
+    private final Thread thread;
+
+    private long head;
+    private boolean failed;
+    private volatile long written;
+    private volatile boolean idle;
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts a writer.
+     *
+     * @param capacity requested buffer capacity, rounded up to a power of two
+     * @param policy   what to do when the buffer is full
+     */
+    AsyncWriter(int capacity, OverflowPolicy policy) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.policy = policy;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.texts = new String[size];
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+
+        this.thread = new Thread(this::run, "jquill-async-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // ------------------ Producer Side ------------------
+
+    /**
+     * Publishes text for the writer thread, applying the overflow policy if the buffer is full.
+     *
+     * @param level   the message level, or {@code null} for unlevelled output
+     * @param text    the formatted text, including any line separator
+     * @return true if the text was buffered, false if it was dropped
+     */
+    boolean publish(Level level, String text) {
+        while (!offer(text)) {
+            if (policy == OverflowPolicy.DROP_NEWEST
+                    || (policy == OverflowPolicy.DROP_LOWEST_LEVEL && level != null && level.getPriority() < Level.WARN.getPriority())
+                    || !running || !thread.isAlive()) {
+                dropped.increment();
+                return false;
+            }
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+        }
+        if (!running && Thread.currentThread() != thread) {
+            // The writer thread may already have made its last pass; write the text on its behalf
+            drainStopped();
+            return true;
+        }
+        if (idle) LockSupport.unpark(thread);
+        return true;
+    }
+
+    private boolean offer(String text) {
+        long pos = tail.get();
+        int idx;
+        for (;;) {
+            idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+        texts[idx] = text;
+        sequences.lazySet(idx, pos + 1);
+        return true;
+    }
+
+    /**
+     * Blocks until every message published before this call has been handed to the sink.
+     */
+    void flush() {
+        long target = tail.get();
+        while (written < target && thread.isAlive()) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, WAIT_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Drains all pending messages and stops the writer thread. Messages published while or after
+     * shutting down are written by the publishing thread itself.
+     */
+    void shutdown() {
+        flush();
+        running = false;
+        LockSupport.unpark(thread);
+        drainStopped();
+        Debug.sink().flush();
+    }
+
+    /**
+     * Waits for the writer thread to exit and then drains what it left behind, taking its place as the
+     * single consumer. Called by {@link #shutdown()} and by every publisher that finds the writer stopping.
+     */
+    private synchronized void drainStopped() {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        int count = 0;
+        for (int n; (n = drain()) > 0; ) count += n;
+        if (count > 0) Debug.sink().flush();
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /** @return number of messages discarded by the overflow policy */
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    // ------------------ Consumer Side ------------------
+
+    private void run() {
+        while (true) {
+            if (drain() > 0) continue;
+            if (!running && written == tail.get()) return;
+
+            idle = true;
+            if (isEmpty() && running) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            idle = false;
+        }
+    }
+
+    private boolean isEmpty() {
+        int idx = (int) (head & mask);
+        return sequences.get(idx) != head + 1;
+    }
+
+    private int drain() {
+        int count = 0;
+        batch.setLength(0);
+        while (count < MAX_BATCH) {
+            int idx = (int) (head & mask);
+            if (sequences.get(idx) != head + 1) break;
+
+            batch.append(texts[idx]);
+            texts[idx] = null;
+            sequences.lazySet(idx, head + mask + 1);
+            head++;
+            count++;
+        }
+        if (count > 0) {
+            try {
+                Metrics.write(Debug.sink(), batch);
+                failed = false;
+            } catch (RuntimeException e) {
+                // A throwing sink loses this batch but must not kill the writer and strand blocked publishers
+                reportFailure(e);
+            }
+            written = head;
+        }
+        return count;
+    }
+
+    private void reportFailure(RuntimeException e) {
+        if (failed) return;
+        failed = true;
+        System.err.println("JQuill: asynchronous writer failed to write to sink: " + e);
+    }
+}
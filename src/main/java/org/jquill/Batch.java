@@ -0,0 +1,360 @@
+package org.jquill;
+
+/**
+ * A group of messages that {@link Debug#batch(java.util.function.Consumer)} writes out together.
+ * Each message is filtered and formatted exactly like the matching {@link Debug} call, but into a
+ * buffer owned by the batch; when the batch ends the whole buffer is handed to the {@link Sink} in a
+ * single write, under a single lock acquisition. The lines keep their order and are never interleaved
+ * with output from other threads, and the console sees one write instead of one per line.
+ * Messages added to a batch bypass throttling, and a batch may only be used inside the callback that
+ * received it. When a {@link BinaryLog} is installed, messages are recorded as they are added.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Debug.batch(b -> {
+ *     b.info("Configuration:");
+ *     config.forEach((key, value) -> b.info("  {} = {}", key, value));
+ *     if (config.isEmpty()) b.warn("  (empty)");
+ * });
+ * }</pre>
+ *
+ * @see Debug#batch(java.util.function.Consumer)
+ */
+public final class Batch {
+
+    private final StringBuilder text = new StringBuilder(512);
+    private Level highest;
+    private boolean closed;
+
+    Batch() {
+    }
+
+    // ------------------ Level Shortcuts ------------------
+
+    /** Adds a trace message.
+     *
+     * @param msg      the message to add
+     */
+    public void trace(String msg) {
+        add(Level.TRACE, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Adds a trace message followed by the stack trace of an exception, like {@link Debug#trace(String, Object)}.
+     *
+     * @param msg      the message to add; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is added
+     */
+    public void trace(String msg, Throwable thrown) {
+        add(Level.TRACE, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Adds a trace message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void trace(String pattern, Object a1) {
+        add(Level.TRACE, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Adds a trace message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void trace(String pattern, Object a1, Object a2) {
+        add(Level.TRACE, pattern, 2, a1, a2, null);
+    }
+
+    /** Adds a trace message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void trace(String pattern, Object a1, Object a2, Object a3) {
+        add(Level.TRACE, pattern, 3, a1, a2, a3);
+    }
+
+    /** Adds a debug message.
+     *
+     * @param msg      the message to add
+     */
+    public void log(String msg) {
+        add(Level.DEBUG, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Adds a debug message followed by the stack trace of an exception, like {@link Debug#log(String, Object)}.
+     *
+     * @param msg      the message to add; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is added
+     */
+    public void log(String msg, Throwable thrown) {
+        add(Level.DEBUG, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Adds a debug message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void log(String pattern, Object a1) {
+        add(Level.DEBUG, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Adds a debug message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void log(String pattern, Object a1, Object a2) {
+        add(Level.DEBUG, pattern, 2, a1, a2, null);
+    }
+
+    /** Adds a debug message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void log(String pattern, Object a1, Object a2, Object a3) {
+        add(Level.DEBUG, pattern, 3, a1, a2, a3);
+    }
+
+    /** Adds an informational message.
+     *
+     * @param msg      the message to add
+     */
+    public void info(String msg) {
+        add(Level.INFO, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Adds an informational message followed by the stack trace of an exception, like {@link Debug#info(String, Object)}.
+     *
+     * @param msg      the message to add; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is added
+     */
+    public void info(String msg, Throwable thrown) {
+        add(Level.INFO, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Adds an informational message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void info(String pattern, Object a1) {
+        add(Level.INFO, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Adds an informational message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void info(String pattern, Object a1, Object a2) {
+        add(Level.INFO, pattern, 2, a1, a2, null);
+    }
+
+    /** Adds an informational message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void info(String pattern, Object a1, Object a2, Object a3) {
+        add(Level.INFO, pattern, 3, a1, a2, a3);
+    }
+
+    /** Adds a warning message.
+     *
+     * @param msg      the message to add
+     */
+    public void warn(String msg) {
+        add(Level.WARN, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Adds a warning message followed by the stack trace of an exception, like {@link Debug#warn(String, Object)}.
+     *
+     * @param msg      the message to add; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is added
+     */
+    public void warn(String msg, Throwable thrown) {
+        add(Level.WARN, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Adds a warning message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void warn(String pattern, Object a1) {
+        add(Level.WARN, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Adds a warning message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void warn(String pattern, Object a1, Object a2) {
+        add(Level.WARN, pattern, 2, a1, a2, null);
+    }
+
+    /** Adds a warning message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void warn(String pattern, Object a1, Object a2, Object a3) {
+        add(Level.WARN, pattern, 3, a1, a2, a3);
+    }
+
+    /** Adds an error message.
+     *
+     * @param msg      the message to add
+     */
+    public void error(String msg) {
+        add(Level.ERROR, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Adds an error message followed by the stack trace of an exception, like {@link Debug#error(String, Object)}.
+     *
+     * @param msg      the message to add; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is added
+     */
+    public void error(String msg, Throwable thrown) {
+        add(Level.ERROR, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Adds an error message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void error(String pattern, Object a1) {
+        add(Level.ERROR, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Adds an error message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void error(String pattern, Object a1, Object a2) {
+        add(Level.ERROR, pattern, 2, a1, a2, null);
+    }
+
+    /** Adds an error message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void error(String pattern, Object a1, Object a2, Object a3) {
+        add(Level.ERROR, pattern, 3, a1, a2, a3);
+    }
+
+    /** Adds a success message.
+     *
+     * @param msg      the message to add
+     */
+    public void success(String msg) {
+        add(Level.SUCCESS, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Adds a success message followed by the stack trace of an exception, like {@link Debug#success(String, Object)}.
+     *
+     * @param msg      the message to add; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is added
+     */
+    public void success(String msg, Throwable thrown) {
+        add(Level.SUCCESS, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Adds a success message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void success(String pattern, Object a1) {
+        add(Level.SUCCESS, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Adds a success message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void success(String pattern, Object a1, Object a2) {
+        add(Level.SUCCESS, pattern, 2, a1, a2, null);
+    }
+
+    /** Adds a success message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void success(String pattern, Object a1, Object a2, Object a3) {
+        add(Level.SUCCESS, pattern, 3, a1, a2, a3);
+    }
+
+    /** Adds a message at any level.
+     *
+     * @param level    the message level
+     * @param msg      the message to add
+     */
+    public void log(Level level, String msg) {
+        add(level, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Adds a styled line without a level prefix, like {@link Debug#println(String, Style...)}.
+     *
+     * @param msg    the message to add
+     * @param styles optional styles to apply
+     */
+    public void println(String msg, Style... styles) {
+        checkOpen();
+        Debug.appendStyled(text, msg, styles);
+    }
+
+    // ------------------ Internals ------------------
+
+    private void add(Level level, String pattern, int argc, Object a1, Object a2, Object a3) {
+        checkOpen();
+        if (level == null) throw new IllegalArgumentException("Level must not be null");
+        if (Debug.append(text, level, pattern, argc, a1, a2, a3)
+                && (highest == null || level.getPriority() > highest.getPriority())) {
+            highest = level;
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Batch used after its callback returned");
+    }
+
+    /** Ends the batch. @return the collected text, or an empty builder if nothing passed the filters */
+    StringBuilder close() {
+        closed = true;
+        return text;
+    }
+
+    /** @return the highest level added, used by the overflow policy in asynchronous mode */
+    Level highest() {
+        return highest;
+    }
+}
@@ -0,0 +1,402 @@
+package org.jquill;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A compact binary record of {@link Debug} output, written into memory-mapped file segments.
+ * Instead of formatting text on the logging thread, each message is stored as a raw record:
+ * its level, {@link TimeSource#nanoTime()} reading, thread id, a message template id, the {@link Logger}
+ * it came from and the raw template arguments. Templates, thread names, logger names and time
+ * formats are written once per segment as dictionary records, so every segment can be decoded
+ * on its own. {@link LogDecoder} renders segments back into the same styled text {@link Debug}
+ * prints, or into plain text.
+ * <p>
+ * Segments are named {@code <base>-000001.jqb}, {@code <base>-000002.jqb}, ... starting at the first
+ * free index; a new segment is mapped whenever the current one is full. Plain messages (those not
+ * using a <code>{}</code> template) are stored inline rather than interned as templates.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Debug.setBinaryLog(BinaryLog.open(Path.of("logs/app")));
+ * Debug.info("Processed {} requests in {} ms", count, elapsed);
+ * }</pre>
+ * <pre>{@code
+ * java -cp jquill.jar org.jquill.LogDecoder logs/app-000001.jqb
+ * }</pre>
+ *
+ * @see Debug#setBinaryLog(BinaryLog)
+ * @see LogDecoder
+ */
+public final class BinaryLog implements AutoCloseable {
+
+    // ------------------ Format ------------------
+
+    static final int MAGIC = 0x4A514C42; // "JQLB"
+    static final short VERSION = 1;
+    static final String EXTENSION = ".jqb";
+
+    static final byte END = 0;
+    static final byte TEMPLATE = 1;
+    static final byte THREAD = 2;
+    static final byte FORMAT = 3;
+    static final byte EVENT = 4;
+    static final byte RAW = 5;
+    static final byte LOGGER = 6;
+
+    static final byte ARG_NULL = 0;
+    static final byte ARG_STRING = 1;
+    static final byte ARG_INT = 2;
+    static final byte ARG_LONG = 3;
+    static final byte ARG_DOUBLE = 4;
+    static final byte ARG_FLOAT = 5;
+    static final byte ARG_BOOLEAN = 6;
+    static final byte ARG_CHAR = 7;
+
+    static final int FLAG_SHOW_TYPE = 1;
+    static final int FLAG_SHOW_THREAD = 1 << 1;
+    static final int FLAG_NEWLINE = 1 << 2;
+    static final int TIME_MODE_SHIFT = 4;
+
+    /** Template id marking a plain message stored inline as the only argument. */
+    static final int LITERAL_TEMPLATE = -1;
+
+    /** Logger id marking a message logged through {@link Debug} itself. */
+    static final int NO_LOGGER = -1;
+
+    private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final int EVENT_HEADER = 1 + 1 + 1 + 8 + 8 + 4 + 4 + 1;
+
+    private final Path base;
+    private final int segmentSize;
+    private final Map<String, Integer> templateIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTemplateId = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private int segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer buf;
+    private boolean[] definedTemplates = new boolean[64];
+    private boolean[] definedLoggers = new boolean[16];
+    private final Map<Long, String> definedThreads = new HashMap<>();
+    private TimestampRenderer definedFormat;
+    private long dropped;
+    private boolean closed;
+
+    private BinaryLog(Path base, int segmentSize) throws IOException {
+        this.base = base;
+        this.segmentSize = segmentSize;
+        Path parent = base.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        openNextSegment();
+    }
+
+    /**
+     * Opens a binary log with 16 MiB segments.
+     *
+     * @param base the path segments are named after, e.g. {@code logs/app}
+     * @return the binary log
+     * @throws IOException if the first segment cannot be created
+     */
+    public static BinaryLog open(Path base) throws IOException {
+        return open(base, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a binary log with the given segment size.
+     *
+     * @param base        the path segments are named after, e.g. {@code logs/app}
+     * @param segmentSize the size of each memory-mapped segment in bytes (at least 4 KiB)
+     * @return the binary log
+     * @throws IOException if the first segment cannot be created
+     */
+    public static BinaryLog open(Path base, int segmentSize) throws IOException {
+        return new BinaryLog(base, Math.max(4096, segmentSize));
+    }
+
+    /**
+     * Returns the path of the segment currently being written.
+     *
+     * @return the current segment file
+     */
+    public Path getCurrentSegment() {
+        lock.lock();
+        try {
+            return segmentPath(base, segmentIndex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of records that could not be written, either because they were larger
+     * than a segment or because a segment could not be created.
+     *
+     * @return the number of dropped records
+     */
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static Path segmentPath(Path base, int index) {
+        return base.resolveSibling(base.getFileName() + String.format("-%06d", index) + EXTENSION);
+    }
+
+    // ------------------ Recording ------------------
+
+    /** Records a levelled message. Arguments follow the {@link MessageFormatter} conventions. */
+    void record(Logger logger, Level level, boolean showType, boolean showThread, TimeMode timeMode,
+                TimestampRenderer format, String pattern, int argc, Object a1, Object a2, Object a3) {
+        long nanos = Debug.getTimeSource().nanoTime();
+        Thread thread = Thread.currentThread();
+
+        String template = String.valueOf(pattern);
+        int templateId;
+        if (argc == MessageFormatter.LITERAL || argc == MessageFormatter.SUPPLIED) {
+            a1 = argc == MessageFormatter.SUPPLIED ? String.valueOf(((Supplier<?>) a1).get()) : template;
+            templateId = LITERAL_TEMPLATE;
+            argc = 1;
+        } else {
+            templateId = templateIds.computeIfAbsent(template, t -> nextTemplateId.getAndIncrement());
+        }
+        a1 = normalize(a1);
+        a2 = argc > 1 ? normalize(a2) : null;
+        a3 = argc > 2 ? normalize(a3) : null;
+
+        int flags = (showType ? FLAG_SHOW_TYPE : 0) | (showThread ? FLAG_SHOW_THREAD : 0)
+                | timeMode.ordinal() << TIME_MODE_SHIFT;
+        int size = EVENT_HEADER + argSize(a1) + (argc > 1 ? argSize(a2) : 0) + (argc > 2 ? argSize(a3) : 0);
+
+        lock.lock();
+        try {
+            if (closed) return;
+            long threadId = thread.getId();
+            String threadName = thread.getName();
+            int loggerId = logger != null ? logger.id() : NO_LOGGER;
+            boolean fresh = false;
+            while (true) {
+                int needed = size
+                        + (isTemplateDefined(templateId) ? 0 : 1 + 4 + stringSize(template))
+                        + (isLoggerDefined(loggerId) ? 0 : 1 + 4 + stringSize(logger.getName()))
+                        + (threadName.equals(definedThreads.get(threadId)) ? 0 : 1 + 8 + stringSize(threadName))
+                        + (format == definedFormat || timeMode != TimeMode.ABSOLUTE ? 0 : 1 + stringSize(format.pattern()));
+                if (fits(needed)) break;
+                if (fresh || !rollSegment()) {
+                    dropped++;
+                    return;
+                }
+                fresh = true;
+            }
+
+            if (!isTemplateDefined(templateId)) {
+                buf.put(TEMPLATE).putInt(templateId);
+                putString(template);
+                definedTemplates = define(definedTemplates, templateId);
+            }
+            if (!isLoggerDefined(loggerId)) {
+                buf.put(LOGGER).putInt(loggerId);
+                putString(logger.getName());
+                definedLoggers = define(definedLoggers, loggerId);
+            }
+            if (!threadName.equals(definedThreads.get(threadId))) {
+                buf.put(THREAD).putLong(threadId);
+                putString(threadName);
+                definedThreads.put(threadId, threadName);
+            }
+            if (timeMode == TimeMode.ABSOLUTE && format != definedFormat) {
+                buf.put(FORMAT);
+                putString(format.pattern());
+                definedFormat = format;
+            }
+
+            buf.put(EVENT).put((byte) level.index).put((byte) flags).putLong(nanos).putLong(threadId)
+                    .putInt(templateId).putInt(loggerId).put((byte) argc);
+            putArg(a1);
+            if (argc > 1) putArg(a2);
+            if (argc > 2) putArg(a3);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Records already styled free-form output from {@link Debug#print(String, Style...)} and {@link Debug#println(String, Style...)}. */
+    void recordRaw(CharSequence text, boolean newline) {
+        long nanos = Debug.getTimeSource().nanoTime();
+        int size = 1 + 1 + 8 + stringSize(text);
+        lock.lock();
+        try {
+            if (closed) return;
+            if (!fits(size) && (!rollSegment() || !fits(size))) {
+                dropped++;
+                return;
+            }
+            buf.put(RAW).put((byte) (newline ? FLAG_NEWLINE : 0)).putLong(nanos);
+            putString(text);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces everything recorded so far to the storage device.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            if (!closed) buf.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes and closes the current segment. Later records are ignored.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            buf.force();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("JQuill: failed to close " + getCurrentSegment() + ": " + e);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ------------------ Segments ------------------
+
+    private boolean rollSegment() {
+        try {
+            if (buf.hasRemaining()) buf.put(END);
+            buf.force();
+            channel.close();
+            openNextSegment();
+            return true;
+        } catch (IOException e) {
+            System.err.println("JQuill: failed to create binary log segment: " + e);
+            closed = true;
+            return false;
+        }
+    }
+
+    private void openNextSegment() throws IOException {
+        Path path;
+        do {
+            path = segmentPath(base, ++segmentIndex);
+        } while (Files.exists(path));
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        definedTemplates = new boolean[definedTemplates.length];
+        definedLoggers = new boolean[definedLoggers.length];
+        definedThreads.clear();
+        definedFormat = null;
+
+        TimeSource source = Debug.getTimeSource();
+        buf.putInt(MAGIC).putShort(VERSION)
+                .putLong(source.currentTimeMillis())
+                .putLong(source.nanoTime())
+                .putLong(Debug.startNanos());
+        putString(source.zone().getId());
+    }
+
+    /** Leaves room for the end marker and for the encoder's per-step headroom. */
+    private boolean fits(int size) {
+        return size + 1 + Utf8.MAX_BYTES_PER_STEP <= buf.remaining();
+    }
+
+    private boolean isTemplateDefined(int id) {
+        return id == LITERAL_TEMPLATE || (id < definedTemplates.length && definedTemplates[id]);
+    }
+
+    private boolean isLoggerDefined(int id) {
+        return id == NO_LOGGER || (id < definedLoggers.length && definedLoggers[id]);
+    }
+
+    private static boolean[] define(boolean[] defined, int id) {
+        if (id >= defined.length) {
+            defined = Arrays.copyOf(defined, Math.max(id + 1, defined.length * 2));
+        }
+        defined[id] = true;
+        return defined;
+    }
+
+    // ------------------ Encoding ------------------
+
+    /** Keeps primitive wrappers as they are and turns everything else into its string form. */
+    private static Object normalize(Object arg) {
+        if (arg == null || arg instanceof Integer || arg instanceof Long || arg instanceof Double
+                || arg instanceof Float || arg instanceof Boolean || arg instanceof Character) {
+            return arg;
+        }
+        if (arg instanceof Short s) return s.intValue();
+        if (arg instanceof Byte b) return b.intValue();
+        StringBuilder sb = new StringBuilder();
+        MessageFormatter.append(sb, "{}", 1, arg, null, null);
+        return sb.toString();
+    }
+
+    private static int argSize(Object arg) {
+        if (arg == null) return 1;
+        if (arg instanceof Integer || arg instanceof Float) return 1 + 4;
+        if (arg instanceof Long || arg instanceof Double) return 1 + 8;
+        if (arg instanceof Boolean) return 1 + 1;
+        if (arg instanceof Character) return 1 + 2;
+        return 1 + stringSize((String) arg);
+    }
+
+    private static int stringSize(CharSequence text) {
+        return 4 + Utf8.length(text);
+    }
+
+    private void putArg(Object arg) {
+        if (arg == null) {
+            buf.put(ARG_NULL);
+        } else if (arg instanceof Integer i) {
+            buf.put(ARG_INT).putInt(i);
+        } else if (arg instanceof Long l) {
+            buf.put(ARG_LONG).putLong(l);
+        } else if (arg instanceof Double d) {
+            buf.put(ARG_DOUBLE).putDouble(d);
+        } else if (arg instanceof Float f) {
+            buf.put(ARG_FLOAT).putFloat(f);
+        } else if (arg instanceof Boolean b) {
+            buf.put(ARG_BOOLEAN).put((byte) (b ? 1 : 0));
+        } else if (arg instanceof Character c) {
+            buf.put(ARG_CHAR).putChar(c);
+        } else {
+            buf.put(ARG_STRING);
+            putString((String) arg);
+        }
+    }
+
+    private void putString(CharSequence text) {
+        int lengthAt = buf.position();
+        buf.putInt(0);
+        Utf8.encode(text, 0, text.length(), buf);
+        buf.putInt(lengthAt, buf.position() - lengthAt - 4);
+    }
+}
@@ -0,0 +1,78 @@
+package org.jquill;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A user-defined diagnostic category that messages can be tagged with.
+ * A tagged message is printed if its {@link Level} is enabled, or if its category has been
+ * enabled with {@link Debug#setEnabled(Category, boolean)} — so one subsystem's diagnostics can be
+ * turned on by themselves without lowering the global level. Each category owns one bit of the
+ * same filter mask as the levels, which keeps the check a single AND; up to 24 categories can exist.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Category sql = Category.of("sql");
+ * Debug.setLevel(Level.WARN);
+ * Debug.setEnabled(sql, true);
+ *
+ * Debug.log(Level.TRACE, sql, "Executing {}", statement);   // printed
+ * Debug.trace("Cache miss");                                  // filtered
+ * }</pre>
+ *
+ * @see Debug#setEnabled(Category, boolean)
+ * @see Level
+ */
+public final class Category {
+
+    private static final int FIRST_BIT = 8;
+    private static final int MAX_CATEGORIES = Integer.SIZE - FIRST_BIT;
+    private static final Map<String, Category> CATEGORIES = new ConcurrentHashMap<>();
+
+    private final String name;
+    final int bit;
+
+    private Category(String name, int bit) {
+        this.name = name;
+        this.bit = bit;
+    }
+
+    /**
+     * Returns the category with the given name, creating it on first use.
+     *
+     * @param name the category name
+     * @return the category
+     * @throws IllegalArgumentException if the name is null or blank
+     * @throws IllegalStateException    if the maximum number of categories already exists
+     */
+    public static Category of(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Category name must not be empty");
+        }
+        Category category = CATEGORIES.get(name);
+        if (category != null) return category;
+        synchronized (CATEGORIES) {
+            return CATEGORIES.computeIfAbsent(name, n -> {
+                int index = CATEGORIES.size();
+                if (index >= MAX_CATEGORIES) {
+                    throw new IllegalStateException("Too many categories (max " + MAX_CATEGORIES + ")");
+                }
+                return new Category(n, 1 << (FIRST_BIT + index));
+            });
+        }
+    }
+
+    /**
+     * Returns the name of this category.
+     *
+     * @return the category name
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "Category[" + name + "]";
+    }
+}
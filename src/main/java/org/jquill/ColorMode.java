@@ -0,0 +1,62 @@
+package org.jquill;
+
+/**
+ * Defines how {@link Debug} renders {@link Style} codes, matched to what the output can display.
+ * The mode is detected once at startup with {@link #detect()} and can be overridden with
+ * {@link Debug#setColorMode(ColorMode)}.
+ *
+ * <ul>
+ *   <li>{@link #TRUECOLOR} — style codes are written as they are, with 24-bit colors.</li>
+ *   <li>{@link #ANSI_256} — 24-bit colors are mapped to the nearest of the 256 standard terminal colors.</li>
+ *   <li>{@link #PLAIN} — no styling is applied and escape sequences embedded in messages are removed.</li>
+ * </ul>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Debug.setSink(FileSink.builder(Path.of("logs/app.log")).build());
+ * Debug.setColorMode(ColorMode.PLAIN);
+ *
+ * Debug.info("Written without escape codes");
+ * }</pre>
+ *
+ * @see Debug#setColorMode(ColorMode)
+ */
+public enum ColorMode {
+    /** Write 24-bit colors and text attributes unchanged. */
+    TRUECOLOR,
+
+    /** Downgrade 24-bit colors to the 256-color palette. */
+    ANSI_256,
+
+    /** Write text only, without any escape sequences. */
+    PLAIN;
+
+    /**
+     * Detects what the standard output can display. Output that is not a terminal, a set
+     * {@code NO_COLOR} variable or {@code TERM=dumb} give {@link #PLAIN};
+     * {@code COLORTERM=truecolor} or {@code 24bit}, or a Windows console, give {@link #TRUECOLOR};
+     * any other terminal gets {@link #ANSI_256}.
+     *
+     * @return the detected mode
+     */
+    public static ColorMode detect() {
+        if (System.console() == null) return PLAIN;
+        String noColor = env("NO_COLOR");
+        if (noColor != null && !noColor.isEmpty()) return PLAIN;
+
+        String term = env("TERM");
+        if ("dumb".equals(term)) return PLAIN;
+        String colorTerm = env("COLORTERM");
+        if ("truecolor".equalsIgnoreCase(colorTerm) || "24bit".equalsIgnoreCase(colorTerm)) return TRUECOLOR;
+        if (term == null && System.getProperty("os.name", "").startsWith("Windows")) return TRUECOLOR;
+        return ANSI_256;
+    }
+
+    private static String env(String name) {
+        try {
+            return System.getenv(name);
+        } catch (SecurityException e) {
+            return null;
+        }
+    }
+}
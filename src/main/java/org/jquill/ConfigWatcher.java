@@ -0,0 +1,147 @@
+package org.jquill;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Loads {@link DebugConfig} settings from a properties file and, once started, reloads them every
+ * time the file changes. The file's directory is watched with a {@link WatchService} on a daemon
+ * thread, which parses the file, builds the new snapshot — compiling its time format — and installs
+ * it with {@link Debug#setConfig(DebugConfig)}, so logging threads only ever see a finished
+ * snapshot. Keys of the form {@code level.<name>} set the levels of named loggers, or clear them
+ * with {@code inherit}; removing such a key from a watched file clears the level as well. A file
+ * that cannot be read or contains an invalid value is reported on {@code System.err} and the
+ * current configuration is kept.
+ *
+ * @see Debug#watchConfig(Path)
+ */
+final class ConfigWatcher {
+
+    private static final String LOGGER_LEVEL_PREFIX = "level.";
+    private static final long SETTLE_MILLIS = 50;
+
+    private final Path file;
+    private final WatchService service;
+    private final Thread thread;
+    // Owned by the watcher thread once started
+    private Set<String> loggers;
+    private String lastFailure;
+
+    private ConfigWatcher(Path file) throws IOException {
+        this.file = file;
+        Path directory = file.getParent() != null ? file.getParent() : Path.of("");
+        this.service = directory.getFileSystem().newWatchService();
+        directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "jquill-config-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /** Loads the file once and starts watching it. */
+    static ConfigWatcher start(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Set<String> loggers = load(absolute, Set.of());
+        ConfigWatcher watcher = new ConfigWatcher(absolute);
+        watcher.loggers = loggers;
+        watcher.thread.start();
+        return watcher;
+    }
+
+    /** Stops watching. */
+    void stop() {
+        try {
+            service.close();
+        } catch (IOException e) {
+            // nothing left to release
+        }
+    }
+
+    // ------------------ Loading ------------------
+
+    /**
+     * Applies the settings in a properties file on top of the current configuration. The global
+     * settings and the logger levels are applied as one change under {@link Debug}'s configuration lock.
+     *
+     * @param previous logger names set by the previous load of the same file; those missing from
+     *                 the file now have their level cleared
+     * @return the logger names the file sets a level for
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    static Set<String> load(Path file, Set<String> previous) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Set<String> loggers = new HashSet<>();
+        Map<String, Level> loggerLevels = new LinkedHashMap<>();
+        for (String name : previous) loggerLevels.put(name, null);
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(LOGGER_LEVEL_PREFIX)) {
+                String name = key.substring(LOGGER_LEVEL_PREFIX.length());
+                String value = properties.getProperty(key).trim();
+                loggerLevels.put(name, value.equalsIgnoreCase("inherit") ? null : Level.parse(value));
+                loggers.add(name);
+            }
+        }
+        // The builder throws before anything is applied, so an invalid file changes nothing
+        Debug.applyConfig(config -> config.toBuilder().properties(properties).build(), loggerLevels);
+        return loggers;
+    }
+
+    // ------------------ Watching ------------------
+
+    private void run() {
+        Path name = file.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    // Editors often write a file in several steps; let them finish before reading
+                    Thread.sleep(SETTLE_MILLIS);
+                    for (WatchKey pending; (pending = service.poll()) != null; ) {
+                        pending.pollEvents();
+                        pending.reset();
+                    }
+                    reload();
+                }
+                if (!key.reset()) return;
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // stopped
+        }
+    }
+
+    private void reload() {
+        try {
+            if (Files.exists(file)) loggers = load(file, loggers);
+            lastFailure = null;
+        } catch (IOException | IllegalArgumentException e) {
+            // One save can raise several events; report each problem once
+            String failure = e.getMessage() != null ? e.getMessage() : e.toString();
+            if (!Objects.equals(failure, lastFailure)) {
+                System.err.println("JQuill: failed to reload configuration from " + file + ": " + failure);
+            }
+            lastFailure = failure;
+        }
+    }
+}
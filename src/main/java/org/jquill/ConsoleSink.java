@@ -0,0 +1,94 @@
+package org.jquill;
+
+import java.io.PrintStream;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Sink} that writes to a {@link PrintStream}, serialized by a {@link ReentrantLock} so that
+ * concurrent writes never interleave. The lock is not a monitor, so a virtual thread blocked on it
+ * or on the stream's I/O unmounts instead of pinning its carrier thread.
+ * This is the sink {@link Debug} uses by default. While {@link Progress} bars or {@link StatusLine}s
+ * are on screen, the standard output sink writes above them, so log lines and live lines never overlap.
+ * Closing the sink only flushes the stream; the stream itself is left open.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Debug.setSink(new ConsoleSink(System.err));
+ * }</pre>
+ *
+ * @see Sink
+ */
+public final class ConsoleSink implements Sink {
+
+    private static final ConsoleSink STDOUT = new ConsoleSink(System.out);
+
+    private final PrintStream out;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock; true while a live region is drawn below the output
+    private boolean live;
+
+    /**
+     * Creates a sink writing to the given stream.
+     *
+     * @param out the stream to write to
+     */
+    public ConsoleSink(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Returns the sink writing to {@code System.out} as it was when JQuill was initialized.
+     *
+     * @return the standard output sink
+     */
+    public static ConsoleSink stdout() {
+        return STDOUT;
+    }
+
+    @Override
+    public void write(CharSequence text) {
+        if (lock.tryLock()) {
+            if (Metrics.enabled) Metrics.lockWait(0);
+        } else {
+            long start = System.nanoTime();
+            lock.lock();
+            if (Metrics.enabled) Metrics.lockWait(System.nanoTime() - start);
+        }
+        try {
+            if (live) {
+                LiveRegion.INSTANCE.printAbove(out, text);
+            } else {
+                out.append(text);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Draws a frame of the live region under the output lock.
+     *
+     * @return false once the renderer thread should stop
+     */
+    boolean draw(LiveRegion region, boolean renderer) {
+        lock.lock();
+        try {
+            boolean more = region.drawFrame(out, renderer);
+            live = region.isActive();
+            return more;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        out.flush();
+    }
+
+    @Override
+    public String toString() {
+        return this == STDOUT ? "console" : "console[" + out + "]";
+    }
+}
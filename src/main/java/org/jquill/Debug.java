@@ -1,27 +1,52 @@
 package org.jquill;
 
-import java.io.PrintStream;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Utility class for formatted, level-based, and optionally styled debug output.
- * Provides methods to log messages with different severity levels: {@link #info(String)},
- * {@link #log(String)}, {@link #warn(String)}, {@link #error(String)}, and {@link #success(String)}.
+ * Provides methods to log messages with different severity levels: {@link #trace(String)},
+ * {@link #log(String)}, {@link #info(String)}, {@link #warn(String)}, {@link #error(String)}, and
+ * {@link #success(String)}, or at any {@link Level} and {@link Category} with
+ * {@link #log(Level, Category, String)}.
  * Each message can optionally include timestamps, thread names, and type labels.
  * Supports configuration of:
  * <ul>
- *   <li>Logging level via {@link #setLevel(Level)}</li>
+ *   <li>All of the settings below at once via {@link #setConfig(DebugConfig)}, or from a watched properties file via {@link #watchConfig(Path)}</li>
+ *   <li>Logging level via {@link #setLevel(Level)}, and per named {@link Logger} via {@link #setLevel(String, Level)}</li>
+ *   <li>Individual levels and categories via {@link #setEnabled(Level, boolean)} and {@link #setEnabled(Category, boolean)}</li>
  *   <li>Timestamp display mode via {@link #setTimeMode(TimeMode)} and format via {@link #setTimeFormat(String)}</li>
+ *   <li>The clock behind timestamps via {@link #setTimeSource(TimeSource)}</li>
  *   <li>Whether to show message type prefixes via {@link #setShowType(boolean)}</li>
  *   <li>Whether to show thread names via {@link #setShowThread(boolean)}</li>
+ *   <li>Output destination via {@link #setSink(Sink)}</li>
+ *   <li>How styles are rendered via {@link #setColorMode(ColorMode)}, detected from the terminal by default</li>
+ *   <li>Asynchronous output via {@link #setAsync(boolean)} and {@link #setOverflowPolicy(OverflowPolicy)}</li>
+ *   <li>Throttling via {@link #setRateLimit(int, int)} and {@link #setCollapseRepeats(boolean)}</li>
+ *   <li>A flight recorder of filtered messages, printed before errors, via {@link #setFlightRecorder(int)} and {@link #dumpRecent()}</li>
+ *   <li>Output metrics via {@link #setMetricsEnabled(boolean)} and {@link #metrics()}</li>
+ *   <li>Grouped multi-line output via {@link #batch(Consumer)}, written with a single sink call</li>
+ *   <li>Timing spans via {@link #span(String)} and {@link #time(String, Runnable)}, summarized by {@link #printTimings()}</li>
+ *   <li>Live {@link Progress} bars and {@link StatusLine}s below the output, redrawn at {@link #setLiveFrameRate(int)}</li>
+ *   <li>Output of {@link System.Logger} and {@code java.util.logging}, routed here by {@link JQuillLoggerFinder} and {@link JQuillHandler}</li>
  * </ul>
  * Messages can also be styled using the {@link Style} class, with optional per-message style overrides.
- * All output is thread-safe and synchronized on the underlying {@link java.io.PrintStream}.
+ * Besides plain strings, every level accepts a {@link java.util.function.Supplier} or a template with
+ * <code>{}</code> placeholders; these are only evaluated once the message has passed the level filter.
+ * All output is thread-safe and written to a {@link Sink} — {@code System.out} by default, or any
+ * combination of console, file and custom sinks installed with {@link #setSink(Sink)}.
+ * In asynchronous mode callers only publish the formatted line into a bounded buffer; a background
+ * writer thread performs the actual I/O. Use {@link #flush()} to wait for pending output.
  *
  * <h2>Usage Example:</h2>
  * <pre>{@code
- * Debug.setLevel(Level.LOW);
+ * Debug.setLevel(Level.DEBUG);
  * Debug.setShowType(true);
  * Debug.setTimeMode(TimeMode.ABSOLUTE);
  *
@@ -29,6 +54,8 @@ import java.time.format.DateTimeFormatter;
  * Debug.warn("Potential issue detected");
  * Debug.error("Critical error occurred");
  * Debug.success("Task completed successfully");
+ * Debug.info("Loaded {} entries in {} ms", count, elapsed);
+ * Debug.log(() -> expensiveDump());
  * }</pre>
  *
  * @see Level
@@ -37,14 +64,29 @@ import java.time.format.DateTimeFormatter;
  */
 public final class Debug {
 
-    private static final PrintStream OUT = System.out;
-    private static final long START_TIME = System.currentTimeMillis();
+    private static final String LINE_SEPARATOR = System.lineSeparator();
 
-    private static volatile boolean showType = false;
-    private static volatile boolean showThread = false;
-    private static volatile TimeMode timeMode = TimeMode.ELAPSED;
-    private static volatile Level currentLevel = Level.LOW;
-    private static volatile String timeFormat = "HH:mm:ss";
+    private static volatile Sink sink = ConsoleSink.stdout();
+    private static volatile BinaryLog binaryLog;
+    private static volatile FlightRecorder flightRecorder;
+
+    private static final Object CONFIG_LOCK = new Object();
+    private static volatile DebugConfig config = DebugConfig.defaults();
+    private static ConfigWatcher configWatcher;
+
+    private static final Object THROTTLE_LOCK = new Object();
+    private static volatile Throttle throttle;
+    private static int rateLimit;
+    private static int rateBurst;
+    private static boolean collapseRepeats;
+    private static long suppressedBefore;
+
+    private static final Object ASYNC_LOCK = new Object();
+    private static volatile AsyncWriter asyncWriter;
+    private static volatile OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private static volatile int asyncBufferSize = 8192;
+    private static long droppedBefore;
+    private static boolean shutdownHookInstalled;
 
     private Debug() {
         // Utility class — prevent instantiation
@@ -52,21 +94,33 @@ public final class Debug {
 
     // ------------------ Time & Thread Helpers ------------------
 
-    private static String formatTime() {
-        if (timeMode == TimeMode.ABSOLUTE) {
-            return "[" + LocalTime.now().format(DateTimeFormatter.ofPattern(timeFormat)) + "] ";
-        } else if (timeMode == TimeMode.ELAPSED) {
-            long elapsed = System.currentTimeMillis() - START_TIME;
-            long ms = elapsed % 1000;
-            long s = (elapsed / 1000) % 60;
-            long m = (elapsed / (1000 * 60)) % 60;
-            return String.format("[%02d:%02d:%03d] ", m, s, ms);
+    private static void appendTime(DebugConfig config, StringBuilder sb) {
+        TimeMode mode = config.timeMode;
+        if (mode == TimeMode.ABSOLUTE) {
+            TimeSource source = config.timeSource;
+            config.timestamps().appendAbsolute(sb, source.currentTimeMillis(), source.zone());
+        } else if (mode == TimeMode.ELAPSED) {
+            TimestampRenderer.appendElapsed(sb, config.timeSource.nanoTime() - config.startNanos);
         }
-        return "";
     }
 
-    private static String formatThread() {
-        return "[" + Thread.currentThread().getName() + "] ";
+    /**
+     * Appends the part of a line that precedes the timestamp: the locked thread name, if any,
+     * followed by the type label or icon. Shared with {@link LogDecoder}.
+     *
+     * @param line           the builder to append to
+     * @param threadName     the thread name to show, or null to omit it
+     * @param level          the message level
+     * @param showTypePrefix true for the full label, false for the short icon
+     */
+    static void appendPrefix(StringBuilder line, String threadName, Level level, boolean showTypePrefix) {
+        if (threadName != null) line.append(formatThread(threadName));
+        line.append(showTypePrefix ? level.label : level.icon);
+    }
+
+    /** @return the thread name as shown in front of a message, locked so it keeps its own style */
+    static String formatThread(String threadName) {
+        return Style.LOCK_START + '[' + threadName + "] " + Style.LOCK_END;
     }
 
     // ------------------ Core Print ------------------
@@ -78,8 +132,7 @@ public final class Debug {
      * @param styles optional styles to apply
      */
     public static void print(String msg, Style... styles) {
-        StringBuilder sb = new StringBuilder();
-        OUT.print(Style.processLocks(sb, msg, styles));
+        printStyled(msg, false, styles);
     }
 
     /**
@@ -89,120 +142,840 @@ public final class Debug {
      * @param styles optional styles to apply
      */
     public static void println(String msg, Style... styles) {
-        StringBuilder sb = new StringBuilder();
-        OUT.println(Style.processLocks(sb, msg, styles));
+        printStyled(msg, true, styles);
+    }
+
+    private static void printStyled(String msg, boolean newline, Style... styles) {
+        String text = msg != null ? msg : "null";
+        Buffers buffers = Buffers.acquire();
+        try {
+            BinaryLog binary = binaryLog;
+            if (binary != null) {
+                binary.recordRaw(Style.processLocks(buffers.styled, text, 0, text.length(), styles), newline);
+                return;
+            }
+            StringBuilder styled = render(config.colorMode, buffers, text, styles);
+            if (newline) styled.append(LINE_SEPARATOR);
+            emit(null, styled);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Collects several messages and writes them out together. Each message added to the batch is
+     * filtered and formatted like the matching {@link Debug} call; when {@code body} returns, the
+     * lines are written to the sink in one write, in order, without output from other threads
+     * between them. Lines added before {@code body} throws are still written.
+     *
+     * @param body adds the messages to the batch
+     * @see Batch
+     */
+    public static void batch(Consumer<Batch> body) {
+        Batch batch = new Batch();
+        try {
+            body.accept(batch);
+        } finally {
+            StringBuilder text = batch.close();
+            if (text.length() > 0) emit(batch.highest(), text);
+        }
+    }
+
+    /**
+     * Formats a message onto the text of a {@link Batch}, if it passes the level filter.
+     *
+     * @return true if the message was added
+     */
+    static boolean append(StringBuilder out, Level level, String pattern, int argc, Object a1, Object a2, Object a3) {
+        DebugConfig config = Debug.config;
+        if ((config.enabledMask & level.bit) == 0) {
+            filtered(null, level, pattern, argc, a1, a2, a3);
+            return false;
+        }
+        FlightRecorder recorder = flightRecorder;
+        if (recorder != null && level == Level.ERROR) recorder.dump();
+
+        if (Metrics.enabled) Metrics.emitted(level);
+        BinaryLog binary = binaryLog;
+        if (binary != null) {
+            if (MessageFormatter.hasThrown(argc)) {
+                pattern = withTrace(pattern, argc, a1, a2, a3);
+                argc = MessageFormatter.LITERAL;
+            }
+            binary.record(null, level, config.showType, config.showThread, config.timeMode, config.timestamps(),
+                    pattern, argc, a1, a2, a3);
+            return true;
+        }
+
+        Buffers buffers = Buffers.acquire();
+        try {
+            StringBuilder line = buffers.line;
+            if (config.showThread) line.append(buffers.threadPrefix());
+            appendPrefix(line, null, level, config.showType);
+            appendTime(config, line);
+            MessageFormatter.append(line, pattern, argc, a1, a2, a3);
+            if (MessageFormatter.hasThrown(argc)) StackTraces.append(line, (Throwable) a1, true);
+            out.append(render(config.colorMode, buffers, line, level.style)).append(LINE_SEPARATOR);
+            return true;
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /** Styles a line onto the text of a {@link Batch}, like {@link #println(String, Style...)}. */
+    static void appendStyled(StringBuilder out, String msg, Style... styles) {
+        String text = msg != null ? msg : "null";
+        Buffers buffers = Buffers.acquire();
+        try {
+            BinaryLog binary = binaryLog;
+            if (binary != null) {
+                binary.recordRaw(Style.processLocks(buffers.styled, text, 0, text.length(), styles), true);
+                return;
+            }
+            out.append(render(config.colorMode, buffers, text, styles)).append(LINE_SEPARATOR);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Blocks until all output produced so far has been written and flushes the current sink.
+     * Acts as a barrier in asynchronous mode; in synchronous mode it only flushes the sink.
+     */
+    public static void flush() {
+        Throttle limiter = throttle;
+        if (limiter != null) reportPending(limiter);
+        AsyncWriter writer = asyncWriter;
+        if (writer != null) {
+            writer.flush();
+        }
+        LiveRegion.INSTANCE.flush();
+        sink.flush();
+        BinaryLog binary = binaryLog;
+        if (binary != null) {
+            binary.flush();
+        }
     }
 
     // ------------------ Unified Output ------------------
 
-    private static void print(Level level, String label, String message, Style style, boolean showTypePrefix) {
-        if (level.getPriority() < currentLevel.getPriority()) return;
+    /**
+     * Per-thread scratch buffers reused across messages. A nested call on the same thread
+     * (e.g. from an argument's {@code toString()}) gets a fresh instance instead.
+     */
+    private static final class Buffers {
+        private static final int MAX_RETAINED = 16 * 1024;
+        private static final ThreadLocal<Buffers> LOCAL = new ThreadLocal<>() {
+            @Override
+            protected Buffers initialValue() {
+                // Not a lambda: the first lambda in a JVM pays for bootstrapping the lambda machinery
+                return new Buffers();
+            }
+        };
 
-        StringBuilder sb = new StringBuilder();
-        StringBuilder prefix = new StringBuilder();
+        final StringBuilder line = new StringBuilder(256);
+        final StringBuilder styled = new StringBuilder(256);
+        private boolean inUse;
+        private String threadName;
+        private String threadPrefix;
 
-        if (showThread) {
-            prefix.append(Style.lock(formatThread()));
+        static Buffers acquire() {
+            Buffers buffers = LOCAL.get();
+            if (buffers.inUse) return new Buffers();
+            buffers.inUse = true;
+            buffers.line.setLength(0);
+            buffers.styled.setLength(0);
+            return buffers;
         }
 
-        if (showTypePrefix) {
-            prefix.append(label);
+        void release() {
+            inUse = false;
+            if (line.capacity() > MAX_RETAINED || styled.capacity() > MAX_RETAINED) {
+                LOCAL.remove();
+            }
+        }
+
+        /**
+         * Returns the locked thread-name prefix of the current thread. Buffers belong to a single
+         * thread, so the prefix is built once and only rebuilt if the thread is renamed.
+         */
+        String threadPrefix() {
+            String name = Thread.currentThread().getName();
+            if (!name.equals(threadName)) {
+                threadName = name;
+                threadPrefix = formatThread(name);
+            }
+            return threadPrefix;
+        }
+    }
+
+    private static void print(Level level, Boolean showTypePrefix, String pattern, int argc,
+                              Object a1, Object a2, Object a3) {
+        DebugConfig config = Debug.config;
+        if ((config.enabledMask & level.bit) == 0) {
+            filtered(null, level, pattern, argc, a1, a2, a3);
+            return;
+        }
+        write(config, null, level, showTypePrefix, pattern, argc, a1, a2, a3);
+    }
+
+    /** Prints a {@code (String, Boolean)} call: a pattern with a placeholder formats the value, anything else takes it as a type override. */
+    private static void printOverride(Level level, String msg, Boolean override) {
+        if (MessageFormatter.hasPlaceholder(msg)) {
+            print(level, null, msg, 1, override, null, null);
         } else {
-            prefix.append(switch (label.trim()) {
-                case "[INFO]" -> "i ";
-                case "[LOG]" -> "* ";
-                case "[WARN]" -> "? ";
-                case "[ERROR]" -> "x ";
-                case "[SUCCESS]" -> "+ ";
-                default -> "";
-            });
+            print(level, override, msg, MessageFormatter.LITERAL, null, null, null);
         }
+    }
 
-        prefix.append(formatTime());
-        prefix.append(message);
+    private static void printTagged(Level level, Category category, String pattern, int argc,
+                                    Object a1, Object a2, Object a3) {
+        DebugConfig config = Debug.config;
+        if ((config.enabledMask & (level.bit | (category != null ? category.bit : 0))) == 0) {
+            filtered(null, level, pattern, argc, a1, a2, a3);
+            return;
+        }
+        write(config, null, level, null, pattern, argc, a1, a2, a3);
+    }
+
+    /**
+     * Accounts for a message removed by a level or category filter: counts it and, if the flight
+     * recorder is on, keeps it raw so it can be printed when an error occurs.
+     *
+     * @param logger the logger the message comes from, or null for {@link Debug} itself
+     */
+    static void filtered(Logger logger, Level level, String pattern, int argc, Object a1, Object a2, Object a3) {
+        if (Metrics.enabled) Metrics.filtered(level);
+        FlightRecorder recorder = flightRecorder;
+        if (recorder != null) recorder.record(logger, level, pattern, argc, a1, a2, a3);
+    }
 
-        synchronized (OUT) {
-            OUT.println(Style.processLocks(sb, prefix.toString(), style));
+    /**
+     * Throttles, formats and writes a message that has already passed its level filter.
+     *
+     * @param config         the configuration read when the message was filtered
+     * @param logger         the logger the message comes from, or null for {@link Debug} itself
+     * @param showTypePrefix overrides the configured type display if non-null
+     */
+    static void write(DebugConfig config, Logger logger, Level level, Boolean showTypePrefix, String pattern, int argc,
+                      Object a1, Object a2, Object a3) {
+        boolean showType = showTypePrefix != null ? showTypePrefix : config.showType;
+        Throttle limiter = throttle;
+        if (limiter != null) {
+            long suppressed = limiter.admit(logger, level, pattern, argc, a1, config.timeSource.nanoTime());
+            if (suppressed < 0) {
+                if (Metrics.enabled) Metrics.filtered(level);
+                return;
+            }
+            if (suppressed > 0) {
+                notice(logger, level, showType, "(" + suppressed + " similar messages suppressed)");
+            }
+        }
+
+        FlightRecorder recorder = flightRecorder;
+        if (recorder != null && level == Level.ERROR) recorder.dump();
+
+        BinaryLog binary = binaryLog;
+        if (binary != null) {
+            if (Metrics.enabled) Metrics.emitted(level);
+            if (MessageFormatter.hasThrown(argc)) {
+                pattern = withTrace(pattern, argc, a1, a2, a3);
+                argc = MessageFormatter.LITERAL;
+            }
+            binary.record(logger, level, showType, config.showThread, config.timeMode, config.timestamps(),
+                    pattern, argc, a1, a2, a3);
+            return;
+        }
+
+        Buffers buffers = Buffers.acquire();
+        try {
+            StringBuilder line = buffers.line;
+            if (config.showThread) line.append(buffers.threadPrefix());
+            appendPrefix(line, null, level, showType);
+            appendTime(config, line);
+            if (logger != null) line.append(logger.prefix());
+            int messageStart = line.length();
+            MessageFormatter.append(line, pattern, argc, a1, a2, a3);
+            if (MessageFormatter.hasThrown(argc)) StackTraces.append(line, (Throwable) a1, true);
+
+            if (limiter != null && limiter.collapsesRepeats()) {
+                Throttle.Line previous = limiter.collapse(level, logger, line, messageStart);
+                if (previous == Throttle.DUPLICATE) {
+                    if (Metrics.enabled) Metrics.filtered(level);
+                    return;
+                }
+                if (previous != null) reportRepeats(previous);
+            }
+
+            if (Metrics.enabled) Metrics.emitted(level);
+            emit(level, render(config.colorMode, buffers, line, level.style).append(LINE_SEPARATOR));
+        } finally {
+            buffers.release();
         }
     }
 
-    // ------------------ Level Shortcuts ------------------
+    /** Formats a message with its stack trace as literal text; binary log events hold at most three plain arguments. */
+    private static String withTrace(String pattern, int argc, Object a1, Object a2, Object a3) {
+        StringBuilder text = new StringBuilder(256);
+        MessageFormatter.append(text, pattern, argc, a1, a2, a3);
+        StackTraces.append(text, (Throwable) a1, true);
+        return text.toString();
+    }
+
+    /** Writes a message generated by JQuill itself, bypassing throttling. */
+    private static void notice(Logger logger, Level level, boolean showTypePrefix, String text) {
+        DebugConfig config = Debug.config;
+        BinaryLog binary = binaryLog;
+        if (binary != null) {
+            binary.record(logger, level, showTypePrefix, config.showThread, config.timeMode, config.timestamps(), text,
+                    MessageFormatter.LITERAL, null, null, null);
+            return;
+        }
+
+        Buffers buffers = Buffers.acquire();
+        try {
+            StringBuilder line = buffers.line;
+            if (config.showThread) line.append(buffers.threadPrefix());
+            appendPrefix(line, null, level, showTypePrefix);
+            appendTime(config, line);
+            if (logger != null) line.append(logger.prefix());
+            line.append(text);
+            emit(level, render(config.colorMode, buffers, line, level.style).append(LINE_SEPARATOR));
+        } finally {
+            buffers.release();
+        }
+    }
+
+    static void reportRepeats(Throttle.Line previous) {
+        long repeats = previous.repeats().sumThenReset();
+        if (repeats > 0) {
+            notice(previous.logger(), previous.level(), config.showType, "(last message repeated " + repeats + (repeats == 1 ? " time)" : " times)"));
+        }
+    }
+
+    /** Reports messages suppressed by rate limiting that no later message has reported yet. */
+    static void reportSuppressed(Logger logger, Level level, long suppressed) {
+        notice(logger, level, config.showType, "(" + suppressed + " similar messages suppressed)");
+    }
+
+    /** Writes every repeat and suppression count a throttle has not reported yet. */
+    private static void reportPending(Throttle limiter) {
+        Throttle.Line previous = limiter.drain();
+        if (previous != null) reportRepeats(previous);
+        limiter.reportSuppressed(true);
+    }
+
+    /** Formats a message kept by the {@link FlightRecorder} as it would have been printed when it was logged. */
+    static void appendRecorded(StringBuilder out, Logger logger, Level level, String threadName, long nanos,
+                               String pattern, int argc, Object a1, Object a2, Object a3) {
+        DebugConfig config = Debug.config;
+        Buffers buffers = Buffers.acquire();
+        try {
+            StringBuilder line = buffers.line;
+            if (config.showThread) line.append(formatThread(threadName));
+            appendPrefix(line, null, level, config.showType);
+            TimeMode mode = config.timeMode;
+            TimeSource source = config.timeSource;
+            if (mode == TimeMode.ABSOLUTE) {
+                long millis = source.currentTimeMillis() - (source.nanoTime() - nanos) / 1_000_000;
+                config.timestamps().appendAbsolute(line, millis, source.zone());
+            } else if (mode == TimeMode.ELAPSED) {
+                TimestampRenderer.appendElapsed(line, nanos - config.startNanos);
+            }
+            if (logger != null) line.append(logger.prefix());
+            MessageFormatter.append(line, pattern, argc, a1, a2, a3);
+            if (MessageFormatter.hasThrown(argc)) StackTraces.append(line, (Throwable) a1, false);
+            out.append(render(config.colorMode, buffers, line, level.style)).append(LINE_SEPARATOR);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /** Writes the messages dumped by the {@link FlightRecorder} as one block between marker lines. */
+    static void emitRecorded(StringBuilder lines, int count) {
+        ColorMode mode = config.colorMode;
+        Buffers buffers = Buffers.acquire();
+        try {
+            StringBuilder block = new StringBuilder(lines.length() + 160);
+            String header = "----- " + count + (count == 1 ? " recent filtered message" : " recent filtered messages") + " -----";
+            block.append(render(mode, buffers, header, Style.MUTED)).append(LINE_SEPARATOR);
+            block.append(lines);
+            buffers.styled.setLength(0);
+            block.append(render(mode, buffers, "----- end of recent messages -----", Style.MUTED)).append(LINE_SEPARATOR);
+
+            BinaryLog binary = binaryLog;
+            if (binary != null) {
+                binary.recordRaw(block, false);
+            } else {
+                emit(Level.ERROR, block);
+            }
+        } finally {
+            buffers.release();
+        }
+    }
 
     /**
-     * Logs an informational message.
+     * Styles text for the current {@link ColorMode}. Plain mode skips styling and only strips escape
+     * sequences; 256-color mode styles the text and then downgrades its colors. The result is in one
+     * of the given buffers, so the text must not be one that is still needed.
+     */
+    private static StringBuilder render(ColorMode mode, Buffers buffers, CharSequence text, Style... styles) {
+        return switch (mode) {
+            case PLAIN -> Style.strip(buffers.styled, text, 0, text.length());
+            case ANSI_256 -> {
+                Style.processLocks(buffers.styled, text, 0, text.length(), styles);
+                buffers.line.setLength(0);
+                yield Style.downgrade(buffers.line, buffers.styled, 0, buffers.styled.length());
+            }
+            case TRUECOLOR -> Style.processLocks(buffers.styled, text, 0, text.length(), styles);
+        };
+    }
+
+    private static void emit(Level level, StringBuilder text) {
+        AsyncWriter writer = asyncWriter;
+        if (writer != null) {
+            writer.publish(level, text.toString());
+            return;
+        }
+        Metrics.write(sink, text);
+    }
+
+    /** @return the sink output is currently written to */
+    static Sink sink() {
+        return sink;
+    }
+
+    /** @return the current configuration snapshot */
+    static DebugConfig config() {
+        return config;
+    }
+
+    /** @return the {@link TimeSource#nanoTime()} reading elapsed timestamps are measured from */
+    static long startNanos() {
+        return config.startNanos;
+    }
+
+    // ------------------ Level Shortcuts ------------------
+
+    /** Logs a trace message.
      *
      * @param msg      the message to log
      */
-    public static void info(String msg) { info(msg, null); }
+    public static void trace(String msg) { print(Level.TRACE, null, msg, MessageFormatter.LITERAL, null, null, null); }
 
-    /**
-     * Logs an informational message with optional type display override.
+    /** Logs a trace message with optional type display override.
+     * If the message contains a <code>{}</code> placeholder, the value is formatted into it instead, as
+     * {@link #trace(String, Object)} would.
+     *
+     * @param msg      the message to log
+     * @param override overrides the global showType setting if non-null
+     */
+    public static void trace(String msg, Boolean override) {
+        printOverride(Level.TRACE, msg, override);
+    }
+
+    /** Logs a trace message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public static void trace(Supplier<String> msg) {
+        print(Level.TRACE, null, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a trace message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     * Formatting only happens if the message passes the level filter.
+     * A {@link Boolean} argument binds to {@link #trace(String, Boolean)}, which formats it the same way.
+     * A {@link Throwable} argument is followed by its stack trace, and a <code>{}</code> in the pattern is
+     * replaced by it; a trace identical to one printed before is shortened to a reference to it, see
+     * {@link #setStackTraceCacheSize(int)}.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public static void trace(String pattern, Object a1) {
+        print(Level.TRACE, null, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a trace message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public static void trace(String pattern, Object a1, Object a2) {
+        print(Level.TRACE, null, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a trace message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public static void trace(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.TRACE, null, pattern, 3, a1, a2, a3);
+    }
+
+    /** Logs an informational message.
+     *
+     * @param msg      the message to log
+     */
+    public static void info(String msg) { print(Level.INFO, null, msg, MessageFormatter.LITERAL, null, null, null); }
+
+    /** Logs an informational message with optional type display override.
+     * If the message contains a <code>{}</code> placeholder, the value is formatted into it instead, as
+     * {@link #info(String, Object)} would.
      *
      * @param msg      the message to log
      * @param override overrides the global showType setting if non-null
      */
     public static void info(String msg, Boolean override) {
-        print(Level.LOW, "[INFO]    ", msg, Style.INFO, override != null ? override : showType);
+        printOverride(Level.INFO, msg, override);
+    }
+
+    /** Logs an informational message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public static void info(Supplier<String> msg) {
+        print(Level.INFO, null, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs an informational message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     * Formatting only happens if the message passes the level filter.
+     * A {@link Boolean} argument binds to {@link #info(String, Boolean)}, which formats it the same way.
+     * A {@link Throwable} argument is followed by its stack trace, and a <code>{}</code> in the pattern is
+     * replaced by it; a trace identical to one printed before is shortened to a reference to it, see
+     * {@link #setStackTraceCacheSize(int)}.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public static void info(String pattern, Object a1) {
+        print(Level.INFO, null, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs an informational message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public static void info(String pattern, Object a1, Object a2) {
+        print(Level.INFO, null, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs an informational message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public static void info(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.INFO, null, pattern, 3, a1, a2, a3);
     }
 
     /** Logs a general log message.
      *
      * @param msg      the message to log
      */
-    public static void log(String msg) { log(msg, null); }
+    public static void log(String msg) { print(Level.DEBUG, null, msg, MessageFormatter.LITERAL, null, null, null); }
 
     /** Logs a general log message with optional type display override.
+     * If the message contains a <code>{}</code> placeholder, the value is formatted into it instead, as
+     * {@link #log(String, Object)} would.
      *
      * @param msg      the message to log
      * @param override overrides the global showType setting if non-null
      */
     public static void log(String msg, Boolean override) {
-        print(Level.LOW, "[LOG]     ", msg, Style.LOG, override != null ? override : showType);
+        printOverride(Level.DEBUG, msg, override);
+    }
+
+    /** Logs a general log message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public static void log(Supplier<String> msg) {
+        print(Level.DEBUG, null, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a general log message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     * Formatting only happens if the message passes the level filter.
+     * A {@link Boolean} argument binds to {@link #log(String, Boolean)}, which formats it the same way.
+     * A {@link Throwable} argument is followed by its stack trace, and a <code>{}</code> in the pattern is
+     * replaced by it; a trace identical to one printed before is shortened to a reference to it, see
+     * {@link #setStackTraceCacheSize(int)}.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public static void log(String pattern, Object a1) {
+        print(Level.DEBUG, null, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a general log message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public static void log(String pattern, Object a1, Object a2) {
+        print(Level.DEBUG, null, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a general log message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public static void log(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.DEBUG, null, pattern, 3, a1, a2, a3);
     }
 
     /** Logs a warning message.
      *
      * @param msg      the message to log
      */
-    public static void warn(String msg) { warn(msg, null); }
+    public static void warn(String msg) { print(Level.WARN, null, msg, MessageFormatter.LITERAL, null, null, null); }
 
     /** Logs a warning message with optional type display override.
+     * If the message contains a <code>{}</code> placeholder, the value is formatted into it instead, as
+     * {@link #warn(String, Object)} would.
      *
      * @param msg      the message to log
      * @param override overrides the global showType setting if non-null
      */
     public static void warn(String msg, Boolean override) {
-        print(Level.HIGH, "[WARN]    ", msg, Style.WARNING, override != null ? override : showType);
+        printOverride(Level.WARN, msg, override);
+    }
+
+    /** Logs a warning message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public static void warn(Supplier<String> msg) {
+        print(Level.WARN, null, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a warning message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     * Formatting only happens if the message passes the level filter.
+     * A {@link Boolean} argument binds to {@link #warn(String, Boolean)}, which formats it the same way.
+     * A {@link Throwable} argument is followed by its stack trace, and a <code>{}</code> in the pattern is
+     * replaced by it; a trace identical to one printed before is shortened to a reference to it, see
+     * {@link #setStackTraceCacheSize(int)}.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public static void warn(String pattern, Object a1) {
+        print(Level.WARN, null, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a warning message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public static void warn(String pattern, Object a1, Object a2) {
+        print(Level.WARN, null, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a warning message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public static void warn(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.WARN, null, pattern, 3, a1, a2, a3);
     }
 
     /** Logs an error message.
      *
      * @param msg      the message to log
      */
-    public static void error(String msg) { error(msg, null); }
+    public static void error(String msg) { print(Level.ERROR, null, msg, MessageFormatter.LITERAL, null, null, null); }
 
     /** Logs an error message with optional type display override.
+     * If the message contains a <code>{}</code> placeholder, the value is formatted into it instead, as
+     * {@link #error(String, Object)} would.
      *
      * @param msg      the message to log
      * @param override overrides the global showType setting if non-null
      */
     public static void error(String msg, Boolean override) {
-        print(Level.HIGH, "[ERROR]   ", msg, Style.ERROR, override != null ? override : showType);
+        printOverride(Level.ERROR, msg, override);
+    }
+
+    /** Logs an error message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public static void error(Supplier<String> msg) {
+        print(Level.ERROR, null, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs an error message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     * Formatting only happens if the message passes the level filter.
+     * A {@link Boolean} argument binds to {@link #error(String, Boolean)}, which formats it the same way.
+     * A {@link Throwable} argument is followed by its stack trace, and a <code>{}</code> in the pattern is
+     * replaced by it; a trace identical to one printed before is shortened to a reference to it, see
+     * {@link #setStackTraceCacheSize(int)}.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public static void error(String pattern, Object a1) {
+        print(Level.ERROR, null, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs an error message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public static void error(String pattern, Object a1, Object a2) {
+        print(Level.ERROR, null, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs an error message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public static void error(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.ERROR, null, pattern, 3, a1, a2, a3);
     }
 
     /** Logs a success message.
      *
      * @param msg      the message to log
      */
-    public static void success(String msg) { success(msg, null); }
+    public static void success(String msg) { print(Level.SUCCESS, null, msg, MessageFormatter.LITERAL, null, null, null); }
 
     /** Logs a success message with optional type display override.
+     * If the message contains a <code>{}</code> placeholder, the value is formatted into it instead, as
+     * {@link #success(String, Object)} would.
      *
      * @param msg      the message to log
      * @param override overrides the global showType setting if non-null
      */
     public static void success(String msg, Boolean override) {
-        print(Level.HIGH, "[SUCCESS] ", msg, Style.SUCCESS, override != null ? override : showType);
+        printOverride(Level.SUCCESS, msg, override);
+    }
+
+    /** Logs a success message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public static void success(Supplier<String> msg) {
+        print(Level.SUCCESS, null, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a success message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     * Formatting only happens if the message passes the level filter.
+     * A {@link Boolean} argument binds to {@link #success(String, Boolean)}, which formats it the same way.
+     * A {@link Throwable} argument is followed by its stack trace, and a <code>{}</code> in the pattern is
+     * replaced by it; a trace identical to one printed before is shortened to a reference to it, see
+     * {@link #setStackTraceCacheSize(int)}.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public static void success(String pattern, Object a1) {
+        print(Level.SUCCESS, null, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a success message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public static void success(String pattern, Object a1, Object a2) {
+        print(Level.SUCCESS, null, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a success message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public static void success(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.SUCCESS, null, pattern, 3, a1, a2, a3);
+    }
+
+    /** Logs a message at the given level, optionally tagged with a category.
+     * The message is printed if its level or its category is enabled.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param msg      the message to log
+     */
+    public static void log(Level level, Category category, String msg) {
+        printTagged(level, category, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Logs a message produced by a supplier at the given level, optionally tagged with a category.
+     * The supplier is only invoked if the message passes the filter.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param msg      supplies the message to log
+     */
+    public static void log(Level level, Category category, Supplier<String> msg) {
+        printTagged(level, category, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a message at the given level, optionally tagged with a category, replacing the
+     * <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public static void log(Level level, Category category, String pattern, Object a1) {
+        printTagged(level, category, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a message at the given level, optionally tagged with a category, replacing
+     * <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public static void log(Level level, Category category, String pattern, Object a1, Object a2) {
+        printTagged(level, category, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a message at the given level, optionally tagged with a category, replacing
+     * <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public static void log(Level level, Category category, String pattern, Object a1, Object a2, Object a3) {
+        printTagged(level, category, pattern, 3, a1, a2, a3);
     }
 
     // ------------------ Sleep ------------------
@@ -218,14 +991,230 @@ public final class Debug {
         info("Slept for: " + seconds + "s.");
     }
 
+    // ------------------ Timing ------------------
+
+    /**
+     * Starts timing a block of code under a label. Closing the returned span records the elapsed
+     * time into the label's histogram; samples are summarized by {@link #printTimings()} rather than
+     * printed one by one.
+     *
+     * @param label the label to record under
+     * @return the running span, to be closed when the block ends
+     * @throws IllegalArgumentException if {@code label} is null
+     */
+    public static Span span(String label) {
+        LatencyHistogram histogram = Timings.histogram(label);
+        return new Span(histogram, System.nanoTime());
+    }
+
+    /**
+     * Runs a task and records how long it took under a label.
+     *
+     * @param label the label to record under
+     * @param task  the task to run
+     * @throws IllegalArgumentException if {@code label} is null
+     */
+    public static void time(String label, Runnable task) {
+        LatencyHistogram histogram = Timings.histogram(label);
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Calls a task and records how long it took under a label. The time is recorded even if the
+     * task throws.
+     *
+     * @param label the label to record under
+     * @param task  the task to call
+     * @param <T>   the result type
+     * @return the task's result
+     * @throws Exception if the task throws
+     * @throws IllegalArgumentException if {@code label} is null
+     */
+    public static <T> T time(String label, Callable<T> task) throws Exception {
+        LatencyHistogram histogram = Timings.histogram(label);
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Prints a summary of every label timed so far: its count, median, 99th percentile and maximum.
+     */
+    public static void printTimings() {
+        Timings.print();
+    }
+
+    /**
+     * Prints the timing summary every {@code seconds} seconds from a background thread.
+     *
+     * @param seconds the interval between summaries, or 0 to stop
+     * @throws IllegalArgumentException if {@code seconds} is negative
+     */
+    public static void setTimingReportInterval(int seconds) {
+        if (seconds < 0) throw new IllegalArgumentException("Interval must not be negative: " + seconds);
+        Timings.setReportInterval(seconds);
+    }
+
+    /**
+     * Returns the recorded timings per label, sorted by label.
+     *
+     * @return a snapshot of each label's histogram
+     */
+    public static Map<String, LatencySnapshot> timings() {
+        return Timings.snapshot();
+    }
+
+    /** Clears all recorded timings. */
+    public static void resetTimings() {
+        Timings.reset();
+    }
+
     // ------------------ Configuration ------------------
 
-    /** Sets the global logging level.
+    /** Replaces the whole configuration at once. Messages see either the old or the new
+     * configuration, never a mix of the two.
+     *
+     * @param value the configuration, or null for the defaults
+     */
+    public static void setConfig(DebugConfig value) {
+        DebugConfig resolved = value != null ? value : DebugConfig.defaults();
+        synchronized (CONFIG_LOCK) {
+            install(resolved);
+        }
+    }
+
+    /** Returns the current configuration.
+     *
+     * @return the configuration snapshot in effect
+     */
+    public static DebugConfig getConfig() {
+        return config;
+    }
+
+    /** Applies the settings in a properties file on top of the current configuration, once.
+     * See {@link DebugConfig} for the keys; {@code level.<name>} keys set logger levels.
+     *
+     * @param file the properties file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a value is invalid; nothing is changed in that case
+     */
+    public static void loadConfig(Path file) throws IOException {
+        ConfigWatcher.load(file, Set.of());
+    }
+
+    /** Applies the settings in a properties file and reapplies them whenever the file changes.
+     * The file is watched from a background thread, which also prepares each new configuration, so
+     * logging threads are never delayed by a reload. A reload that fails is reported on
+     * {@code System.err} and leaves the configuration unchanged. Only one file is watched at a time.
+     *
+     * @param file the properties file, or null to stop watching
+     * @throws IOException if the file cannot be read or watched
+     * @throws IllegalArgumentException if a value is invalid
+     */
+    public static void watchConfig(Path file) throws IOException {
+        synchronized (CONFIG_LOCK) {
+            if (configWatcher != null) {
+                configWatcher.stop();
+                configWatcher = null;
+            }
+            if (file != null) configWatcher = ConfigWatcher.start(file);
+        }
+    }
+
+    /**
+     * Derives a configuration from the current one and applies it together with logger levels, all
+     * under the configuration lock, so no concurrent change is lost and every logger moves to its new
+     * level in a single step.
+     *
+     * @param change       builds the new configuration from the current one; may throw to change nothing
+     * @param loggerLevels levels to set per logger name, null values clearing them
+     */
+    static void applyConfig(UnaryOperator<DebugConfig> change, Map<String, Level> loggerLevels) {
+        synchronized (CONFIG_LOCK) {
+            install(change.apply(config));
+            if (!loggerLevels.isEmpty()) Logger.setLevels(loggerLevels);
+        }
+    }
+
+    /** Publishes a configuration and re-resolves logger masks if the filters changed. Requires CONFIG_LOCK. */
+    private static void install(DebugConfig next) {
+        DebugConfig previous = config;
+        config = next;
+        if (previous.levelMask != next.levelMask || previous.categoryMask != next.categoryMask) {
+            Logger.refreshAll();
+        }
+    }
+
+    /** Sets the global logging level, enabling it and every level of equal or higher priority.
+     * Named loggers without a level of their own inherit it.
      *
      * @param level the logging level to set
      */
     public static void setLevel(Level level) {
-        currentLevel = level != null ? level : Level.LOW;
+        synchronized (CONFIG_LOCK) {
+            install(config.toBuilder().level(level).build());
+        }
+    }
+
+    /** Enables or disables a single level globally, independent of its priority.
+     * For example, errors can be kept while warnings are dropped.
+     * The next {@link #setLevel(Level)} call replaces these settings.
+     *
+     * @param level   the level to switch
+     * @param enabled true to print messages of this level, false to filter them
+     */
+    public static void setEnabled(Level level, boolean enabled) {
+        synchronized (CONFIG_LOCK) {
+            install(config.toBuilder().enabled(level, enabled).build());
+        }
+    }
+
+    /** Returns whether messages of the given level are currently printed.
+     *
+     * @param level the level to check
+     * @return true if the level is enabled globally
+     */
+    public static boolean isEnabled(Level level) {
+        return config.isEnabled(level);
+    }
+
+    /** Enables or disables a category. Messages tagged with an enabled category are printed
+     * whatever their level.
+     *
+     * @param category the category to switch
+     * @param enabled  true to print all of the category's messages, false to filter them by level only
+     */
+    public static void setEnabled(Category category, boolean enabled) {
+        synchronized (CONFIG_LOCK) {
+            install(config.toBuilder().enabled(category, enabled).build());
+        }
+    }
+
+    /** Returns whether a category is enabled.
+     *
+     * @param category the category to check
+     * @return true if all of the category's messages are printed
+     */
+    public static boolean isEnabled(Category category) {
+        return config.isEnabled(category);
+    }
+
+    /** @return the globally enabled level bits, inherited by loggers without a level of their own */
+    static int levelMask() {
+        return config.levelMask;
+    }
+
+    /** @return the bits of all enabled categories */
+    static int categoryMask() {
+        return config.categoryMask;
     }
 
     /** Returns the current logging level.
@@ -233,7 +1222,37 @@ public final class Debug {
      * @return the current logging level
      */
     public static Level getLevel() {
-        return currentLevel;
+        return config.level;
+    }
+
+    /** Returns the logger with the given dotted name, creating it on first use.
+     * The same instance is returned for the same name.
+     *
+     * @param name the logger name, e.g. {@code "db.pool"}
+     * @return the logger
+     * @throws IllegalArgumentException if the name is null or blank
+     */
+    public static Logger logger(String name) {
+        return Logger.get(name);
+    }
+
+    /** Sets the level of a named logger and of every logger below it in the dotted hierarchy
+     * that has no level of its own. Takes effect immediately for existing loggers.
+     *
+     * @param name  the logger name, e.g. {@code "db"} to cover {@code "db.pool"}
+     * @param level the level to set, or null to inherit from the parent again
+     */
+    public static void setLevel(String name, Level level) {
+        Logger.setLevel(name, level);
+    }
+
+    /** Returns the level a named logger filters by, whether set directly or inherited.
+     *
+     * @param name the logger name
+     * @return the effective level
+     */
+    public static Level getLevel(String name) {
+        return Logger.effectiveLevel(name);
     }
 
     /** Sets whether to show message type prefixes.
@@ -241,7 +1260,9 @@ public final class Debug {
      * @param value true to show type prefixes, false to hide them
      */
     public static void setShowType(boolean value) {
-        showType = value;
+        synchronized (CONFIG_LOCK) {
+            install(config.toBuilder().showType(value).build());
+        }
     }
 
     /** Returns whether message type prefixes are shown.
@@ -249,7 +1270,41 @@ public final class Debug {
      * @return true if type prefixes are shown, false otherwise
      */
     public static boolean isShowType() {
-        return showType;
+        return config.showType;
+    }
+
+    /** Sets how styles are rendered.
+     * {@link ColorMode#PLAIN} skips all style processing, which makes it the cheapest mode and the
+     * right choice for files and pipes.
+     *
+     * @param mode the color mode to use, or null to detect it again with {@link ColorMode#detect()}
+     */
+    public static void setColorMode(ColorMode mode) {
+        synchronized (CONFIG_LOCK) {
+            install(config.toBuilder().colorMode(mode).build());
+        }
+    }
+
+    /** Returns how styles are currently rendered.
+     *
+     * @return the current color mode
+     */
+    public static ColorMode getColorMode() {
+        return config.colorMode;
+    }
+
+    /** Sets how often live {@link Progress} bars and {@link StatusLine}s are redrawn.
+     * Updates between frames are coalesced, so this caps the console output they cause no matter how
+     * often workers update them. The default is 10 frames per second.
+     *
+     * @param framesPerSecond the maximum redraw rate, from 1 to 120
+     * @throws IllegalArgumentException if the rate is outside that range
+     */
+    public static void setLiveFrameRate(int framesPerSecond) {
+        if (framesPerSecond < 1 || framesPerSecond > 120) {
+            throw new IllegalArgumentException("Frame rate must be between 1 and 120: " + framesPerSecond);
+        }
+        LiveRegion.setFrameRate(framesPerSecond);
     }
 
     /** Sets the global time mode for messages.
@@ -257,7 +1312,9 @@ public final class Debug {
      * @param mode the time mode to set
      */
     public static void setTimeMode(TimeMode mode) {
-        timeMode = mode != null ? mode : TimeMode.ELAPSED;
+        synchronized (CONFIG_LOCK) {
+            install(config.toBuilder().timeMode(mode).build());
+        }
     }
 
     /** Returns the current global time mode.
@@ -265,16 +1322,20 @@ public final class Debug {
      * @return the current time mode
      */
     public static TimeMode getTimeMode() {
-        return timeMode;
+        return config.timeMode;
     }
 
     /** Sets the time format used for absolute timestamps.
+     * The pattern is compiled once here rather than for every message.
      *
-     * @param format the time format string
+     * @param format the time format string, as accepted by {@link java.time.format.DateTimeFormatter#ofPattern(String)}
+     * @throws IllegalArgumentException if the format is not a valid pattern
      */
     public static void setTimeFormat(String format) {
         if (format != null && !format.isBlank()) {
-            timeFormat = format;
+            synchronized (CONFIG_LOCK) {
+                install(config.toBuilder().timeFormat(format).build());
+            }
         }
     }
 
@@ -283,7 +1344,330 @@ public final class Debug {
      * @return the time format string
      */
     public static String getTimeFormat() {
-        return timeFormat;
+        return config.getTimeFormat();
+    }
+
+    /** Sets the source of clock readings used for timestamps.
+     * Elapsed timestamps restart from zero when a new source is installed.
+     *
+     * @param source the time source, or null to use the system clock
+     */
+    public static void setTimeSource(TimeSource source) {
+        synchronized (CONFIG_LOCK) {
+            install(config.toBuilder().timeSource(source).build());
+        }
+    }
+
+    /** Returns the current source of clock readings.
+     *
+     * @return the time source
+     */
+    public static TimeSource getTimeSource() {
+        return config.timeSource;
+    }
+
+    /** Sets where output is written. Use {@link Sink#of(Sink...)} to write to several sinks at once.
+     * In asynchronous mode, output already buffered is written to the new sink.
+     * The previous sink is flushed but not closed.
+     *
+     * @param value the sink to write to, or null for {@link ConsoleSink#stdout()}
+     */
+    public static void setSink(Sink value) {
+        installShutdownHook();
+        Sink previous = sink;
+        sink = value != null ? value : ConsoleSink.stdout();
+        previous.flush();
+    }
+
+    /** Returns the sink output is currently written to.
+     *
+     * @return the current sink
+     */
+    public static Sink getSink() {
+        return sink;
+    }
+
+    /** Records output in a compact binary log instead of formatting it.
+     * While a binary log is installed, every message that passes the level filter is written to it
+     * as a raw record (level, time, thread, template and arguments) and nothing is written to the sink.
+     * Use {@link LogDecoder} to turn the log back into text. The previous binary log is flushed but not closed.
+     *
+     * @param log the binary log to record to, or null to return to text output
+     */
+    public static void setBinaryLog(BinaryLog log) {
+        installShutdownHook();
+        BinaryLog previous = binaryLog;
+        binaryLog = log;
+        if (previous != null) {
+            previous.flush();
+        }
+    }
+
+    /** Returns the binary log output is recorded to.
+     *
+     * @return the binary log, or null if output is formatted as text
+     */
+    public static BinaryLog getBinaryLog() {
+        return binaryLog;
+    }
+
+    /** Enables or disables asynchronous output.
+     * When enabled, calls return as soon as the formatted line is buffered and a single background
+     * thread writes buffered lines in batches. Pending output is drained when asynchronous mode is
+     * disabled and on JVM shutdown.
+     *
+     * @param value true to write output on a background thread, false to write on the calling thread
+     */
+    public static void setAsync(boolean value) {
+        synchronized (ASYNC_LOCK) {
+            AsyncWriter writer = asyncWriter;
+            if (value == (writer != null)) return;
+
+            if (value) {
+                installShutdownHook();
+                asyncWriter = new AsyncWriter(asyncBufferSize, overflowPolicy);
+            } else {
+                asyncWriter = null;
+                writer.shutdown();
+                droppedBefore += writer.droppedCount();
+            }
+        }
+    }
+
+    /** Drains asynchronous output, reports pending throttling counts and flushes the sink when the JVM exits. */
+    private static void installShutdownHook() {
+        synchronized (ASYNC_LOCK) {
+            if (shutdownHookInstalled) return;
+            Runtime.getRuntime().addShutdownHook(new Thread(Debug::flushOnExit, "jquill-shutdown"));
+            shutdownHookInstalled = true;
+        }
+    }
+
+    private static void flushOnExit() {
+        setAsync(false);
+        flush();
+    }
+
+    /** Returns whether asynchronous output is enabled.
+     *
+     * @return true if output is written on a background thread, false otherwise
+     */
+    public static boolean isAsync() {
+        return asyncWriter != null;
+    }
+
+    /** Sets the capacity of the asynchronous output buffer.
+     * The value is rounded up to a power of two and takes effect the next time asynchronous output is enabled.
+     *
+     * @param size the number of messages the buffer can hold
+     */
+    public static void setAsyncBufferSize(int size) {
+        if (size > 0) {
+            asyncBufferSize = size;
+        }
+    }
+
+    /** Returns the configured capacity of the asynchronous output buffer.
+     *
+     * @return the number of messages the buffer can hold
+     */
+    public static int getAsyncBufferSize() {
+        return asyncBufferSize;
+    }
+
+    /** Sets what happens when the asynchronous output buffer is full.
+     * Takes effect the next time asynchronous output is enabled.
+     *
+     * @param policy the overflow policy to use
+     */
+    public static void setOverflowPolicy(OverflowPolicy policy) {
+        overflowPolicy = policy != null ? policy : OverflowPolicy.BLOCK;
+    }
+
+    /** Returns the current overflow policy.
+     *
+     * @return the overflow policy
+     */
+    public static OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /** Returns the number of messages discarded because the asynchronous buffer was full.
+     *
+     * @return the total number of dropped messages
+     */
+    public static long getDroppedCount() {
+        synchronized (ASYNC_LOCK) {
+            AsyncWriter writer = asyncWriter;
+            return droppedBefore + (writer != null ? writer.droppedCount() : 0);
+        }
+    }
+
+    /** Limits how often messages with the same template are printed.
+     * Each template (or, for {@link java.util.function.Supplier} messages, each call site) gets a
+     * token bucket holding {@code burst} messages and refilled at {@code messagesPerSecond}.
+     * A literal message is keyed by its full text, so concatenated messages such as
+     * {@code "user " + id} are not limited; pass the changing part as an argument instead.
+     * Messages beyond that are dropped; the next message let through is preceded by a note with
+     * the number of messages suppressed. Once such messages stop, the note is written on its own
+     * within about two seconds, on {@link #flush()} and on JVM shutdown.
+     *
+     * @param messagesPerSecond the sustained rate per template, or 0 to disable rate limiting
+     * @param burst             the number of messages per template allowed at once
+     */
+    public static void setRateLimit(int messagesPerSecond, int burst) {
+        installShutdownHook();
+        synchronized (THROTTLE_LOCK) {
+            rateLimit = Math.max(0, messagesPerSecond);
+            rateBurst = Math.max(1, burst);
+            updateThrottle();
+        }
+    }
+
+    /** Sets whether consecutive identical messages are collapsed.
+     * When enabled, a message with the same level, logger and text as the one before it is not
+     * printed again; instead a single "last message repeated N times" line is written once a
+     * different message arrives, once the repeats have stopped for about two seconds, on
+     * {@link #flush()} and on JVM shutdown. Not applied while a binary log is installed.
+     *
+     * @param value true to collapse repeated messages
+     */
+    public static void setCollapseRepeats(boolean value) {
+        installShutdownHook();
+        synchronized (THROTTLE_LOCK) {
+            collapseRepeats = value;
+            updateThrottle();
+        }
+    }
+
+    /** Returns whether consecutive identical messages are collapsed.
+     *
+     * @return true if repeated messages are collapsed
+     */
+    public static boolean isCollapseRepeats() {
+        return collapseRepeats;
+    }
+
+    /** Returns the number of messages dropped by rate limiting.
+     *
+     * @return the total number of suppressed messages
+     */
+    public static long getSuppressedCount() {
+        synchronized (THROTTLE_LOCK) {
+            Throttle limiter = throttle;
+            return suppressedBefore + (limiter != null ? limiter.suppressedCount() : 0);
+        }
+    }
+
+    /** Replaces the throttle after a configuration change. Requires THROTTLE_LOCK. */
+    private static void updateThrottle() {
+        Throttle previous = throttle;
+        throttle = rateLimit > 0 || collapseRepeats ? new Throttle(rateLimit, rateBurst, collapseRepeats) : null;
+        if (previous != null) {
+            previous.stop();
+            suppressedBefore += previous.suppressedCount();
+            reportPending(previous);
+        }
+    }
+
+    /** Enables or disables recording of output metrics.
+     * While enabled, messages emitted and filtered per level, bytes written per sink, console lock
+     * wait time and sink write latency are counted. Enabling also registers a
+     * {@link JQuillMetricsMXBean} with the platform MBean server under {@value JQuillMetrics#OBJECT_NAME}.
+     *
+     * @param value true to record metrics, false to stop
+     */
+    public static void setMetricsEnabled(boolean value) {
+        if (value) JQuillMetrics.registerMBean();
+        Metrics.enabled = value;
+    }
+
+    /** Returns whether output metrics are being recorded.
+     *
+     * @return true if metrics are enabled
+     */
+    public static boolean isMetricsEnabled() {
+        return Metrics.enabled;
+    }
+
+    /** Returns a snapshot of the output metrics recorded so far.
+     *
+     * @return the current metrics
+     */
+    public static JQuillMetrics metrics() {
+        return Metrics.snapshot();
+    }
+
+    /** Enables or disables the flight recorder.
+     * While enabled, the last {@code capacity} messages removed by level or category filters are kept
+     * raw in a preallocated ring, at a cost of a few nanoseconds each. Whenever an error is printed, the
+     * messages kept since the previous dump are printed first, so a quiet production level still shows
+     * the detail leading up to the error. {@link #dumpRecent()} prints them on demand.
+     *
+     * @param capacity the number of messages to keep, rounded up to a power of two, or 0 to disable
+     * @throws IllegalArgumentException if {@code capacity} is negative
+     */
+    public static void setFlightRecorder(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        flightRecorder = capacity > 0 ? new FlightRecorder(capacity) : null;
+    }
+
+    /** Returns how many filtered messages the flight recorder keeps.
+     *
+     * @return the capacity, or 0 if the flight recorder is disabled
+     */
+    public static int getFlightRecorderCapacity() {
+        FlightRecorder recorder = flightRecorder;
+        return recorder != null ? recorder.capacity() : 0;
+    }
+
+    /** Prints the filtered messages the flight recorder has kept since its last dump, oldest first.
+     *
+     * @return the number of messages printed; 0 if there were none or the recorder is disabled
+     */
+    public static int dumpRecent() {
+        FlightRecorder recorder = flightRecorder;
+        return recorder != null ? recorder.dump() : 0;
+    }
+
+    /** Sets how many distinct stack traces are remembered. A trace printed by an overload such as
+     * {@link #error(String, Object)} is printed in full and numbered the first time; while it stays
+     * cached, the same trace thrown again prints a reference like {@code (same as #17, x42)} instead.
+     * Changing the size forgets all cached traces.
+     *
+     * @param size the number of traces to remember, or 0 to always print traces in full (default 256)
+     * @throws IllegalArgumentException if size is negative
+     */
+    public static void setStackTraceCacheSize(int size) {
+        StackTraces.setCacheSize(size);
+    }
+
+    /** Returns how many distinct stack traces are remembered.
+     *
+     * @return the cache size; 0 if traces are always printed in full
+     */
+    public static int getStackTraceCacheSize() {
+        return StackTraces.getCacheSize();
+    }
+
+    /** Sets the packages whose frames are collapsed in stack traces. A run of two or more consecutive
+     * frames from these packages is printed as one line such as {@code ... 12 frames in org.springframework}.
+     * By default reflection, proxies, JUnit, Spring, Tomcat, Jetty, Undertow, Netty and Reactor are collapsed.
+     *
+     * @param prefixes class name prefixes such as {@code "org.springframework."}; none to collapse nothing,
+     *                 or null to restore the defaults
+     * @throws IllegalArgumentException if a prefix is null or empty
+     */
+    public static void setCollapsedPackages(String... prefixes) {
+        StackTraces.setCollapsedPackages(prefixes);
+    }
+
+    /** Returns the packages whose frames are collapsed in stack traces.
+     *
+     * @return a copy of the class name prefixes
+     */
+    public static String[] getCollapsedPackages() {
+        return StackTraces.getCollapsedPackages();
     }
 
     /** Sets whether thread names are displayed in messages.
@@ -291,7 +1675,9 @@ public final class Debug {
      * @param value true to show thread names, false to hide them
      */
     public static void setShowThread(boolean value) {
-        showThread = value;
+        synchronized (CONFIG_LOCK) {
+            install(config.toBuilder().showThread(value).build());
+        }
     }
 
     /** Returns whether thread names are shown in messages.
@@ -299,6 +1685,6 @@ public final class Debug {
      * @return true if thread names are shown, false otherwise
      */
     public static boolean isShowThread() {
-        return showThread;
+        return config.showThread;
     }
 }
\ No newline at end of file
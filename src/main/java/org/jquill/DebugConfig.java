@@ -0,0 +1,367 @@
+package org.jquill;
+
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * An immutable snapshot of the settings that shape every {@link Debug} message: the level filter,
+ * enabled categories, type and thread prefixes, time mode, time format, color mode and time source.
+ * {@link Debug} holds the current snapshot in a single volatile field, so each message reads its
+ * configuration once and always sees a consistent set of values, and a change made through
+ * {@link Debug#setConfig(DebugConfig)} takes effect for all settings at the same moment.
+ * The individual setters such as {@link Debug#setShowType(boolean)} replace the snapshot with an
+ * updated copy.
+ * <p>
+ * Anything that is expensive to prepare, like the compiled time format, is built together with the
+ * snapshot, so a configuration loaded by {@link Debug#watchConfig(java.nio.file.Path)} is prepared
+ * on the watcher thread rather than by the threads that log.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Debug.setConfig(Debug.getConfig().toBuilder()
+ *         .level(Level.WARN)
+ *         .showThread(true)
+ *         .timeMode(TimeMode.ABSOLUTE)
+ *         .timeFormat("HH:mm:ss.SSS")
+ *         .build());
+ * }</pre>
+ *
+ * <h2>Properties:</h2>
+ * {@link Builder#properties(Properties)} and configuration files understand these keys; keys that
+ * are absent leave the setting unchanged:
+ * <pre>
+ * level      = INFO              # any Level name, or LOW / HIGH
+ * showType   = true
+ * showThread = false
+ * timeMode   = ABSOLUTE          # NONE, ELAPSED or ABSOLUTE
+ * timeFormat = HH:mm:ss.SSS
+ * colorMode  = PLAIN             # TRUECOLOR, ANSI_256, PLAIN or AUTO to detect
+ * level.db   = WARN              # level of the named logger "db" and its descendants
+ * </pre>
+ *
+ * @see Debug#setConfig(DebugConfig)
+ * @see Debug#watchConfig(java.nio.file.Path)
+ */
+public final class DebugConfig {
+
+    static final String DEFAULT_TIME_FORMAT = "HH:mm:ss";
+
+    final Level level;
+    final int levelMask;
+    final int categoryMask;
+    final int enabledMask;
+    final boolean showType;
+    final boolean showThread;
+    final TimeMode timeMode;
+    final ColorMode colorMode;
+    final TimeSource timeSource;
+    final long startNanos;
+    private final TimestampRenderer timestamps;
+
+    private DebugConfig(Builder builder, ColorMode colorMode, TimestampRenderer timestamps, long startNanos) {
+        this.level = builder.level;
+        this.levelMask = builder.levelMask;
+        this.categoryMask = builder.categoryMask;
+        this.enabledMask = builder.levelMask | builder.categoryMask;
+        this.showType = builder.showType;
+        this.showThread = builder.showThread;
+        this.timeMode = builder.timeMode;
+        this.colorMode = colorMode;
+        this.timeSource = builder.timeSource;
+        this.startNanos = startNanos;
+        this.timestamps = timestamps;
+    }
+
+    /** @return the configuration JQuill starts with */
+    static DebugConfig defaults() {
+        return new Builder(null).build();
+    }
+
+    /**
+     * Returns a builder starting from the default settings.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder(null);
+    }
+
+    /**
+     * Returns a builder starting from this snapshot's settings.
+     *
+     * @return a new builder
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    // ------------------ Accessors ------------------
+
+    /** @return the global logging level */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns whether messages of the given level pass the global filter.
+     *
+     * @param level the level to check
+     * @return true if the level is enabled
+     */
+    public boolean isEnabled(Level level) {
+        return (enabledMask & level.bit) != 0;
+    }
+
+    /**
+     * Returns whether a category is enabled.
+     *
+     * @param category the category to check
+     * @return true if all of the category's messages are printed
+     */
+    public boolean isEnabled(Category category) {
+        return (categoryMask & category.bit) != 0;
+    }
+
+    /** @return whether message type prefixes are shown */
+    public boolean isShowType() {
+        return showType;
+    }
+
+    /** @return whether thread names are shown */
+    public boolean isShowThread() {
+        return showThread;
+    }
+
+    /** @return the time mode */
+    public TimeMode getTimeMode() {
+        return timeMode;
+    }
+
+    /** @return the format of absolute timestamps */
+    public String getTimeFormat() {
+        return timestamps != null ? timestamps.pattern() : DEFAULT_TIME_FORMAT;
+    }
+
+    /** @return how styles are rendered */
+    public ColorMode getColorMode() {
+        return colorMode;
+    }
+
+    /** @return the source of clock readings for timestamps */
+    public TimeSource getTimeSource() {
+        return timeSource;
+    }
+
+    /** @return the compiled time format */
+    TimestampRenderer timestamps() {
+        return timestamps != null ? timestamps : DefaultTimestamps.RENDERER;
+    }
+
+    @Override
+    public String toString() {
+        return "DebugConfig[level=" + level + ", showType=" + showType + ", showThread=" + showThread
+                + ", timeMode=" + timeMode + ", timeFormat=" + getTimeFormat() + ", colorMode=" + colorMode + "]";
+    }
+
+    /** Compiles the default time format on first use, so startup does not load java.time formatting. */
+    private static final class DefaultTimestamps {
+        static final TimestampRenderer RENDERER = new TimestampRenderer(DEFAULT_TIME_FORMAT);
+    }
+
+    // ------------------ Builder ------------------
+
+    /**
+     * Builds a {@link DebugConfig}. Obtained from {@link DebugConfig#builder()} or
+     * {@link DebugConfig#toBuilder()}.
+     */
+    public static final class Builder {
+
+        /** The default stays {@link Level#LOW} so code comparing {@link Debug#getLevel()} with it keeps working. */
+        @SuppressWarnings("deprecation")
+        private static final Level DEFAULT_LEVEL = Level.LOW;
+
+        private final DebugConfig base;
+        private Level level = DEFAULT_LEVEL;
+        private int levelMask = DEFAULT_LEVEL.andAbove();
+        private int categoryMask;
+        private boolean showType;
+        private boolean showThread;
+        private TimeMode timeMode = TimeMode.ELAPSED;
+        private String timeFormat;
+        private ColorMode colorMode;
+        private TimeSource timeSource = TimeSource.system();
+        private boolean restartClock;
+
+        private Builder(DebugConfig base) {
+            this.base = base;
+            if (base == null) return;
+            this.level = base.level;
+            this.levelMask = base.levelMask;
+            this.categoryMask = base.categoryMask;
+            this.showType = base.showType;
+            this.showThread = base.showThread;
+            this.timeMode = base.timeMode;
+            this.timeFormat = base.timestamps != null ? base.timestamps.pattern() : null;
+            this.colorMode = base.colorMode;
+            this.timeSource = base.timeSource;
+        }
+
+        /**
+         * Sets the global level, enabling it and every level of equal or higher priority.
+         * Replaces any levels switched individually with {@link #enabled(Level, boolean)}.
+         *
+         * @param level the level, or null for {@link Level#LOW}
+         * @return this builder
+         */
+        public Builder level(Level level) {
+            this.level = level != null ? level : DEFAULT_LEVEL;
+            this.levelMask = this.level.andAbove();
+            return this;
+        }
+
+        /**
+         * Enables or disables a single level, independent of its priority.
+         *
+         * @param level   the level to switch
+         * @param enabled true to print messages of this level
+         * @return this builder
+         */
+        public Builder enabled(Level level, boolean enabled) {
+            levelMask = enabled ? levelMask | level.bit : levelMask & ~level.bit;
+            return this;
+        }
+
+        /**
+         * Enables or disables a category.
+         *
+         * @param category the category to switch
+         * @param enabled  true to print all of the category's messages
+         * @return this builder
+         */
+        public Builder enabled(Category category, boolean enabled) {
+            categoryMask = enabled ? categoryMask | category.bit : categoryMask & ~category.bit;
+            return this;
+        }
+
+        /**
+         * Sets whether message type prefixes are shown.
+         *
+         * @param value true to show full type labels, false for short icons
+         * @return this builder
+         */
+        public Builder showType(boolean value) {
+            this.showType = value;
+            return this;
+        }
+
+        /**
+         * Sets whether thread names are shown.
+         *
+         * @param value true to show thread names
+         * @return this builder
+         */
+        public Builder showThread(boolean value) {
+            this.showThread = value;
+            return this;
+        }
+
+        /**
+         * Sets the time mode.
+         *
+         * @param mode the time mode, or null for {@link TimeMode#ELAPSED}
+         * @return this builder
+         */
+        public Builder timeMode(TimeMode mode) {
+            this.timeMode = mode != null ? mode : TimeMode.ELAPSED;
+            return this;
+        }
+
+        /**
+         * Sets the format of absolute timestamps. The pattern is compiled by {@link #build()}.
+         *
+         * @param format a {@link java.time.format.DateTimeFormatter} pattern, or null for {@code HH:mm:ss}
+         * @return this builder
+         */
+        public Builder timeFormat(String format) {
+            this.timeFormat = format == null || format.isBlank() || format.equals(DEFAULT_TIME_FORMAT) ? null : format;
+            return this;
+        }
+
+        /**
+         * Sets how styles are rendered.
+         *
+         * @param mode the color mode, or null to detect it with {@link ColorMode#detect()}
+         * @return this builder
+         */
+        public Builder colorMode(ColorMode mode) {
+            this.colorMode = mode;
+            return this;
+        }
+
+        /**
+         * Sets the source of clock readings. Elapsed timestamps restart from zero.
+         *
+         * @param source the time source, or null for the system clock
+         * @return this builder
+         */
+        public Builder timeSource(TimeSource source) {
+            this.timeSource = source != null ? source : TimeSource.system();
+            this.restartClock = true;
+            return this;
+        }
+
+        /**
+         * Applies the settings found in properties; see {@link DebugConfig} for the keys. Logger levels
+         * ({@code level.<name>}) are not part of a snapshot and are ignored here.
+         *
+         * @param properties the properties to read
+         * @return this builder
+         * @throws IllegalArgumentException if a value is invalid
+         */
+        public Builder properties(Properties properties) {
+            String value;
+            if ((value = properties.getProperty("level")) != null) level(Level.parse(value));
+            if ((value = properties.getProperty("showType")) != null) showType(parseBoolean("showType", value));
+            if ((value = properties.getProperty("showThread")) != null) showThread(parseBoolean("showThread", value));
+            if ((value = properties.getProperty("timeMode")) != null) timeMode(parseEnum(TimeMode.class, "timeMode", value));
+            if ((value = properties.getProperty("timeFormat")) != null) timeFormat(value.trim());
+            if ((value = properties.getProperty("colorMode")) != null) {
+                colorMode("AUTO".equalsIgnoreCase(value.trim()) ? null : parseEnum(ColorMode.class, "colorMode", value));
+            }
+            return this;
+        }
+
+        /**
+         * Creates the snapshot, compiling the time format if it changed.
+         *
+         * @return the configuration
+         * @throws IllegalArgumentException if the time format is not a valid pattern
+         */
+        public DebugConfig build() {
+            TimestampRenderer renderer = null;
+            if (timeFormat != null) {
+                TimestampRenderer previous = base != null ? base.timestamps : null;
+                renderer = previous != null && previous.pattern().equals(timeFormat) ? previous : new TimestampRenderer(timeFormat);
+            }
+            ColorMode mode = colorMode != null ? colorMode : ColorMode.detect();
+            long start = base != null && !restartClock ? base.startNanos : timeSource.nanoTime();
+            return new DebugConfig(this, mode, renderer, start);
+        }
+
+        private static boolean parseBoolean(String key, String value) {
+            return switch (value.trim().toLowerCase(Locale.ROOT)) {
+                case "true", "yes", "on" -> true;
+                case "false", "no", "off" -> false;
+                default -> throw new IllegalArgumentException("Invalid " + key + ": " + value);
+            };
+        }
+
+        private static <E extends Enum<E>> E parseEnum(Class<E> type, String key, String value) {
+            try {
+                return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + key + ": " + value);
+            }
+        }
+    }
+}
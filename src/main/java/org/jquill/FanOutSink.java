@@ -0,0 +1,40 @@
+package org.jquill;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Sink} that forwards every call to several sinks in order.
+ *
+ * @see Sink#of(Sink...)
+ */
+final class FanOutSink implements Sink {
+
+    private final Sink[] sinks;
+
+    FanOutSink(Sink[] sinks) {
+        this.sinks = sinks;
+    }
+
+    @Override
+    public void write(CharSequence text) {
+        for (Sink sink : sinks) {
+            sink.write(text);
+            if (Metrics.enabled) Metrics.countBytes(sink, text);
+        }
+    }
+
+    @Override
+    public void flush() {
+        for (Sink sink : sinks) sink.flush();
+    }
+
+    @Override
+    public void close() {
+        for (Sink sink : sinks) sink.close();
+    }
+
+    @Override
+    public String toString() {
+        return "FanOutSink" + Arrays.toString(sinks);
+    }
+}
@@ -0,0 +1,452 @@
+package org.jquill;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Sink} that writes UTF-8 encoded output to a file through a {@link FileChannel}.
+ * Text is encoded straight into a reusable direct {@link ByteBuffer}. Two buffers are used:
+ * while producers fill one, a background thread writes the other to the file, so file I/O and
+ * rotation never happen on the logging thread unless {@link FlushPolicy#everyLine()} is chosen.
+ * Producers only wait if they fill a buffer before the previous one has been written.
+ * The file can be rotated by size, by age, or both; a rotated file is renamed to
+ * {@code <name>.1}, {@code <name>.2}, ... using the first free index.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * FileSink sink = FileSink.builder(Path.of("logs/app.log"))
+ *         .maxBytes(50 * 1024 * 1024)
+ *         .rotateEvery(Duration.ofHours(1))
+ *         .flushPolicy(FlushPolicy.interval(100))
+ *         .build();
+ * Debug.setSink(sink);
+ * }</pre>
+ *
+ * @see Sink
+ * @see FlushPolicy
+ */
+public final class FileSink implements Sink {
+
+    /** How long to keep appending to the current file after a rotation failed before trying again. */
+    private static final long ROTATE_RETRY_MILLIS = 60_000;
+
+    private final Path path;
+    private final long maxBytes;
+    private final long rotateMillis;
+    private final FlushPolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Thread ioThread;
+
+    // Guarded by lock
+    private ByteBuffer active;
+    private ByteBuffer spare;
+    private ByteBuffer full;
+    private long handedOff;
+    private long completed;
+    private boolean closed;
+    private boolean writing;
+
+    // Owned by the I/O thread, or by producers holding lock in every-line mode
+    private FileChannel channel;
+    private long fileSize;
+    private long openedAt;
+    private boolean lineOpen;
+    private long rotateRetryAt;
+    private boolean failed;
+
+    private FileSink(Builder builder) throws IOException {
+        this.path = builder.path;
+        this.maxBytes = builder.maxBytes;
+        this.rotateMillis = builder.rotateEvery != null ? builder.rotateEvery.toMillis() : 0;
+        this.policy = builder.policy;
+        this.active = ByteBuffer.allocateDirect(builder.bufferSize);
+        open();
+
+        if (policy.isEveryLine()) {
+            this.ioThread = null;
+        } else {
+            this.spare = ByteBuffer.allocateDirect(builder.bufferSize);
+            this.ioThread = new Thread(this::runIo, "jquill-file-sink");
+            this.ioThread.setDaemon(true);
+            this.ioThread.start();
+        }
+    }
+
+    /**
+     * Starts building a sink for the given file. The file is created if needed and appended to.
+     *
+     * @param path the file to write to
+     * @return a new builder
+     */
+    public static Builder builder(Path path) {
+        return new Builder(path);
+    }
+
+    /**
+     * Returns the file currently being written to.
+     *
+     * @return the file path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "FileSink[" + path + "]";
+    }
+
+    // ------------------ Producer Side ------------------
+
+    @Override
+    public void write(CharSequence text) {
+        lock.lock();
+        try {
+            // A message spanning buffers releases the lock while waiting for one; keep others out until it is done
+            while (writing) changed.awaitUninterruptibly();
+            if (closed) return;
+            int n = text.length();
+            int i = Utf8.encode(text, 0, n, active);
+            if (i < n) {
+                writing = true;
+                try {
+                    do {
+                        handOff();
+                        i = Utf8.encode(text, i, n, active);
+                    } while (i < n);
+                } finally {
+                    writing = false;
+                    changed.signalAll();
+                }
+            }
+            if (ioThread == null) handOff();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Hands the active buffer to the I/O thread, or writes it directly in every-line mode. Requires lock. */
+    private void handOff() {
+        if (ioThread == null) {
+            active.flip();
+            writeToFile(active);
+            active.clear();
+            return;
+        }
+        boolean interrupted = false;
+        while (spare == null) {
+            try {
+                changed.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        full = active.flip();
+        active = spare;
+        spare = null;
+        handedOff++;
+        changed.signalAll();
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            if (ioThread == null || closed) return;
+            if (active.position() > 0) handOff();
+            long target = handedOff;
+            boolean interrupted = false;
+            while (completed < target) {
+                try {
+                    changed.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            while (writing) changed.awaitUninterruptibly();
+            if (closed) return;
+            if (ioThread != null && active.position() > 0) {
+                // Keep producers out while waiting for a buffer; once closed they return without writing
+                writing = true;
+                try {
+                    handOff();
+                } finally {
+                    writing = false;
+                }
+            }
+            closed = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        // The I/O thread writes the last handed-off buffer before it exits
+        if (ioThread != null) {
+            try {
+                ioThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            reportFailure("close", e);
+        }
+    }
+
+    // ------------------ I/O Side ------------------
+
+    private void runIo() {
+        long interval = policy.intervalMillis();
+        long nextFlush = interval == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + interval;
+        while (true) {
+            ByteBuffer buf;
+            lock.lock();
+            try {
+                while (full == null && !closed) {
+                    long now = System.currentTimeMillis();
+                    if (now >= nextFlush) {
+                        nextFlush = now + interval;
+                        if (active.position() > 0 && spare != null) handOff();
+                        continue;
+                    }
+                    // Wake up for a due rotation as well, so a quiet file is not kept open past its period
+                    long deadline = Math.min(nextFlush, rotationDeadline());
+                    if (deadline <= now) break;
+                    try {
+                        if (deadline == Long.MAX_VALUE) {
+                            changed.await();
+                        } else {
+                            changed.await(deadline - now, TimeUnit.MILLISECONDS);
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (full == null && closed) return;
+                buf = full;
+                full = null;
+            } finally {
+                lock.unlock();
+            }
+
+            if (buf == null) {
+                try {
+                    if (rotationDeadline() <= System.currentTimeMillis()) rotate();
+                } catch (IOException e) {
+                    reportFailure("write to", e);
+                }
+                continue;
+            }
+
+            writeToFile(buf);
+
+            lock.lock();
+            try {
+                spare = buf.clear();
+                completed++;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeToFile(ByteBuffer buf) {
+        try {
+            // A failed rotation may have left no file open; try the original path again
+            if (!channel.isOpen()) open();
+            // Finish the line the previous buffer ended in, so no line is split across files
+            if (lineOpen) {
+                int lineEnd = indexOfNewline(buf, buf.position(), buf.limit());
+                writeUpTo(buf, lineEnd >= 0 ? lineEnd + 1 : buf.limit());
+            }
+            if (rotationDeadline() <= System.currentTimeMillis()) rotate();
+            while (buf.hasRemaining()) {
+                int end = buf.limit();
+                if (maxBytes > 0 && fileSize + buf.remaining() > maxBytes) {
+                    // Write the whole lines that still fit and rotate before the next one
+                    int room = (int) Math.max(0, Math.min(buf.remaining(), maxBytes - fileSize));
+                    int fit = lastIndexOfNewline(buf, buf.position(), buf.position() + room);
+                    if (fit >= 0) {
+                        end = fit + 1;
+                    } else if (fileSize > 0 && rotate()) {
+                        continue;
+                    } else if (fileSize == 0) {
+                        // A single line longer than the limit gets a file of its own
+                        int lineEnd = indexOfNewline(buf, buf.position(), buf.limit());
+                        if (lineEnd >= 0) end = lineEnd + 1;
+                    }
+                }
+                writeUpTo(buf, end);
+            }
+            failed = false;
+        } catch (IOException e) {
+            reportFailure("write to", e);
+        }
+    }
+
+    /** @return when the file is due for time-based rotation, or {@link Long#MAX_VALUE} if it is not */
+    private long rotationDeadline() {
+        if (rotateMillis <= 0 || lineOpen || fileSize == 0) return Long.MAX_VALUE;
+        return Math.max(openedAt + rotateMillis, rotateRetryAt);
+    }
+
+    /** Writes the buffer's bytes up to, but excluding, index {@code end} and notes whether a line is left open. */
+    private void writeUpTo(ByteBuffer buf, int end) throws IOException {
+        if (end <= buf.position()) return;
+        int limit = buf.limit();
+        buf.limit(end);
+        while (buf.hasRemaining()) fileSize += channel.write(buf);
+        buf.limit(limit);
+        lineOpen = buf.get(end - 1) != '\n';
+    }
+
+    private static int indexOfNewline(ByteBuffer buf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == '\n') return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOfNewline(ByteBuffer buf, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (buf.get(i) == '\n') return i;
+        }
+        return -1;
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+        lineOpen = false;
+        openedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Renames the file aside and opens a fresh one. If that fails, the original path is reopened for
+     * appending and rotation is not tried again for {@link #ROTATE_RETRY_MILLIS}.
+     *
+     * @return true if the file was rotated
+     * @throws IOException if not even the original path could be reopened
+     */
+    private boolean rotate() throws IOException {
+        if (System.currentTimeMillis() < rotateRetryAt) return false;
+        channel.close();
+        try {
+            Path target;
+            int index = 1;
+            do {
+                target = path.resolveSibling(path.getFileName() + "." + index++);
+            } while (Files.exists(target));
+            Files.move(path, target);
+            open();
+            return true;
+        } catch (IOException e) {
+            rotateRetryAt = System.currentTimeMillis() + ROTATE_RETRY_MILLIS;
+            reportFailure("rotate", e);
+            open();
+            return false;
+        }
+    }
+
+    private void reportFailure(String action, IOException e) {
+        if (failed) return;
+        failed = true;
+        System.err.println("JQuill: failed to " + action + " " + path + ": " + e);
+    }
+
+    // ------------------ Builder ------------------
+
+    /**
+     * Configures and opens a {@link FileSink}.
+     */
+    public static final class Builder {
+
+        private final Path path;
+        private long maxBytes;
+        private Duration rotateEvery;
+        private FlushPolicy policy = FlushPolicy.whenFull();
+        private int bufferSize = 64 * 1024;
+
+        private Builder(Path path) {
+            this.path = path;
+        }
+
+        /**
+         * Rotates the file before it would grow beyond the given size. Files are only split between lines,
+         * so a single line longer than the limit is written to a file of its own.
+         *
+         * @param bytes the maximum file size in bytes, or 0 to disable size-based rotation
+         * @return this builder
+         */
+        public Builder maxBytes(long bytes) {
+            this.maxBytes = Math.max(0, bytes);
+            return this;
+        }
+
+        /**
+         * Rotates the file once it has been open for the given duration.
+         *
+         * @param period the rotation period, or null to disable time-based rotation
+         * @return this builder
+         */
+        public Builder rotateEvery(Duration period) {
+            this.rotateEvery = period;
+            return this;
+        }
+
+        /**
+         * Sets when buffered output is written to the file. Defaults to {@link FlushPolicy#whenFull()}.
+         *
+         * @param policy the flush policy
+         * @return this builder
+         */
+        public Builder flushPolicy(FlushPolicy policy) {
+            this.policy = policy != null ? policy : FlushPolicy.whenFull();
+            return this;
+        }
+
+        /**
+         * Sets the size of each of the two encoding buffers. Defaults to 64 KiB.
+         *
+         * @param bytes the buffer size in bytes (at least 64)
+         * @return this builder
+         */
+        public Builder bufferSize(int bytes) {
+            this.bufferSize = Math.max(64, bytes);
+            return this;
+        }
+
+        /**
+         * Opens the file and creates the sink.
+         *
+         * @return the sink
+         * @throws IOException if the file cannot be opened
+         */
+        public FileSink build() throws IOException {
+            return new FileSink(this);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.jquill;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the most recent messages removed by level or category filters, so the context leading up
+ * to an error can be printed after the fact. Messages are stored raw — template, arguments, level,
+ * logger, thread name and a {@link TimeSource#nanoTime()} reading — in preallocated parallel
+ * arrays, and only formatted when the ring is dumped. Recording claims a slot with one atomic
+ * increment and writes a handful of fields, so it costs nanoseconds and never allocates or locks;
+ * when the ring is full the oldest message is overwritten.
+ * <p>
+ * Each slot is guarded by a sequence number, written before and after its fields, so a dump
+ * skips slots that are being overwritten instead of blocking writers. Arguments are rendered when
+ * the ring is dumped, not when they were logged, and stay referenced until their slot is reused.
+ *
+ * @see Debug#setFlightRecorder(int)
+ * @see Debug#dumpRecent()
+ */
+final class FlightRecorder {
+
+    private static final long WRITING = -1;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLongArray sequences;
+
+    private final long[] nanos;
+    private final Level[] levels;
+    private final int[] argcs;
+    private final String[] patterns;
+    private final Object[] args1;
+    private final Object[] args2;
+    private final Object[] args3;
+    private final Logger[] loggers;
+    private final String[] threads;
+
+    private final ReentrantLock dumpLock = new ReentrantLock();
+    // Guarded by dumpLock; messages before this sequence have already been dumped
+    private long dumped;
+
+    /**
+     * Creates a recorder.
+     *
+     * @param capacity requested number of messages kept, rounded up to a power of two
+     */
+    FlightRecorder(int capacity) {
+        this.capacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) sequences.set(i, WRITING);
+        this.nanos = new long[this.capacity];
+        this.levels = new Level[this.capacity];
+        this.argcs = new int[this.capacity];
+        this.patterns = new String[this.capacity];
+        this.args1 = new Object[this.capacity];
+        this.args2 = new Object[this.capacity];
+        this.args3 = new Object[this.capacity];
+        this.loggers = new Logger[this.capacity];
+        this.threads = new String[this.capacity];
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    // ------------------ Recording ------------------
+
+    /** Stores a filtered message. Arguments follow the {@link MessageFormatter} conventions. */
+    void record(Logger logger, Level level, String pattern, int argc, Object a1, Object a2, Object a3) {
+        long time = Debug.getTimeSource().nanoTime();
+        long seq = next.getAndIncrement();
+        int i = (int) seq & mask;
+
+        sequences.setOpaque(i, WRITING);
+        VarHandle.storeStoreFence();
+        nanos[i] = time;
+        levels[i] = level;
+        argcs[i] = argc;
+        patterns[i] = pattern;
+        args1[i] = a1;
+        args2[i] = a2;
+        args3[i] = a3;
+        loggers[i] = logger;
+        threads[i] = Thread.currentThread().getName();
+        sequences.lazySet(i, seq);
+    }
+
+    // ------------------ Dumping ------------------
+
+    /**
+     * Formats every message recorded since the last dump into one block and writes it out.
+     * Messages are removed from the ring once dumped, so each is printed at most once.
+     *
+     * @return the number of messages written
+     */
+    int dump() {
+        dumpLock.lock();
+        try {
+            long end = next.get();
+            long start = Math.max(dumped, end - capacity);
+            dumped = end;
+            if (start >= end) return 0;
+
+            StringBuilder block = new StringBuilder(128 + (int) (end - start) * 96);
+            int count = 0;
+            for (long seq = start; seq < end; seq++) {
+                int i = (int) seq & mask;
+                if (sequences.get(i) != seq) continue;
+                long time = nanos[i];
+                Level level = levels[i];
+                int argc = argcs[i];
+                String pattern = patterns[i];
+                Object a1 = args1[i];
+                Object a2 = args2[i];
+                Object a3 = args3[i];
+                Logger logger = loggers[i];
+                String thread = threads[i];
+                VarHandle.loadLoadFence();
+                if (sequences.get(i) != seq) continue;
+
+                Debug.appendRecorded(block, logger, level, thread, time, pattern, argc, a1, a2, a3);
+                count++;
+            }
+            if (count > 0) Debug.emitRecorded(block, count);
+            return count;
+        } finally {
+            dumpLock.unlock();
+        }
+    }
+}
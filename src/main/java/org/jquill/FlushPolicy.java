@@ -0,0 +1,72 @@
+package org.jquill;
+
+/**
+ * Controls when a {@link FileSink} pushes buffered output to the file, trading durability for throughput.
+ *
+ * <ul>
+ *   <li>{@link #everyLine()} — every write reaches the file before {@link Sink#write(CharSequence)} returns.</li>
+ *   <li>{@link #interval(long)} — a background thread writes buffered output at a fixed interval and whenever the buffer fills.</li>
+ *   <li>{@link #whenFull()} — a background thread writes buffered output only when the buffer fills, or on flush and close.</li>
+ * </ul>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * FileSink sink = FileSink.builder(Path.of("app.log"))
+ *         .flushPolicy(FlushPolicy.interval(250))
+ *         .build();
+ * }</pre>
+ *
+ * @see FileSink
+ */
+public final class FlushPolicy {
+
+    private static final FlushPolicy EVERY_LINE = new FlushPolicy(0);
+    private static final FlushPolicy WHEN_FULL = new FlushPolicy(Long.MAX_VALUE);
+
+    private final long intervalMillis;
+
+    private FlushPolicy(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Writes every piece of output to the file immediately, on the calling thread.
+     *
+     * @return the policy
+     */
+    public static FlushPolicy everyLine() {
+        return EVERY_LINE;
+    }
+
+    /**
+     * Writes buffered output every {@code millis} milliseconds and whenever the buffer fills.
+     *
+     * @param millis the flush interval in milliseconds (must be positive)
+     * @return the policy
+     */
+    public static FlushPolicy interval(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Flush interval must be positive: " + millis);
+        }
+        return new FlushPolicy(millis);
+    }
+
+    /**
+     * Writes buffered output only when the buffer fills, or on explicit flush and close.
+     *
+     * @return the policy
+     */
+    public static FlushPolicy whenFull() {
+        return WHEN_FULL;
+    }
+
+    /** @return true if output is written on the calling thread */
+    boolean isEveryLine() {
+        return intervalMillis == 0;
+    }
+
+    /** @return the background flush interval in milliseconds, {@link Long#MAX_VALUE} if none */
+    long intervalMillis() {
+        return intervalMillis;
+    }
+}
@@ -0,0 +1,119 @@
+package org.jquill;
+
+import java.util.logging.Handler;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@code java.util.logging} {@link Handler} that routes records into {@link Debug}, replacing
+ * JUL's own console handler and formatter chain. Each record is written through the JQuill
+ * {@link Logger} named like the JUL logger (the root logger becomes {@code root}), so it is
+ * filtered by the levels set with {@link Debug#setLevel(String, Level)} and styled like all other
+ * output; without such a level it prints {@code INFO} and above, JUL's own default.
+ * {@link #isLoggable(LogRecord)} reads the logger's cached filter mask, and records of disabled
+ * levels are dropped before their parameters are formatted.
+ * <p>
+ * JUL decides whether to create a record at all by its own logger levels, before any handler is
+ * asked. {@link #install()} therefore also sets the root JUL level to match {@link Debug#getLevel()};
+ * to see finer output from a JUL logger given a lower JQuill level, lower its JUL level as well.
+ *
+ * <h2>Levels:</h2>
+ * <pre>
+ * SEVERE  -> ERROR     WARNING -> WARN      INFO   -> INFO
+ * CONFIG, FINE -> DEBUG          FINER, FINEST, ALL -> TRACE      OFF -> never printed
+ * </pre>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * JQuillHandler.install();
+ * java.util.logging.Logger.getLogger("com.zaxxer.hikari").warning("Pool exhausted");
+ * }</pre>
+ * or, in {@code logging.properties}:
+ * <pre>
+ * handlers = org.jquill.JQuillHandler
+ * </pre>
+ *
+ * @see JQuillLoggerFinder
+ */
+public final class JQuillHandler extends Handler {
+
+    /**
+     * Creates a handler that passes records of every level on to JQuill's filters.
+     */
+    public JQuillHandler() {
+        setLevel(java.util.logging.Level.ALL);
+    }
+
+    /**
+     * Replaces every handler of the JUL root logger with a {@link JQuillHandler} and sets the root
+     * level to the JUL equivalent of {@link Debug#getLevel()}.
+     *
+     * @return the installed handler
+     */
+    public static JQuillHandler install() {
+        java.util.logging.Logger root = LogManager.getLogManager().getLogger("");
+        for (Handler handler : root.getHandlers()) {
+            root.removeHandler(handler);
+            handler.close();
+        }
+        JQuillHandler handler = new JQuillHandler();
+        root.addHandler(handler);
+        root.setLevel(toJul(Debug.getLevel()));
+        return handler;
+    }
+
+    @Override
+    public boolean isLoggable(LogRecord record) {
+        if (!super.isLoggable(record)) return false;
+        Level level = toLevel(record.getLevel());
+        return level != null && Logger.bridged(record.getLoggerName()).isEnabled(level);
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (record == null || !super.isLoggable(record)) return;
+        Level level = toLevel(record.getLevel());
+        if (level == null) return;
+        Logger.bridged(record.getLoggerName()).logBridged(level, record.getResourceBundle(), record.getMessage(),
+                record.getParameters(), record.getThrown());
+    }
+
+    @Override
+    public void flush() {
+        Debug.flush();
+    }
+
+    /** Flushes pending output; the sink stays open, since it belongs to {@link Debug}. */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    // ------------------ Levels ------------------
+
+    /**
+     * Maps a JUL level onto a JQuill level by its numeric value, so custom levels fall in between.
+     *
+     * @return the level, or null for {@link java.util.logging.Level#OFF}
+     */
+    static Level toLevel(java.util.logging.Level level) {
+        int value = level.intValue();
+        if (value == java.util.logging.Level.OFF.intValue()) return null;
+        if (value >= java.util.logging.Level.SEVERE.intValue()) return Level.ERROR;
+        if (value >= java.util.logging.Level.WARNING.intValue()) return Level.WARN;
+        if (value >= java.util.logging.Level.INFO.intValue()) return Level.INFO;
+        if (value >= java.util.logging.Level.FINE.intValue()) return Level.DEBUG;
+        return Level.TRACE;
+    }
+
+    /** @return the lowest JUL level that maps onto the given JQuill level */
+    static java.util.logging.Level toJul(Level level) {
+        return switch (level.canonical()) {
+            case TRACE -> java.util.logging.Level.ALL;
+            case DEBUG -> java.util.logging.Level.FINE;
+            case INFO -> java.util.logging.Level.INFO;
+            case ERROR -> java.util.logging.Level.SEVERE;
+            default -> java.util.logging.Level.WARNING;
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package org.jquill;
+
+/**
+ * A {@link System.LoggerFinder} that routes {@link System.Logger} output — from the JDK and from
+ * libraries that log through {@link System#getLogger(String)} — into {@link Debug}. It is registered
+ * as a service provider, so having JQuill on the class path is enough to install it.
+ * <p>
+ * Each {@link System.Logger} is backed by the JQuill {@link Logger} of the same name, so it is
+ * filtered by the levels set with {@link Debug#setLevel(String, Level)} and styled like all other
+ * output. A logger without such a level, of its own or of an ancestor, prints {@code INFO} and above
+ * like {@code java.util.logging} does, so the JDK's own debug output stays off until it is enabled
+ * by name. {@link System.Logger#isLoggable(System.Logger.Level)} reads the logger's cached filter
+ * mask, and messages of disabled levels are dropped before their parameters are formatted.
+ *
+ * <h2>Levels:</h2>
+ * <pre>
+ * ALL, TRACE -> TRACE     DEBUG -> DEBUG     INFO -> INFO
+ * WARNING    -> WARN      ERROR -> ERROR     OFF  -> never printed
+ * </pre>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * System.Logger http = System.getLogger("jdk.httpclient");
+ * Debug.setLevel("jdk.httpclient", Level.DEBUG);
+ * http.log(System.Logger.Level.DEBUG, "Sent {0} bytes", 512);   // printed as "... [jdk.httpclient] Sent 512 bytes"
+ * }</pre>
+ *
+ * @see JQuillHandler
+ */
+public final class JQuillLoggerFinder extends System.LoggerFinder {
+
+    /**
+     * Creates the finder. Called by the {@link java.util.ServiceLoader}.
+     */
+    public JQuillLoggerFinder() {
+    }
+
+    @Override
+    public System.Logger getLogger(String name, Module module) {
+        return new SystemLoggerAdapter(Logger.bridged(name));
+    }
+
+    /**
+     * Maps a {@link System.Logger.Level} onto a JQuill level.
+     *
+     * @return the level, or null for {@link System.Logger.Level#OFF}
+     */
+    static Level toLevel(System.Logger.Level level) {
+        return switch (level) {
+            case ALL, TRACE -> Level.TRACE;
+            case DEBUG -> Level.DEBUG;
+            case INFO -> Level.INFO;
+            case WARNING -> Level.WARN;
+            case ERROR -> Level.ERROR;
+            case OFF -> null;
+        };
+    }
+}
@@ -0,0 +1,224 @@
+package org.jquill;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * An immutable snapshot of what JQuill's output pipeline has done since metrics were enabled:
+ * messages emitted and filtered per {@link Level}, bytes handed to each {@link Sink}, time spent
+ * waiting for the console output lock, and a latency histogram of sink writes.
+ * Metrics are off by default; {@link Debug#setMetricsEnabled(boolean)} turns recording on and
+ * registers a {@link JQuillMetricsMXBean} with the platform MBean server under
+ * {@value #OBJECT_NAME}, so the same figures are visible in JConsole or any JMX client.
+ * All counters are striped, so recording does not contend between threads.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Debug.setMetricsEnabled(true);
+ * ...
+ * JQuillMetrics metrics = Debug.metrics();
+ * System.out.println(metrics.getEmitted(Level.ERROR) + " errors, p99 write "
+ *         + metrics.getWriteLatency().getPercentileNanos(99) + " ns");
+ * }</pre>
+ *
+ * @see Debug#metrics()
+ * @see JQuillMetricsMXBean
+ */
+public final class JQuillMetrics {
+
+    /** The name the metrics MBean is registered under. */
+    public static final String OBJECT_NAME = "org.jquill:type=Metrics";
+
+    private static final Level[] LEVELS = Level.values();
+    private static boolean registered;
+
+    private final long[] emitted;
+    private final long[] filtered;
+    private final Map<String, Long> bytesWritten;
+    private final long lockWaitNanos;
+    private final long lockAcquisitions;
+    private final LatencySnapshot writeLatency;
+
+    JQuillMetrics(long[] emitted, long[] filtered, Map<String, Long> bytesWritten, long lockWaitNanos,
+                  long lockAcquisitions, LatencySnapshot writeLatency) {
+        this.emitted = emitted;
+        this.filtered = filtered;
+        this.bytesWritten = Collections.unmodifiableMap(bytesWritten);
+        this.lockWaitNanos = lockWaitNanos;
+        this.lockAcquisitions = lockAcquisitions;
+        this.writeLatency = writeLatency;
+    }
+
+    // ------------------ Accessors ------------------
+
+    /**
+     * Returns the number of messages of a level that were printed or recorded.
+     *
+     * @param level the level
+     * @return the emitted count
+     */
+    public long getEmitted(Level level) {
+        return emitted[level.index];
+    }
+
+    /**
+     * Returns the number of messages of a level removed by level filters or throttling.
+     *
+     * @param level the level
+     * @return the filtered count
+     */
+    public long getFiltered(Level level) {
+        return filtered[level.index];
+    }
+
+    /**
+     * Returns the number of messages printed or recorded across all levels.
+     *
+     * @return the total emitted count
+     */
+    public long getTotalEmitted() {
+        long total = 0;
+        for (long n : emitted) total += n;
+        return total;
+    }
+
+    /**
+     * Returns the number of UTF-8 bytes handed to each sink, keyed by the sink's {@code toString()}.
+     *
+     * @return bytes written per sink
+     */
+    public Map<String, Long> getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Returns the total time writers spent waiting for the console output lock.
+     *
+     * @return the lock wait time in nanoseconds
+     */
+    public long getLockWaitNanos() {
+        return lockWaitNanos;
+    }
+
+    /**
+     * Returns how often the console output lock was acquired.
+     *
+     * @return the number of lock acquisitions
+     */
+    public long getLockAcquisitions() {
+        return lockAcquisitions;
+    }
+
+    /**
+     * Returns the distribution of sink write durations.
+     *
+     * @return the write latency histogram
+     */
+    public LatencySnapshot getWriteLatency() {
+        return writeLatency;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("JQuillMetrics[emitted=");
+        sb.append(countsByLevel(emitted)).append(", filtered=").append(countsByLevel(filtered))
+                .append(", bytes=").append(bytesWritten)
+                .append(", lockWait=").append(lockWaitNanos).append("ns")
+                .append(", writes=").append(writeLatency).append(']');
+        return sb.toString();
+    }
+
+    private static Map<String, Long> countsByLevel(long[] counts) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Level level : LEVELS) {
+            if (level.canonical() == level) map.put(level.name(), counts[level.index]);
+        }
+        return map;
+    }
+
+    // ------------------ MBean ------------------
+
+    /** Registers the metrics MBean with the platform MBean server, once. */
+    static synchronized void registerMBean() {
+        if (registered) return;
+        registered = true;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new Live(), name);
+            }
+        } catch (JMException | SecurityException e) {
+            System.err.println("JQuill: failed to register metrics MBean: " + e);
+        }
+    }
+
+    /** The MBean view; every attribute reads the live counters. */
+    private static final class Live implements JQuillMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return Metrics.enabled;
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            Debug.setMetricsEnabled(enabled);
+        }
+
+        @Override
+        public Map<String, Long> getEmittedCounts() {
+            return countsByLevel(Metrics.snapshot().emitted);
+        }
+
+        @Override
+        public Map<String, Long> getFilteredCounts() {
+            return countsByLevel(Metrics.snapshot().filtered);
+        }
+
+        @Override
+        public Map<String, Long> getBytesWritten() {
+            return Metrics.snapshot().bytesWritten;
+        }
+
+        @Override
+        public long getLockWaitNanos() {
+            return Metrics.snapshot().lockWaitNanos;
+        }
+
+        @Override
+        public long getWriteCount() {
+            return Metrics.snapshot().writeLatency.getCount();
+        }
+
+        @Override
+        public double getWriteLatencyMeanNanos() {
+            return Metrics.snapshot().writeLatency.getMeanNanos();
+        }
+
+        @Override
+        public long getWriteLatencyP50Nanos() {
+            return Metrics.snapshot().writeLatency.getPercentileNanos(50);
+        }
+
+        @Override
+        public long getWriteLatencyP99Nanos() {
+            return Metrics.snapshot().writeLatency.getPercentileNanos(99);
+        }
+
+        @Override
+        public long getWriteLatencyMaxNanos() {
+            return Metrics.snapshot().writeLatency.getMaxNanos();
+        }
+
+        @Override
+        public void reset() {
+            Metrics.reset();
+        }
+    }
+}
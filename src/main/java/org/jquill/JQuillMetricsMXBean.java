@@ -0,0 +1,49 @@
+package org.jquill;
+
+import java.util.Map;
+
+/**
+ * Management interface for JQuill's output metrics, registered with the platform MBean server as
+ * {@value JQuillMetrics#OBJECT_NAME} once metrics are enabled. Every attribute reads the live
+ * counters; see {@link JQuillMetrics} for their meaning.
+ *
+ * @see Debug#setMetricsEnabled(boolean)
+ */
+public interface JQuillMetricsMXBean {
+
+    /** @return whether metrics are being recorded */
+    boolean isEnabled();
+
+    /** @param enabled true to record metrics, false to stop */
+    void setEnabled(boolean enabled);
+
+    /** @return messages printed or recorded, per level name */
+    Map<String, Long> getEmittedCounts();
+
+    /** @return messages removed by level filters or throttling, per level name */
+    Map<String, Long> getFilteredCounts();
+
+    /** @return UTF-8 bytes handed to each sink, per sink description */
+    Map<String, Long> getBytesWritten();
+
+    /** @return total time spent waiting for the console output lock, in nanoseconds */
+    long getLockWaitNanos();
+
+    /** @return number of writes to the sink */
+    long getWriteCount();
+
+    /** @return mean sink write latency in nanoseconds */
+    double getWriteLatencyMeanNanos();
+
+    /** @return median sink write latency in nanoseconds */
+    long getWriteLatencyP50Nanos();
+
+    /** @return 99th percentile sink write latency in nanoseconds */
+    long getWriteLatencyP99Nanos();
+
+    /** @return longest sink write in nanoseconds */
+    long getWriteLatencyMaxNanos();
+
+    /** Clears all counters. */
+    void reset();
+}
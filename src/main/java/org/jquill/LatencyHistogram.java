@@ -0,0 +1,97 @@
+package org.jquill;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent log-linear histogram of durations in nanoseconds.
+ * Values are grouped by power of two, and each power of two is split into 16 linear sub-buckets,
+ * so any recorded value is reported within about 6% of its true value. Values up to about 36 minutes
+ * are tracked individually; longer ones fall into the last bucket. Every bucket is a
+ * {@link LongAdder} created on first use, so recording from many threads never contends.
+ *
+ * @see LatencySnapshot
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final long MAX_TRACKED = (1L << 41) - 1;
+    static final int BUCKETS = indexOf(MAX_TRACKED) + 1;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos the duration in nanoseconds; negative values count as 0
+     */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        int index = indexOf(Math.min(value, MAX_TRACKED));
+        LongAdder bucket = buckets.get(index);
+        if (bucket == null) {
+            buckets.compareAndSet(index, null, new LongAdder());
+            bucket = buckets.get(index);
+        }
+        bucket.increment();
+        count.increment();
+        total.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Copies the current state. Recording may continue while the copy is taken, so the
+     * snapshot can be marginally inconsistent.
+     *
+     * @return an immutable snapshot
+     */
+    LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null) counts[i] = bucket.sum();
+        }
+        long n = count.sum();
+        return new LatencySnapshot(counts, n, total.sum(), n > 0 ? min.get() : 0, max.get());
+    }
+
+    /** Clears all recorded values. */
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null) bucket.reset();
+        }
+        count.reset();
+        total.reset();
+        min.reset();
+        max.reset();
+    }
+
+    // ------------------ Bucket Layout ------------------
+
+    static int indexOf(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BITS);
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    /** @return the smallest value that falls into the given bucket */
+    static long lowerBound(int index) {
+        if (index < 2 * SUB_COUNT) return index;
+        int shift = (index >>> SUB_BITS) - 1;
+        return (long) ((index & (SUB_COUNT - 1)) + SUB_COUNT) << shift;
+    }
+
+    /** @return the value reported for the given bucket: the middle of its range */
+    static long midpoint(int index) {
+        if (index < 2 * SUB_COUNT) return index;
+        int shift = (index >>> SUB_BITS) - 1;
+        return lowerBound(index) + ((1L << shift) >>> 1);
+    }
+}
@@ -0,0 +1,107 @@
+package org.jquill;
+
+/**
+ * An immutable copy of a latency histogram, as reported by {@link JQuillMetrics}.
+ * Percentiles are reported within about 6% of the true value; the count, mean, minimum and
+ * maximum are exact.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * LatencySnapshot writes = Debug.metrics().getWriteLatency();
+ * System.out.println("p99 write: " + writes.getPercentileNanos(99) / 1000 + " µs");
+ * }</pre>
+ *
+ * @see JQuillMetrics
+ */
+public final class LatencySnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long minNanos;
+    private final long maxNanos;
+
+    LatencySnapshot(long[] counts, long count, long totalNanos, long minNanos, long maxNanos) {
+        this.counts = counts;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of all recorded durations.
+     *
+     * @return the total in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Returns the mean recorded duration.
+     *
+     * @return the mean in nanoseconds, or 0 if nothing was recorded
+     */
+    public double getMeanNanos() {
+        return count > 0 ? (double) totalNanos / count : 0;
+    }
+
+    /**
+     * Returns the shortest recorded duration.
+     *
+     * @return the minimum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMinNanos() {
+        return minNanos;
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     *
+     * @return the maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the duration below which the given percentage of recorded durations fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the percentile in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(minNanos, Math.min(maxNanos, LatencyHistogram.midpoint(i)));
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count
+                + " mean=" + (long) getMeanNanos() + "ns"
+                + " p50=" + getPercentileNanos(50) + "ns"
+                + " p99=" + getPercentileNanos(99) + "ns"
+                + " max=" + maxNanos + "ns";
+    }
+}
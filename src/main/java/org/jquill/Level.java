@@ -1,44 +1,124 @@
 package org.jquill;
 
+import java.util.Arrays;
+import java.util.Locale;
+
 /**
  * Defines the severity levels for debug output, controlling which messages are shown
  * based on their priority relative to the current logging level.
- * Two levels are provided:
+ * Six levels are provided, each printed by the {@link Debug} method of the same purpose:
  * <ul>
- *   <li>{@link #LOW} — lower priority messages; typically informational or standard logs</li>
- *   <li>{@link #HIGH} — higher priority messages; typically warnings, errors, or success notifications</li>
+ *   <li>{@link #TRACE} — fine-grained diagnostics, hidden by default ({@link Debug#trace(String)})</li>
+ *   <li>{@link #DEBUG} — general debug logs ({@link Debug#log(String)})</li>
+ *   <li>{@link #INFO} — informational messages ({@link Debug#info(String)})</li>
+ *   <li>{@link #WARN} — warnings ({@link Debug#warn(String)})</li>
+ *   <li>{@link #ERROR} — errors ({@link Debug#error(String)})</li>
+ *   <li>{@link #SUCCESS} — success notifications, ranked with warnings ({@link Debug#success(String)})</li>
  * </ul>
- * Each level has an associated integer {@link #getPriority()} which is used internally
- * by {@link Debug} to determine whether a message should be printed depending on the
- * currently set logging level.
+ * The constants of the original two-level model remain as deprecated aliases: {@link #LOW} filters and
+ * prints like {@link #DEBUG}, and {@link #HIGH} like {@link #WARN}.
+ * Setting a level with {@link Debug#setLevel(Level)} enables every level whose {@link #getPriority()}
+ * is at least as high. Internally the enabled levels are kept as a bitmask, so individual levels can
+ * also be switched on and off with {@link Debug#setEnabled(Level, boolean)}.
  *
  * <h2>Usage Example:</h2>
  * <pre>{@code
- * Debug.setLevel(Level.LOW);   // Show all messages
- * if (messageLevel.getPriority() >= Debug.getLevel().getPriority()) {
- *     Debug.log("This message will be printed if its priority meets the current level");
- * }
+ * Debug.setLevel(Level.INFO);              // Hide trace and debug output
+ * Debug.setEnabled(Level.WARN, false);     // ...and warnings, but keep errors
+ * Debug.setLevel(Level.LOW);               // Deprecated; same as Level.DEBUG
  * }</pre>
  *
  * @see Debug
+ * @see Category
  */
 public enum Level {
 
-    /** Lower priority messages; typically informational or standard logs. */
-    LOW(1),
+    /** Fine-grained diagnostic messages. */
+    TRACE(1, "[TRACE]   ", "- ", Style.MUTED),
+
+    /** General debug logs. */
+    DEBUG(2, "[LOG]     ", "* ", Style.LOG),
+
+    /** Informational messages. */
+    INFO(3, "[INFO]    ", "i ", Style.INFO),
+
+    /** Warnings. */
+    WARN(4, "[WARN]    ", "? ", Style.WARNING),
+
+    /** Errors. */
+    ERROR(5, "[ERROR]   ", "x ", Style.ERROR),
 
-    /** Higher priority messages; typically warnings, errors, or success notifications. */
-    HIGH(2);
+    /** Success notifications; shares its priority with {@link #WARN}. */
+    SUCCESS(4, "[SUCCESS] ", "+ ", Style.SUCCESS),
+
+    /**
+     * Lower priority messages from the original two-level model; filters and prints exactly like {@link #DEBUG}.
+     *
+     * @deprecated use {@link #DEBUG}
+     */
+    @Deprecated
+    LOW(DEBUG),
+
+    /**
+     * Higher priority messages from the original two-level model; filters and prints exactly like {@link #WARN}.
+     *
+     * @deprecated use {@link #WARN}
+     */
+    @Deprecated
+    HIGH(WARN);
+
+    /** Number of distinct levels, not counting the {@link #LOW} and {@link #HIGH} aliases. */
+    static final int COUNT = 6;
+
+    /** Bits of every level in a filter mask. */
+    static final int ALL = (1 << COUNT) - 1;
+
+    /** The distinct levels, which come first in declaration order, by {@link #index}. */
+    private static final Level[] BY_INDEX = Arrays.copyOf(values(), COUNT);
 
     private final int priority;
+    private final Level canonical;
+    /**
+     * Position of {@link #canonical()} among the distinct levels; indexes per-level counters and is
+     * the level's code in a {@link BinaryLog}, so new levels go after {@link #SUCCESS}.
+     */
+    final int index;
+    final int bit;
+    final String label;
+    final String icon;
+    final Style style;
 
     /**
-     * Constructs a Level with the given priority.
+     * Constructs a Level with the given priority and presentation.
      *
      * @param priority the integer priority associated with this level
+     * @param label    the label shown when type prefixes are enabled
+     * @param icon     the short marker shown otherwise
+     * @param style    the style messages of this level are printed in
      */
-    Level(int priority) {
+    Level(int priority, String label, String icon, Style style) {
         this.priority = priority;
+        this.canonical = this;
+        this.index = ordinal();
+        this.bit = 1 << ordinal();
+        this.label = label;
+        this.icon = icon;
+        this.style = style;
+    }
+
+    /**
+     * Constructs an alias that shares every property, including its filter bit, with another level.
+     *
+     * @param target the level this one stands for
+     */
+    Level(Level target) {
+        this.priority = target.priority;
+        this.canonical = target;
+        this.index = target.index;
+        this.bit = target.bit;
+        this.label = target.label;
+        this.icon = target.icon;
+        this.style = target.style;
     }
 
     /**
@@ -50,4 +130,43 @@ public enum Level {
     public int getPriority() {
         return priority;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the distinct level with the given {@link #index}.
+     *
+     * @throws ArrayIndexOutOfBoundsException if no level has that index
+     */
+    static Level ofIndex(int index) {
+        return BY_INDEX[index];
+    }
+
+    /** @return the level this one stands for: {@link #DEBUG} or {@link #WARN} for the aliases, otherwise this level */
+    Level canonical() {
+        return canonical;
+    }
+
+    /** @return the filter mask enabling this level and every level of equal or higher priority */
+    int andAbove() {
+        int mask = 0;
+        for (Level level : values()) {
+            if (level.priority >= priority) mask |= level.bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Parses a level name, case-insensitively. The {@link #LOW} and {@link #HIGH} aliases are accepted too.
+     *
+     * @param name the level name
+     * @return the level
+     * @throws IllegalArgumentException if the name is not a level
+     */
+    public static Level parse(String name) {
+        String upper = name != null ? name.trim().toUpperCase(Locale.ROOT) : "";
+        try {
+            return valueOf(upper);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid level: " + name);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package org.jquill;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The block of live lines ({@link Progress} bars and {@link StatusLine}s) kept at the bottom of the
+ * terminal. Lines only publish their state; a single daemon renderer thread redraws the region at
+ * a capped frame rate, and for each line writes only the cells that changed since the last frame,
+ * using cursor-movement escapes. The region is drawn through {@link ConsoleSink#stdout()}, under
+ * the sink's lock, and the sink hands every other write to {@link #printAbove(PrintStream, CharSequence)},
+ * so log lines scroll up above the region instead of overwriting it.
+ * <p>
+ * Between frames the cursor rests at the start of the line just below the region. When output is
+ * not a terminal ({@link ColorMode#PLAIN}) nothing is drawn; each line is printed once, in its final
+ * state, when it is closed.
+ *
+ * @see Progress
+ * @see StatusLine
+ */
+final class LiveRegion {
+
+    private static final String ESC = "\u001B[";
+    private static final String RESET = Style.RESET.getCode();
+    private static final String CLEAR_TO_END = ESC + "J";
+    private static final String CLEAR_LINE_END = ESC + "K";
+
+    static final LiveRegion INSTANCE = new LiveRegion(ConsoleSink.stdout());
+
+    private static volatile long frameNanos = 100_000_000L;
+
+    private final ConsoleSink sink;
+    private final ConcurrentLinkedQueue<Line> added = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final int width = terminalWidth();
+
+    // Guarded by the sink's lock
+    private final List<Line> shown = new ArrayList<>();
+    private final StringBuilder frame = new StringBuilder(512);
+    private final StringBuilder downgraded = new StringBuilder(512);
+    private final StringBuilder pending = new StringBuilder();
+
+    private LiveRegion(ConsoleSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * One line of the region. Subclasses describe their current state in {@link #render(Row)},
+     * which only ever runs on the renderer thread.
+     */
+    abstract static class Line {
+        private volatile boolean closed;
+        private Row drawn;
+        private Row next;
+
+        /** Fills the row with the line's current state. */
+        abstract void render(Row row);
+
+        /** Marks the line finished; it is printed once more in its final state and leaves the region. */
+        void close() {
+            closed = true;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+    }
+
+    /** Sets the maximum number of frames drawn per second. */
+    static void setFrameRate(int framesPerSecond) {
+        frameNanos = 1_000_000_000L / framesPerSecond;
+    }
+
+    // ------------------ Producer Side ------------------
+
+    /** Adds a line to the bottom of the region and starts the renderer if needed. Never blocks. */
+    void add(Line line) {
+        added.add(line);
+        if (running.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::run, "jquill-live-region");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /** Draws a frame right away, so every closed line has been printed when this returns. */
+    void flush() {
+        if (running.get()) sink.draw(this, false);
+    }
+
+    // ------------------ Renderer ------------------
+
+    private void run() {
+        while (sink.draw(this, true)) {
+            LockSupport.parkNanos(this, frameNanos);
+        }
+    }
+
+    /**
+     * Draws one frame. Called with the sink's lock held.
+     *
+     * @param out      the console stream
+     * @param renderer true on the renderer thread, which stops once the region is empty
+     * @return false once the region is empty and the renderer should stop
+     */
+    boolean drawFrame(PrintStream out, boolean renderer) {
+        frame.setLength(0);
+        if (Debug.getColorMode() == ColorMode.PLAIN) {
+            drainAdded();
+            printClosed(out);
+        } else if (isStructural()) {
+            eraseRegion();
+            printClosed(out);
+            drainAdded();
+            for (Line line : shown) {
+                render(line);
+                appendRow(line.drawn);
+            }
+        } else {
+            int rows = shown.size();
+            for (int i = 0; i < rows; i++) {
+                Line line = shown.get(i);
+                Row before = line.drawn;
+                render(line);
+                appendDiff(before, line.drawn, rows - i);
+            }
+        }
+        write(out);
+        if (!shown.isEmpty()) return true;
+        if (pending.length() > 0) {
+            out.append(pending);
+            pending.setLength(0);
+        }
+        if (!renderer) return false;
+        running.set(false);
+        // A line added after the region emptied must not be stranded without a renderer
+        return !added.isEmpty() && running.compareAndSet(false, true);
+    }
+
+    /** @return true while lines are on screen, so writes must go through {@link #printAbove}. Called with the sink's lock held. */
+    boolean isActive() {
+        return !shown.isEmpty();
+    }
+
+    /** @return true if lines were added or closed, or were never drawn, so the region must be redrawn whole */
+    private boolean isStructural() {
+        if (!added.isEmpty()) return true;
+        for (Line line : shown) {
+            if (line.isClosed() || line.drawn == null) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes text above the region: the region is erased, the complete lines of the text are
+     * printed, and the region is drawn again below them from its last frame. A trailing partial
+     * line is held back until it is completed. Called with the sink's lock held.
+     */
+    void printAbove(PrintStream out, CharSequence text) {
+        if (Debug.getColorMode() == ColorMode.PLAIN || (shown.isEmpty() && pending.length() == 0)) {
+            out.append(text);
+            return;
+        }
+        pending.append(text);
+        int end = pending.lastIndexOf("\n") + 1;
+        if (end == 0) return;
+
+        frame.setLength(0);
+        eraseRegion();
+        frame.append(pending, 0, end);
+        pending.delete(0, end);
+        for (Line line : shown) {
+            if (line.drawn != null) appendRow(line.drawn);
+        }
+        write(out);
+    }
+
+    private void drainAdded() {
+        for (Line line; (line = added.poll()) != null; ) shown.add(line);
+    }
+
+    /** Prints closed lines in their final state and removes them from the region. */
+    private void printClosed(PrintStream out) {
+        for (int i = 0; i < shown.size(); i++) {
+            Line line = shown.get(i);
+            if (!line.isClosed()) continue;
+            render(line);
+            if (Debug.getColorMode() == ColorMode.PLAIN) {
+                out.append(line.drawn.text()).append(System.lineSeparator());
+            } else {
+                appendRow(line.drawn);
+            }
+            shown.remove(i--);
+        }
+    }
+
+    private void render(Line line) {
+        Row row = line.next != null ? line.next : new Row(width);
+        row.clear();
+        line.render(row);
+        line.next = line.drawn;
+        line.drawn = row;
+    }
+
+    /** Moves the cursor to the top of the region and clears everything below it. */
+    private void eraseRegion() {
+        int rows = 0;
+        for (Line line : shown) {
+            if (line.drawn != null) rows++;
+        }
+        if (rows > 0) frame.append(ESC).append(rows).append('A').append('\r').append(CLEAR_TO_END);
+    }
+
+    private void appendRow(Row row) {
+        appendCells(row, 0, row.length);
+        frame.append(RESET).append(CLEAR_LINE_END).append('\n');
+    }
+
+    /** Appends the escapes that turn the row as drawn into the row as rendered, if they differ. */
+    private void appendDiff(Row before, Row after, int rowsUp) {
+        int first = 0;
+        int common = Math.min(before.length, after.length);
+        while (first < common && before.chars[first] == after.chars[first] && before.styles[first] == after.styles[first]) {
+            first++;
+        }
+        if (first == before.length && first == after.length) return;
+
+        int last = after.length;
+        if (before.length == after.length) {
+            while (last > first && before.chars[last - 1] == after.chars[last - 1] && before.styles[last - 1] == after.styles[last - 1]) {
+                last--;
+            }
+        }
+        frame.append(ESC).append(rowsUp).append('A').append(ESC).append(first + 1).append('G');
+        appendCells(after, first, last);
+        frame.append(RESET);
+        if (after.length < before.length) frame.append(CLEAR_LINE_END);
+        frame.append('\r').append(ESC).append(rowsUp).append('B');
+    }
+
+    private void appendCells(Row row, int from, int to) {
+        Style current = null;
+        for (int i = from; i < to; i++) {
+            Style style = row.styles[i];
+            if (style != current) {
+                if (current != null) frame.append(RESET);
+                if (style != null) frame.append(style.getCode());
+                current = style;
+            }
+            frame.append(row.chars[i]);
+        }
+    }
+
+    private void write(PrintStream out) {
+        if (frame.length() == 0) return;
+        if (Debug.getColorMode() == ColorMode.ANSI_256) {
+            downgraded.setLength(0);
+            out.append(Style.downgrade(downgraded, frame, 0, frame.length()));
+        } else {
+            out.append(frame);
+        }
+        out.flush();
+    }
+
+    private static int terminalWidth() {
+        try {
+            String columns = System.getenv("COLUMNS");
+            if (columns != null) return Math.max(20, Integer.parseInt(columns.trim()));
+        } catch (NumberFormatException | SecurityException e) {
+            // fall back to the classic width
+        }
+        return 80;
+    }
+
+    // ------------------ Rows ------------------
+
+    /**
+     * The cells of one rendered line: a character and a style per column. Rows stop one column short
+     * of the terminal width, so they never wrap and cursor movement stays exact.
+     */
+    static final class Row {
+        final char[] chars;
+        final Style[] styles;
+        int length;
+
+        Row(int width) {
+            this.chars = new char[Math.max(1, width - 1)];
+            this.styles = new Style[chars.length];
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        /** Appends text in one style, cutting it off at the edge of the row. Control characters become spaces. */
+        Row append(CharSequence text, Style style) {
+            for (int i = 0, n = text.length(); i < n && length < chars.length; i++) {
+                char c = text.charAt(i);
+                chars[length] = c < ' ' ? ' ' : c;
+                styles[length++] = style;
+            }
+            return this;
+        }
+
+        /** Appends a character repeated {@code count} times in one style. */
+        Row repeat(char c, int count, Style style) {
+            for (int i = 0; i < count && length < chars.length; i++) {
+                chars[length] = c;
+                styles[length++] = style;
+            }
+            return this;
+        }
+
+        /** Appends a number without allocating. */
+        Row append(long value, Style style) {
+            if (value < 0) {
+                append("-", style);
+                value = -value;
+            }
+            int start = length;
+            do {
+                repeat((char) ('0' + value % 10), 1, style);
+                value /= 10;
+            } while (value > 0 && length < chars.length);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                char c = chars[i];
+                chars[i] = chars[j];
+                chars[j] = c;
+            }
+            return this;
+        }
+
+        String text() {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -1,18 +1,33 @@
 package org.jquill;
 
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * A {@link PrintStream} wrapper that ensures thread-safe, style-aware output using
- * {@link Style#processLocks(StringBuilder, String, Style...)}.
- * Calls to {@link #print(String)} and {@link #println(String)} are processed through the
- * {@link Style} locking mechanism, preserving nested style sequences and preventing
- * interleaving when multiple threads emit output concurrently.
+ * A {@link PrintStream} wrapper that ensures thread-safe, style-aware output, suitable for
+ * installing with {@link System#setOut(PrintStream)}.
+ * Every write — including those made by {@code print}, {@code println}, {@code printf} and raw
+ * {@link #write(byte[], int, int)} calls — is processed by a small byte-level state machine that
+ * recognizes ANSI sequences and {@link Style#lock(String)} markers, even when they are split across
+ * write calls. Text outside locked segments is wrapped in the stream's styles; locked segments and
+ * ANSI sequences pass through unchanged. The scanner state is kept per thread, so partial sequences
+ * from different threads never mix, and output is staged in a fixed-size buffer, so memory stays
+ * bounded regardless of output volume. Writes are serialized by a {@link ReentrantLock} rather than
+ * the stream's monitor, so a {@code println} from one thread is never interleaved with output from
+ * another, and a virtual thread blocked on output unmounts instead of pinning its carrier thread.
+ * Every {@code print}, {@code println}, {@code printf} and {@code format} overload builds its complete
+ * text, including the line separator, and hands it over in a single write under that lock.
  *
  * <h2>Usage Example:</h2>
  * <pre>{@code
  * LockedPrintStream lockedOut = new LockedPrintStream(System.out);
  * lockedOut.println("styled and synchronized");
+ *
+ * System.setErr(new LockedPrintStream(System.err, Style.ERROR));
  * }</pre>
  *
  * @see Style
@@ -20,7 +35,37 @@ import java.io.PrintStream;
  */
 public final class LockedPrintStream extends PrintStream {
 
-    private final StringBuilder sb = new StringBuilder();
+    private static final int CHUNK = 8192;
+    private static final int MAX_SEQUENCE = 32;
+    private static final byte ESC = 0x1B;
+    private static final byte[] LOCK_START = Style.LOCK_START.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LOCK_END = Style.LOCK_END.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RESET = Style.RESET.bytes();
+
+    private static final int TEXT = 0;
+    private static final int ESCAPE = 1;
+    private static final int SEQUENCE = 2;
+
+    private final byte[] styleCodes;
+    private final Charset charset = Charset.defaultCharset();
+    private final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private final byte[] staging = new byte[CHUNK];
+    private int staged;
+
+    /** Per-thread scanner state carried across write calls. */
+    private static final class State {
+        final byte[] sequence = new byte[MAX_SEQUENCE];
+        int sequenceLength;
+        final byte[] character = new byte[4];
+        int characterLength;
+        int characterExpected;
+        int mode = TEXT;
+        int lockDepth;
+        boolean styled;
+    }
 
     /**
      * Constructs a new style-aware print stream that delegates to the given stream.
@@ -28,16 +73,347 @@ public final class LockedPrintStream extends PrintStream {
      * @param original the underlying stream to write to
      */
     public LockedPrintStream(PrintStream original) {
+        this(original, new Style[0]);
+    }
+
+    /**
+     * Constructs a new style-aware print stream that applies the given styles to all unlocked text.
+     *
+     * @param original the underlying stream to write to
+     * @param styles   styles applied to text outside locked segments
+     */
+    public LockedPrintStream(PrintStream original, Style... styles) {
         super(original);
+        this.styleCodes = Style.openBytes(styles);
+    }
+
+    // ------------------ Writing ------------------
+
+    @Override
+    public void write(int b) {
+        lock.lock();
+        try {
+            State state = states.get();
+            process(state, (byte) b);
+            finishChunk(state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) {
+        lock.lock();
+        try {
+            State state = states.get();
+            if (styleCodes.length == 0 && state.mode == TEXT && state.characterLength == 0 && indexOfEsc(buf, off, off + len) < 0) {
+                stage(buf, off, len);
+            } else {
+                for (int i = off, end = off + len; i < end; i++) {
+                    process(state, buf[i]);
+                }
+            }
+            finishChunk(state);
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
-    public void print(String x) {
-        super.print(Style.processLocks(sb, x));
+    public void flush() {
+        lock.lock();
+        try {
+            State state = states.get();
+            if (state.mode != TEXT) {
+                emitSequenceAsText(state);
+            }
+            emitPartialCharacter(state);
+            finishChunk(state);
+            try {
+                out.flush();
+            } catch (IOException e) {
+                setError();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void print(boolean b) {
+        writeText(String.valueOf(b), false);
+    }
+
+    @Override
+    public void print(char c) {
+        writeText(String.valueOf(c), false);
+    }
+
+    @Override
+    public void print(int i) {
+        writeText(String.valueOf(i), false);
+    }
+
+    @Override
+    public void print(long l) {
+        writeText(String.valueOf(l), false);
+    }
+
+    @Override
+    public void print(float f) {
+        writeText(String.valueOf(f), false);
+    }
+
+    @Override
+    public void print(double d) {
+        writeText(String.valueOf(d), false);
+    }
+
+    @Override
+    public void print(char[] s) {
+        writeText(new String(s), false);
+    }
+
+    @Override
+    public void print(String s) {
+        writeText(String.valueOf(s), false);
+    }
+
+    @Override
+    public void print(Object obj) {
+        writeText(String.valueOf(obj), false);
+    }
+
+    @Override
+    public void println() {
+        writeText("", true);
+    }
+
+    @Override
+    public void println(boolean x) {
+        writeText(String.valueOf(x), true);
+    }
+
+    @Override
+    public void println(char x) {
+        writeText(String.valueOf(x), true);
+    }
+
+    @Override
+    public void println(int x) {
+        writeText(String.valueOf(x), true);
+    }
+
+    @Override
+    public void println(long x) {
+        writeText(String.valueOf(x), true);
+    }
+
+    @Override
+    public void println(float x) {
+        writeText(String.valueOf(x), true);
+    }
+
+    @Override
+    public void println(double x) {
+        writeText(String.valueOf(x), true);
+    }
+
+    @Override
+    public void println(char[] x) {
+        writeText(new String(x), true);
     }
 
     @Override
     public void println(String x) {
-        super.println(Style.processLocks(sb, x));
+        writeText(String.valueOf(x), true);
+    }
+
+    @Override
+    public void println(Object x) {
+        writeText(String.valueOf(x), true);
+    }
+
+    @Override
+    public LockedPrintStream printf(String format, Object... args) {
+        return format(format, args);
+    }
+
+    @Override
+    public LockedPrintStream printf(Locale l, String format, Object... args) {
+        return format(l, format, args);
+    }
+
+    @Override
+    public LockedPrintStream format(String format, Object... args) {
+        writeText(String.format(format, args), false);
+        return this;
+    }
+
+    @Override
+    public LockedPrintStream format(Locale l, String format, Object... args) {
+        writeText(String.format(l, format, args), false);
+        return this;
+    }
+
+    /** Encodes text the way {@link PrintStream} would and writes it, with any line separator, in one call without entering the monitor. */
+    private void writeText(String text, boolean newline) {
+        byte[] bytes = (newline ? text + System.lineSeparator() : text).getBytes(charset);
+        write(bytes, 0, bytes.length);
+    }
+
+    // ------------------ State Machine ------------------
+
+    private void process(State state, byte c) {
+        switch (state.mode) {
+            case TEXT -> {
+                if (c == ESC) {
+                    emitPartialCharacter(state);
+                    state.sequence[0] = c;
+                    state.sequenceLength = 1;
+                    state.mode = ESCAPE;
+                } else {
+                    text(state, c);
+                }
+            }
+            case ESCAPE -> {
+                if (c == '[') {
+                    state.sequence[state.sequenceLength++] = c;
+                    state.mode = SEQUENCE;
+                } else {
+                    emitSequenceAsText(state);
+                    process(state, c);
+                }
+            }
+            default -> {
+                boolean parameter = (c >= '0' && c <= '9') || c == ';' || c == '?';
+                boolean finalByte = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+                if ((parameter && state.sequenceLength < MAX_SEQUENCE - 1) || finalByte) {
+                    state.sequence[state.sequenceLength++] = c;
+                    if (finalByte) sequence(state);
+                } else {
+                    emitSequenceAsText(state);
+                    process(state, c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Emits a text byte. Multi-byte UTF-8 characters are held back until complete, so a character
+     * split across write calls is never separated by a style reset.
+     */
+    private void text(State state, byte c) {
+        if ((c & 0xC0) == 0x80 && state.characterLength > 0) {
+            state.character[state.characterLength++] = c;
+            if (state.characterLength == state.characterExpected) {
+                state.characterLength = 0;
+                for (int i = 0; i < state.characterExpected; i++) textByte(state, state.character[i]);
+            }
+            return;
+        }
+        emitPartialCharacter(state);
+        if ((c & 0xC0) == 0xC0) {
+            state.character[0] = c;
+            state.characterLength = 1;
+            state.characterExpected = (c & 0xF0) == 0xF0 ? 4 : (c & 0xE0) == 0xE0 ? 3 : 2;
+        } else {
+            textByte(state, c);
+        }
+    }
+
+    /** Emits the bytes of an incomplete multi-byte character as they are. */
+    private void emitPartialCharacter(State state) {
+        int len = state.characterLength;
+        state.characterLength = 0;
+        for (int i = 0; i < len; i++) textByte(state, state.character[i]);
+    }
+
+    private void textByte(State state, byte c) {
+        if (state.lockDepth == 0 && !state.styled && styleCodes.length > 0) {
+            stage(styleCodes, 0, styleCodes.length);
+            state.styled = true;
+        }
+        if (staged == CHUNK) drain();
+        staging[staged++] = c;
+    }
+
+    private void sequence(State state) {
+        byte[] seq = state.sequence;
+        int len = state.sequenceLength;
+        state.mode = TEXT;
+        if (matches(seq, len, LOCK_START)) {
+            closeStyle(state);
+            state.lockDepth++;
+        } else if (state.lockDepth > 0) {
+            if (matches(seq, len, LOCK_END)) state.lockDepth--;
+        } else {
+            closeStyle(state);
+        }
+        stage(seq, 0, len);
+    }
+
+    private void emitSequenceAsText(State state) {
+        state.mode = TEXT;
+        for (int i = 0; i < state.sequenceLength; i++) {
+            text(state, state.sequence[i]);
+        }
+    }
+
+    private void closeStyle(State state) {
+        if (state.styled) {
+            stage(RESET, 0, RESET.length);
+            state.styled = false;
+        }
+    }
+
+    /** Ends the current write: closes any open style and pushes staged bytes to the underlying stream. */
+    private void finishChunk(State state) {
+        closeStyle(state);
+        drain();
+    }
+
+    // ------------------ Staging ------------------
+
+    private void stage(byte[] buf, int off, int len) {
+        if (len > CHUNK - staged) {
+            drain();
+            if (len > CHUNK) {
+                writeOut(buf, off, len);
+                return;
+            }
+        }
+        System.arraycopy(buf, off, staging, staged, len);
+        staged += len;
+    }
+
+    private void drain() {
+        if (staged > 0) {
+            writeOut(staging, 0, staged);
+            staged = 0;
+        }
+    }
+
+    private void writeOut(byte[] buf, int off, int len) {
+        try {
+            out.write(buf, off, len);
+        } catch (IOException e) {
+            setError();
+        }
+    }
+
+    private static int indexOfEsc(byte[] buf, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buf[i] == ESC) return i;
+        }
+        return -1;
+    }
+
+    private static boolean matches(byte[] seq, int len, byte[] token) {
+        if (len != token.length) return false;
+        for (int i = 0; i < len; i++) {
+            if (seq[i] != token[i]) return false;
+        }
+        return true;
     }
 }
@@ -0,0 +1,297 @@
+package org.jquill;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.PriorityQueue;
+
+/**
+ * Command-line collector for {@link SocketSink} output. Accepts any number of connections on a
+ * loopback TCP port or a Unix domain socket and prints what they send to standard output, merged
+ * by timestamp. Each line is held for a short window after it arrives, so lines from different
+ * processes that arrive slightly out of order are still printed in time order. A single thread
+ * serves all connections with a non-blocking {@link Selector}; text is passed through as the
+ * UTF-8 bytes the sinks encoded, without decoding.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * java -cp jquill.jar org.jquill.LogCollector [--port 5170 | --unix /tmp/jquill.sock] [--window 200] [--source]
+ * }</pre>
+ *
+ * @see SocketSink
+ */
+public final class LogCollector {
+
+    static final int DEFAULT_PORT = 5170;
+    static final long DEFAULT_WINDOW_MILLIS = 200;
+    private static final int MAX_FRAME = 64 * 1024 * 1024;
+    private static final String SEPARATOR = " | ";
+
+    private final SocketAddress address;
+    private final long windowMillis;
+    private final boolean showSource;
+    private final OutputStream out;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final PriorityQueue<Entry> pending = new PriorityQueue<>();
+    private long sequence;
+    private volatile boolean closed;
+
+    /**
+     * Binds the collector's socket.
+     *
+     * @param address      an {@link InetSocketAddress} or {@link UnixDomainSocketAddress} to listen on
+     * @param windowMillis how long lines are held for reordering
+     * @param showSource   true to prefix each line with its source name
+     * @param out          where merged output is written
+     * @throws IOException if the socket cannot be bound
+     */
+    LogCollector(SocketAddress address, long windowMillis, boolean showSource, OutputStream out) throws IOException {
+        this.address = address;
+        this.windowMillis = Math.max(0, windowMillis);
+        this.showSource = showSource;
+        this.out = out;
+        this.selector = Selector.open();
+        this.server = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX)
+                : ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Runs a collector with the options given on the command line until the process is stopped.
+     *
+     * @param args {@code [--port <port> | --unix <path>] [--window <millis>] [--source]}
+     * @throws IOException if the socket cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        SocketAddress address = null;
+        long window = DEFAULT_WINDOW_MILLIS;
+        boolean source = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port" -> address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[++i]));
+                    case "--unix" -> address = UnixDomainSocketAddress.of(args[++i]);
+                    case "--window" -> window = Long.parseLong(args[++i]);
+                    case "--source" -> source = true;
+                    default -> throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Usage: java org.jquill.LogCollector [--port <port> | --unix <path>] [--window <millis>] [--source]");
+            return;
+        }
+        if (address == null) address = new InetSocketAddress(InetAddress.getLoopbackAddress(), DEFAULT_PORT);
+        if (address instanceof UnixDomainSocketAddress unix) Files.deleteIfExists(unix.getPath());
+
+        LogCollector collector = new LogCollector(address, window, source, System.out);
+        System.err.println("JQuill: collecting on " + collector.getAddress());
+        collector.run();
+    }
+
+    /** @return the address the collector is listening on */
+    SocketAddress getAddress() {
+        try {
+            return server.getLocalAddress();
+        } catch (IOException e) {
+            return address;
+        }
+    }
+
+    // ------------------ Event Loop ------------------
+
+    /** Serves connections until {@link #close()} is called. */
+    void run() throws IOException {
+        try {
+            while (!closed) {
+                long timeout = 0;
+                if (!pending.isEmpty()) timeout = Math.max(1, pending.peek().arrived + windowMillis - System.currentTimeMillis());
+                selector.select(timeout);
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read(key);
+                    }
+                }
+                selector.selectedKeys().clear();
+                release(System.currentTimeMillis() - windowMillis);
+            }
+            release(Long.MAX_VALUE);
+        } finally {
+            for (SelectionKey key : selector.keys()) key.channel().close();
+            selector.close();
+            if (address instanceof UnixDomainSocketAddress unix) Files.deleteIfExists(unix.getPath());
+        }
+    }
+
+    /** Makes {@link #run()} print what it holds, close every connection and return. */
+    void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Connection());
+        }
+    }
+
+    private void read(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        try {
+            int n = channel.read(connection.in);
+            if (n < 0) {
+                drop(key, connection, null);
+                return;
+            }
+            connection.in.flip();
+            try {
+                parse(connection);
+            } finally {
+                connection.in.compact();
+            }
+        } catch (IOException e) {
+            drop(key, connection, e);
+        }
+    }
+
+    private void drop(SelectionKey key, Connection connection, IOException e) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // already gone
+        }
+        if (connection.source != null) {
+            System.err.println("JQuill: " + connection.source + " disconnected" + (e != null ? ": " + e.getMessage() : ""));
+        }
+    }
+
+    // ------------------ Protocol ------------------
+
+    /** Consumes the hello and every complete frame in the connection's buffer. */
+    private void parse(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        if (connection.source == null) {
+            if (in.remaining() < 8) return;
+            if (in.getInt(in.position()) != SocketSink.MAGIC || in.getShort(in.position() + 4) != SocketSink.VERSION) {
+                throw new IOException("Not a JQuill socket sink");
+            }
+            int nameLength = in.getShort(in.position() + 6) & 0xFFFF;
+            if (in.remaining() < 8 + nameLength) return;
+            byte[] name = new byte[nameLength];
+            in.position(in.position() + 8).get(name);
+            connection.source = new String(name, StandardCharsets.UTF_8);
+            connection.prefix = (connection.source + SEPARATOR).getBytes(StandardCharsets.UTF_8);
+            System.err.println("JQuill: " + connection.source + " connected");
+        }
+
+        long arrived = System.currentTimeMillis();
+        while (in.remaining() >= SocketSink.FRAME_HEADER) {
+            int length = in.getInt(in.position());
+            if (length < 0 || length > MAX_FRAME) throw new IOException("Invalid frame length " + length);
+            if (in.remaining() < SocketSink.FRAME_HEADER + length) {
+                connection.ensureCapacity(SocketSink.FRAME_HEADER + length);
+                return;
+            }
+            in.position(in.position() + SocketSink.FRAME_HEADER);
+            int end = in.position() + length;
+            while (in.position() < end) {
+                long time = in.getLong();
+                int size = in.getInt();
+                if (size < 0 || size > end - in.position()) throw new IOException("Invalid record length " + size);
+                byte[] text = new byte[size];
+                in.get(text);
+                pending.add(new Entry(time, arrived, sequence++, connection.prefix, text));
+            }
+        }
+    }
+
+    // ------------------ Output ------------------
+
+    /** Writes every held line that arrived at or before the cutoff, in timestamp order. */
+    private void release(long cutoff) throws IOException {
+        boolean wrote = false;
+        while (!pending.isEmpty() && pending.peek().arrived <= cutoff) {
+            Entry entry = pending.poll();
+            if (showSource) {
+                writePrefixed(entry.prefix, entry.text);
+            } else {
+                out.write(entry.text);
+            }
+            wrote = true;
+        }
+        if (wrote) out.flush();
+    }
+
+    /** Writes text with the source prefix at the start of each line. */
+    private void writePrefixed(byte[] prefix, byte[] text) throws IOException {
+        int start = 0;
+        while (start < text.length) {
+            int end = start;
+            while (end < text.length && text[end] != '\n') end++;
+            if (end < text.length) end++;
+            out.write(prefix);
+            out.write(text, start, end - start);
+            start = end;
+        }
+    }
+
+    /** Reading state of one sink's connection. */
+    private static final class Connection {
+        ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        String source;
+        byte[] prefix;
+
+        /** Grows the buffer, which is in read mode, so a frame of the given size fits. */
+        void ensureCapacity(int size) {
+            if (in.capacity() >= size) return;
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(size, in.capacity() * 2));
+            larger.put(in);
+            // Leave the copy in read mode so the caller's compact() keeps working
+            in = larger.flip();
+        }
+    }
+
+    /** One received write, ordered by timestamp and then by arrival. */
+    private static final class Entry implements Comparable<Entry> {
+        final long time;
+        final long arrived;
+        final long sequence;
+        final byte[] prefix;
+        final byte[] text;
+
+        Entry(long time, long arrived, long sequence, byte[] prefix, byte[] text) {
+            this.time = time;
+            this.arrived = arrived;
+            this.sequence = sequence;
+            this.prefix = prefix;
+            this.text = text;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.jquill;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line decoder for {@link BinaryLog} segments.
+ * Renders each record into the same styled text {@link Debug} would have printed, or into plain
+ * text with all ANSI sequences removed. Segments are decoded in the order given.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * java -cp jquill.jar org.jquill.LogDecoder [--plain] logs/app-000001.jqb logs/app-000002.jqb
+ * }</pre>
+ *
+ * @see BinaryLog
+ */
+public final class LogDecoder {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final boolean plain;
+    private final Map<Integer, String> templates = new HashMap<>();
+    private final Map<Long, String> threads = new HashMap<>();
+    private final Map<Integer, String> loggers = new HashMap<>();
+    private final Map<String, TimestampRenderer> formats = new HashMap<>();
+    private final StringBuilder line = new StringBuilder(256);
+
+    private long baseMillis;
+    private long baseNanos;
+    private long originNanos;
+    private ZoneId zone;
+    private TimestampRenderer format;
+
+    /**
+     * Creates a decoder.
+     *
+     * @param plain true to strip all styling from the output
+     */
+    public LogDecoder(boolean plain) {
+        this.plain = plain;
+    }
+
+    /**
+     * Decodes the segments named on the command line to standard output.
+     *
+     * @param args {@code [--plain] <segment>...}
+     * @throws IOException if a segment cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        boolean plain = false;
+        List<Path> segments = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--plain")) {
+                plain = true;
+            } else {
+                segments.add(Path.of(arg));
+            }
+        }
+        if (segments.isEmpty()) {
+            System.err.println("Usage: java org.jquill.LogDecoder [--plain] <segment.jqb>...");
+            return;
+        }
+
+        LogDecoder decoder = new LogDecoder(plain);
+        PrintStream out = System.out;
+        for (Path segment : segments) {
+            decoder.decode(segment, out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Decodes one segment.
+     *
+     * @param segment the segment file
+     * @param out     where to write the rendered text
+     * @throws IOException if the segment cannot be read or is not a binary log segment
+     */
+    public void decode(Path segment, Appendable out) throws IOException {
+        ByteBuffer buf;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buf.remaining() < 6 || buf.getInt() != BinaryLog.MAGIC || buf.getShort() != BinaryLog.VERSION) {
+            throw new IOException("Not a JQuill binary log segment: " + segment);
+        }
+
+        baseMillis = buf.getLong();
+        baseNanos = buf.getLong();
+        originNanos = buf.getLong();
+        zone = ZoneId.of(getString(buf));
+        templates.clear();
+        threads.clear();
+        loggers.clear();
+        format = null;
+
+        while (buf.hasRemaining()) {
+            byte type = buf.get();
+            switch (type) {
+                case BinaryLog.END -> {
+                    return;
+                }
+                case BinaryLog.TEMPLATE -> templates.put(buf.getInt(), getString(buf));
+                case BinaryLog.THREAD -> threads.put(buf.getLong(), getString(buf));
+                case BinaryLog.LOGGER -> loggers.put(buf.getInt(), getString(buf));
+                case BinaryLog.FORMAT -> format = formats.computeIfAbsent(getString(buf), TimestampRenderer::new);
+                case BinaryLog.EVENT -> renderEvent(buf, out);
+                case BinaryLog.RAW -> renderRaw(buf, out);
+                default -> throw new IOException("Corrupt record type " + type + " at offset "
+                        + (buf.position() - 1) + " in " + segment);
+            }
+        }
+    }
+
+    private void renderEvent(ByteBuffer buf, Appendable out) throws IOException {
+        int code = buf.get();
+        if (code < 0 || code >= Level.COUNT) {
+            throw new IOException("Corrupt level " + code + " at offset " + (buf.position() - 1));
+        }
+        Level level = Level.ofIndex(code);
+        int flags = buf.get();
+        long nanos = buf.getLong();
+        long threadId = buf.getLong();
+        int templateId = buf.getInt();
+        int loggerId = buf.getInt();
+        int argc = buf.get();
+        Object a1 = argc > 0 ? getArg(buf) : null;
+        Object a2 = argc > 1 ? getArg(buf) : null;
+        Object a3 = argc > 2 ? getArg(buf) : null;
+
+        line.setLength(0);
+        String threadName = (flags & BinaryLog.FLAG_SHOW_THREAD) != 0 ? threads.getOrDefault(threadId, "#" + threadId) : null;
+        Debug.appendPrefix(line, threadName, level, (flags & BinaryLog.FLAG_SHOW_TYPE) != 0);
+
+        TimeMode mode = TimeMode.values()[flags >>> BinaryLog.TIME_MODE_SHIFT & 0x3];
+        if (mode == TimeMode.ABSOLUTE && format != null) {
+            format.appendAbsolute(line, baseMillis + Math.floorDiv(nanos - baseNanos, 1_000_000L), zone);
+        } else if (mode == TimeMode.ELAPSED) {
+            TimestampRenderer.appendElapsed(line, nanos - originNanos);
+        }
+        if (loggerId != BinaryLog.NO_LOGGER) {
+            line.append('[').append(loggers.getOrDefault(loggerId, "#" + loggerId)).append("] ");
+        }
+
+        if (templateId == BinaryLog.LITERAL_TEMPLATE) {
+            MessageFormatter.append(line, String.valueOf(a1), MessageFormatter.LITERAL, null, null, null);
+        } else {
+            MessageFormatter.append(line, templates.get(templateId), argc, a1, a2, a3);
+        }
+
+        StringBuilder rendered = new StringBuilder(line.length() + 32);
+        if (plain) {
+            Style.strip(rendered, line, 0, line.length());
+        } else {
+            Style.processLocks(rendered, line, 0, line.length(), level.style);
+        }
+        out.append(rendered).append(LINE_SEPARATOR);
+    }
+
+    private void renderRaw(ByteBuffer buf, Appendable out) throws IOException {
+        int flags = buf.get();
+        buf.getLong();
+        String text = getString(buf);
+        if (plain) {
+            line.setLength(0);
+            out.append(Style.strip(line, text, 0, text.length()));
+        } else {
+            out.append(text);
+        }
+        if ((flags & BinaryLog.FLAG_NEWLINE) != 0) out.append(LINE_SEPARATOR);
+    }
+
+    private static Object getArg(ByteBuffer buf) throws IOException {
+        byte tag = buf.get();
+        return switch (tag) {
+            case BinaryLog.ARG_NULL -> null;
+            case BinaryLog.ARG_STRING -> getString(buf);
+            case BinaryLog.ARG_INT -> buf.getInt();
+            case BinaryLog.ARG_LONG -> buf.getLong();
+            case BinaryLog.ARG_DOUBLE -> buf.getDouble();
+            case BinaryLog.ARG_FLOAT -> buf.getFloat();
+            case BinaryLog.ARG_BOOLEAN -> buf.get() != 0;
+            case BinaryLog.ARG_CHAR -> buf.getChar();
+            default -> throw new IOException("Corrupt argument tag " + tag + " at offset " + (buf.position() - 1));
+        };
+    }
+
+    private static String getString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getInt()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,635 @@
+package org.jquill;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A named source of {@link Debug} output with its own level.
+ * Loggers are obtained with {@link Debug#logger(String)} and share every other setting — sink,
+ * time mode, thread display — with {@link Debug}. Names form a dotted hierarchy: a logger without
+ * a level of its own inherits the level of its closest configured ancestor ({@code db.pool} inherits
+ * from {@code db}), and ultimately the global level set with {@link Debug#setLevel(Level)}.
+ * <p>
+ * The effective level is resolved once and cached on the logger as a filter mask, together with
+ * the enabled {@link Category categories}; every level or category change re-resolves all loggers
+ * in bulk. Checking whether a message is enabled is therefore a single field read,
+ * however deep the hierarchy is.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Logger pool = Debug.logger("db.pool");
+ * Debug.setLevel("db", Level.WARN);   // quiet the whole db subsystem
+ *
+ * pool.info("Acquired connection {}", id);   // filtered
+ * pool.warn("Pool exhausted");                // printed as "... [db.pool] Pool exhausted"
+ * }</pre>
+ *
+ * @see Debug#logger(String)
+ * @see Debug#setLevel(String, Level)
+ */
+public final class Logger {
+
+    /** Name of the logger that receives bridged output from unnamed and root loggers. */
+    static final String ROOT_NAME = "root";
+
+    /**
+     * Level of a bridged logger without a configured level, matching the default of
+     * {@code java.util.logging}; the JDK's own debug output stays quiet unless asked for.
+     */
+    static final Level BRIDGED_DEFAULT = Level.INFO;
+
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    // Guarded by LEVELS
+    private static final Map<String, Level> LEVELS = new HashMap<>();
+
+    private final String name;
+    private final int id;
+    private final String prefix;
+    private volatile int mask;
+    // Written under LEVELS; set once the logger receives output from another logging API
+    private volatile boolean bridged;
+
+    private Logger(String name) {
+        this.name = name;
+        this.id = NEXT_ID.getAndIncrement();
+        this.prefix = "[" + name + "] ";
+        this.mask = resolveMask(name, false);
+    }
+
+    // ------------------ Registry ------------------
+
+    /** Returns the logger with the given name, creating it on first use. */
+    static Logger get(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Logger name must not be empty");
+        }
+        Logger logger = LOGGERS.get(name);
+        if (logger != null) return logger;
+        synchronized (LEVELS) {
+            return LOGGERS.computeIfAbsent(name, Logger::new);
+        }
+    }
+
+    /**
+     * Returns the logger for a name coming from another logging API, where the root logger has an
+     * empty name and anonymous loggers have none. Without a configured level of its own or of an
+     * ancestor, such a logger filters by {@link #BRIDGED_DEFAULT} or the global level, whichever is
+     * stricter.
+     */
+    static Logger bridged(String name) {
+        Logger logger = get(name == null || name.isBlank() ? ROOT_NAME : name);
+        if (!logger.bridged) {
+            synchronized (LEVELS) {
+                logger.bridged = true;
+                logger.mask = resolveMask(logger.name, true);
+            }
+        }
+        return logger;
+    }
+
+    /** Sets or, with a null level, clears the level of a name and re-resolves every logger. */
+    static void setLevel(String name, Level level) {
+        synchronized (LEVELS) {
+            if (level != null) {
+                LEVELS.put(name, level);
+            } else {
+                LEVELS.remove(name);
+            }
+            refreshAll();
+        }
+    }
+
+    /** Sets or clears the levels of several names at once and re-resolves every logger once. */
+    static void setLevels(Map<String, Level> levels) {
+        synchronized (LEVELS) {
+            levels.forEach((name, level) -> {
+                if (level != null) {
+                    LEVELS.put(name, level);
+                } else {
+                    LEVELS.remove(name);
+                }
+            });
+            refreshAll();
+        }
+    }
+
+    /** Returns the level a logger with the given name would use. */
+    static Level effectiveLevel(String name) {
+        Logger logger = LOGGERS.get(name);
+        synchronized (LEVELS) {
+            Level level = resolve(name);
+            return level != null ? level : defaultLevel(logger != null && logger.bridged);
+        }
+    }
+
+    /** Re-resolves the cached level of every logger, e.g. after the global level changed. */
+    static void refreshAll() {
+        synchronized (LEVELS) {
+            for (Logger logger : LOGGERS.values()) {
+                logger.mask = resolveMask(logger.name, logger.bridged);
+            }
+        }
+    }
+
+    /** Walks up the dotted hierarchy to the closest configured level, or null for the global one. Requires LEVELS. */
+    private static Level resolve(String name) {
+        String current = name;
+        while (true) {
+            Level level = LEVELS.get(current);
+            if (level != null) return level;
+            int dot = current.lastIndexOf('.');
+            if (dot < 0) return null;
+            current = current.substring(0, dot);
+        }
+    }
+
+    /** Returns the level of a logger without a configured one: the global level, raised to {@link #BRIDGED_DEFAULT} if bridged. */
+    private static Level defaultLevel(boolean bridged) {
+        Level global = Debug.getLevel();
+        return bridged && global.getPriority() < BRIDGED_DEFAULT.getPriority() ? BRIDGED_DEFAULT : global;
+    }
+
+    /** Computes the filter mask for a name: its resolved level bits plus all enabled categories. Requires LEVELS. */
+    private static int resolveMask(String name, boolean bridged) {
+        Level level = resolve(name);
+        int levels = level != null ? level.andAbove() : Debug.levelMask();
+        if (level == null && bridged) levels &= BRIDGED_DEFAULT.andAbove();
+        return levels | Debug.categoryMask();
+    }
+
+    // ------------------ Accessors ------------------
+
+    /**
+     * Returns the name of this logger.
+     *
+     * @return the dotted logger name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the level this logger currently filters by, whether set directly or inherited.
+     *
+     * @return the effective level
+     */
+    public Level getLevel() {
+        return effectiveLevel(name);
+    }
+
+    /**
+     * Returns whether messages of the given level would currently be printed by this logger.
+     *
+     * @param level the level to check
+     * @return true if such messages pass this logger's level
+     */
+    public boolean isEnabled(Level level) {
+        return (mask & level.bit) != 0;
+    }
+
+    /** @return the id identifying this logger in a {@link BinaryLog} */
+    int id() {
+        return id;
+    }
+
+    /** @return the {@code [name] } text printed before each message */
+    String prefix() {
+        return prefix;
+    }
+
+    @Override
+    public String toString() {
+        return "Logger[" + name + "]";
+    }
+
+    // ------------------ Output ------------------
+
+    private void print(Level level, String pattern, int argc, Object a1, Object a2, Object a3) {
+        if ((mask & level.bit) == 0) {
+            Debug.filtered(this, level, pattern, argc, a1, a2, a3);
+            return;
+        }
+        Debug.write(Debug.config(), this, level, null, pattern, argc, a1, a2, a3);
+    }
+
+    /**
+     * Logs a message from another logging API. It is only localized and formatted once it passes
+     * the filter; a filtered message reaches the flight recorder raw.
+     *
+     * @see MessageFormatter#BRIDGED
+     */
+    void logBridged(Level level, ResourceBundle bundle, String pattern, Object[] params, Throwable thrown) {
+        print(level, pattern, MessageFormatter.BRIDGED, thrown, params, bundle);
+    }
+
+    private void print(Level level, Category category, String pattern, int argc, Object a1, Object a2, Object a3) {
+        if ((mask & (level.bit | (category != null ? category.bit : 0))) == 0) {
+            Debug.filtered(this, level, pattern, argc, a1, a2, a3);
+            return;
+        }
+        Debug.write(Debug.config(), this, level, null, pattern, argc, a1, a2, a3);
+    }
+
+    /** Logs a trace message.
+     *
+     * @param msg      the message to log
+     */
+    public void trace(String msg) {
+        print(Level.TRACE, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Logs a trace message followed by the stack trace of an exception. A trace identical to one printed
+     * before is shortened to a reference to it; see {@link Debug#setStackTraceCacheSize(int)}.
+     *
+     * @param msg      the message to log; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is printed
+     */
+    public void trace(String msg, Throwable thrown) {
+        print(Level.TRACE, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Logs a trace message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public void trace(Supplier<String> msg) {
+        print(Level.TRACE, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a trace message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void trace(String pattern, Object a1) {
+        print(Level.TRACE, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a trace message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void trace(String pattern, Object a1, Object a2) {
+        print(Level.TRACE, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a trace message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void trace(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.TRACE, pattern, 3, a1, a2, a3);
+    }
+
+    /** Logs an informational message.
+     *
+     * @param msg      the message to log
+     */
+    public void info(String msg) {
+        print(Level.INFO, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Logs an informational message followed by the stack trace of an exception. A trace identical to one printed
+     * before is shortened to a reference to it; see {@link Debug#setStackTraceCacheSize(int)}.
+     *
+     * @param msg      the message to log; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is printed
+     */
+    public void info(String msg, Throwable thrown) {
+        print(Level.INFO, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Logs an informational message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public void info(Supplier<String> msg) {
+        print(Level.INFO, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs an informational message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void info(String pattern, Object a1) {
+        print(Level.INFO, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs an informational message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void info(String pattern, Object a1, Object a2) {
+        print(Level.INFO, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs an informational message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void info(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.INFO, pattern, 3, a1, a2, a3);
+    }
+
+    /** Logs a general log message.
+     *
+     * @param msg      the message to log
+     */
+    public void log(String msg) {
+        print(Level.DEBUG, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Logs a general log message followed by the stack trace of an exception. A trace identical to one printed
+     * before is shortened to a reference to it; see {@link Debug#setStackTraceCacheSize(int)}.
+     *
+     * @param msg      the message to log; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is printed
+     */
+    public void log(String msg, Throwable thrown) {
+        print(Level.DEBUG, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Logs a general log message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public void log(Supplier<String> msg) {
+        print(Level.DEBUG, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a general log message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void log(String pattern, Object a1) {
+        print(Level.DEBUG, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a general log message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void log(String pattern, Object a1, Object a2) {
+        print(Level.DEBUG, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a general log message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void log(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.DEBUG, pattern, 3, a1, a2, a3);
+    }
+
+    /** Logs a warning message.
+     *
+     * @param msg      the message to log
+     */
+    public void warn(String msg) {
+        print(Level.WARN, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Logs a warning message followed by the stack trace of an exception. A trace identical to one printed
+     * before is shortened to a reference to it; see {@link Debug#setStackTraceCacheSize(int)}.
+     *
+     * @param msg      the message to log; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is printed
+     */
+    public void warn(String msg, Throwable thrown) {
+        print(Level.WARN, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Logs a warning message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public void warn(Supplier<String> msg) {
+        print(Level.WARN, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a warning message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void warn(String pattern, Object a1) {
+        print(Level.WARN, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a warning message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void warn(String pattern, Object a1, Object a2) {
+        print(Level.WARN, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a warning message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void warn(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.WARN, pattern, 3, a1, a2, a3);
+    }
+
+    /** Logs an error message.
+     *
+     * @param msg      the message to log
+     */
+    public void error(String msg) {
+        print(Level.ERROR, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Logs an error message followed by the stack trace of an exception. A trace identical to one printed
+     * before is shortened to a reference to it; see {@link Debug#setStackTraceCacheSize(int)}.
+     *
+     * @param msg      the message to log; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is printed
+     */
+    public void error(String msg, Throwable thrown) {
+        print(Level.ERROR, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Logs an error message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public void error(Supplier<String> msg) {
+        print(Level.ERROR, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs an error message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void error(String pattern, Object a1) {
+        print(Level.ERROR, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs an error message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void error(String pattern, Object a1, Object a2) {
+        print(Level.ERROR, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs an error message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void error(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.ERROR, pattern, 3, a1, a2, a3);
+    }
+
+    /** Logs a success message.
+     *
+     * @param msg      the message to log
+     */
+    public void success(String msg) {
+        print(Level.SUCCESS, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Logs a success message followed by the stack trace of an exception. A trace identical to one printed
+     * before is shortened to a reference to it; see {@link Debug#setStackTraceCacheSize(int)}.
+     *
+     * @param msg      the message to log; a <code>{}</code> in it is replaced by the exception
+     * @param thrown   the exception whose stack trace is printed
+     */
+    public void success(String msg, Throwable thrown) {
+        print(Level.SUCCESS, msg, MessageFormatter.THROWN, thrown, null, null);
+    }
+
+    /** Logs a success message produced by a supplier. The supplier is only invoked if the message passes the level filter.
+     *
+     * @param msg      supplies the message to log
+     */
+    public void success(Supplier<String> msg) {
+        print(Level.SUCCESS, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a success message, replacing the <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void success(String pattern, Object a1) {
+        print(Level.SUCCESS, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a success message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void success(String pattern, Object a1, Object a2) {
+        print(Level.SUCCESS, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a success message, replacing <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void success(String pattern, Object a1, Object a2, Object a3) {
+        print(Level.SUCCESS, pattern, 3, a1, a2, a3);
+    }
+
+    /** Logs a message at the given level, optionally tagged with a category.
+     * The message is printed if its level or its category is enabled for this logger.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param msg      the message to log
+     */
+    public void log(Level level, Category category, String msg) {
+        print(level, category, msg, MessageFormatter.LITERAL, null, null, null);
+    }
+
+    /** Logs a message produced by a supplier at the given level, optionally tagged with a category.
+     * The supplier is only invoked if the message passes the filter.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param msg      supplies the message to log
+     */
+    public void log(Level level, Category category, Supplier<String> msg) {
+        print(level, category, null, MessageFormatter.SUPPLIED, msg, null, null);
+    }
+
+    /** Logs a message at the given level, optionally tagged with a category, replacing the
+     * <code>{}</code> placeholder in the pattern with the argument.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param pattern  the message template
+     * @param a1       the argument
+     */
+    public void log(Level level, Category category, String pattern, Object a1) {
+        print(level, category, pattern, MessageFormatter.single(a1), a1, null, null);
+    }
+
+    /** Logs a message at the given level, optionally tagged with a category, replacing
+     * <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     */
+    public void log(Level level, Category category, String pattern, Object a1, Object a2) {
+        print(level, category, pattern, 2, a1, a2, null);
+    }
+
+    /** Logs a message at the given level, optionally tagged with a category, replacing
+     * <code>{}</code> placeholders in the pattern with the arguments.
+     *
+     * @param level    the message level
+     * @param category the category to tag the message with, or null
+     * @param pattern  the message template
+     * @param a1       the first argument
+     * @param a2       the second argument
+     * @param a3       the third argument
+     */
+    public void log(Level level, Category category, String pattern, Object a1, Object a2, Object a3) {
+        print(level, category, pattern, 3, a1, a2, a3);
+    }
+}
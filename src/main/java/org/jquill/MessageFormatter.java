@@ -0,0 +1,161 @@
+package org.jquill;
+
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.function.Supplier;
+
+/**
+ * Expands message templates for {@link Debug}'s lazy and parameterized overloads.
+ * Each <code>{}</code> in a template is replaced by the next argument, in order. A placeholder
+ * preceded by a backslash (<code>\{}</code>) is emitted literally. Surplus arguments are ignored
+ * and surplus placeholders are left as they are.
+ * Output is appended directly to the caller's {@link StringBuilder}; primitive wrappers and
+ * character sequences are appended without an intermediate {@link String}.
+ *
+ * @see Debug
+ */
+final class MessageFormatter {
+
+    /** The template is a plain message and is appended verbatim. */
+    static final int LITERAL = -1;
+
+    /** The first argument is a {@link Supplier} producing the message. */
+    static final int SUPPLIED = -2;
+
+    /**
+     * The first argument is a {@link Throwable} whose trace follows the message. A <code>{}</code> in
+     * the template is replaced by the throwable, as it was before the throwable overloads existed.
+     */
+    static final int THROWN = -3;
+
+    /**
+     * A message from another logging API, formatted only when it is printed: the template is a
+     * {@link MessageFormat} pattern, or its key in the {@link ResourceBundle} given as the third
+     * argument; the second argument holds its parameters, and the first an optional {@link Throwable}
+     * whose trace follows the message.
+     */
+    static final int BRIDGED = -4;
+
+    private MessageFormatter() {
+        // Utility class — prevent instantiation
+    }
+
+    /**
+     * Appends a message to the builder.
+     *
+     * @param sb      the builder to append to
+     * @param pattern the message or template
+     * @param argc    number of arguments in {@code a1..a3}, or {@link #LITERAL} / {@link #SUPPLIED} / {@link #THROWN} / {@link #BRIDGED}
+     * @param a1      first argument
+     * @param a2      second argument
+     * @param a3      third argument
+     */
+    static void append(StringBuilder sb, String pattern, int argc, Object a1, Object a2, Object a3) {
+        switch (argc) {
+            case LITERAL -> sb.append(pattern);
+            case SUPPLIED -> sb.append(((Supplier<?>) a1).get());
+            case THROWN -> format(sb, pattern, 1, a1, null, null);
+            case BRIDGED -> sb.append(formatBridged(pattern, (Object[]) a2, (ResourceBundle) a3));
+            default -> format(sb, pattern, argc, a1, a2, a3);
+        }
+    }
+
+    /** @return the argument count for a single-argument template: {@link #THROWN} for a {@link Throwable}, otherwise 1 */
+    static int single(Object a1) {
+        return a1 instanceof Throwable ? THROWN : 1;
+    }
+
+    /** @return whether the first argument of a message is a {@link Throwable}, or null, to print a trace for */
+    static boolean hasThrown(int argc) {
+        return argc == THROWN || argc == BRIDGED;
+    }
+
+    /**
+     * Localizes and formats a message from another logging API the way
+     * {@link java.util.logging.Formatter#formatMessage} does, without that method's lock.
+     */
+    static String formatBridged(String pattern, Object[] params, ResourceBundle bundle) {
+        String msg = localize(bundle, pattern);
+        if (msg == null || params == null || params.length == 0) return msg;
+        if (msg.indexOf("{0") < 0 && msg.indexOf("{1") < 0 && msg.indexOf("{2") < 0 && msg.indexOf("{3") < 0) return msg;
+        try {
+            return MessageFormat.format(msg, params);
+        } catch (IllegalArgumentException e) {
+            // Not a valid MessageFormat pattern; print it as it is
+            return msg;
+        }
+    }
+
+    private static String localize(ResourceBundle bundle, String key) {
+        if (bundle == null || key == null) return key;
+        try {
+            return bundle.getString(key);
+        } catch (MissingResourceException e) {
+            return key;
+        }
+    }
+
+    /** @return whether the template contains a <code>{}</code> placeholder that is not escaped */
+    static boolean hasPlaceholder(String pattern) {
+        if (pattern == null) return false;
+        for (int i = pattern.indexOf("{}"); i >= 0; i = pattern.indexOf("{}", i + 2)) {
+            if (i == 0 || pattern.charAt(i - 1) != '\\') return true;
+        }
+        return false;
+    }
+
+    private static void format(StringBuilder sb, String pattern, int argc, Object a1, Object a2, Object a3) {
+        if (pattern == null) {
+            sb.append((String) null);
+            return;
+        }
+        int len = pattern.length();
+        int start = 0;
+        int used = 0;
+        for (int i = 0; i < len - 1; i++) {
+            if (pattern.charAt(i) != '{' || pattern.charAt(i + 1) != '}') continue;
+
+            if (i > 0 && pattern.charAt(i - 1) == '\\') {
+                sb.append(pattern, start, i - 1).append("{}");
+            } else if (used < argc) {
+                sb.append(pattern, start, i);
+                appendArg(sb, used == 0 ? a1 : used == 1 ? a2 : a3);
+                used++;
+            } else {
+                sb.append(pattern, start, i + 2);
+            }
+            start = i + 2;
+            i++;
+        }
+        sb.append(pattern, start, len);
+    }
+
+    private static void appendArg(StringBuilder sb, Object arg) {
+        if (arg == null) {
+            sb.append("null");
+        } else if (arg instanceof CharSequence cs) {
+            sb.append(cs);
+        } else if (arg instanceof Integer i) {
+            sb.append(i.intValue());
+        } else if (arg instanceof Long l) {
+            sb.append(l.longValue());
+        } else if (arg instanceof Boolean b) {
+            sb.append(b.booleanValue());
+        } else if (arg instanceof Character c) {
+            sb.append(c.charValue());
+        } else if (arg instanceof Double d) {
+            sb.append(d.doubleValue());
+        } else if (arg instanceof Float f) {
+            sb.append(f.floatValue());
+        } else if (arg instanceof Object[] array) {
+            sb.append(Arrays.deepToString(array));
+        } else if (arg.getClass().isArray()) {
+            String wrapped = Arrays.deepToString(new Object[]{arg});
+            sb.append(wrapped, 1, wrapped.length() - 1);
+        } else {
+            sb.append(arg);
+        }
+    }
+}
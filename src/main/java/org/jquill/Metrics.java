@@ -0,0 +1,111 @@
+package org.jquill;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The live counters behind {@link JQuillMetrics}. Every counter is a {@link LongAdder} or a
+ * {@link LatencyHistogram}, so recording never contends between threads. All recording is skipped
+ * while metrics are disabled, which leaves a single volatile read on the instrumented paths.
+ *
+ * @see Debug#setMetricsEnabled(boolean)
+ */
+final class Metrics {
+
+    static volatile boolean enabled;
+
+    private Metrics() {
+        // Utility class — prevent instantiation
+    }
+
+    /** The counters, created the first time anything is recorded or read rather than at startup. */
+    private static final class Counters {
+        static final LongAdder[] EMITTED = adders(Level.COUNT);
+        static final LongAdder[] FILTERED = adders(Level.COUNT);
+        // Keyed by name, so a sink that has been replaced and closed is not kept reachable
+        static final Map<String, LongAdder> SINK_BYTES = new ConcurrentHashMap<>();
+        static volatile SinkBytes lastSink;
+        static final LongAdder LOCK_WAIT_NANOS = new LongAdder();
+        static final LongAdder LOCK_ACQUISITIONS = new LongAdder();
+        static final LatencyHistogram WRITE_LATENCY = new LatencyHistogram();
+
+        private static LongAdder[] adders(int n) {
+            LongAdder[] adders = new LongAdder[n];
+            for (int i = 0; i < n; i++) adders[i] = new LongAdder();
+            return adders;
+        }
+    }
+
+    /** The byte count of the sink written to last, so steady writes to one sink skip building its name. */
+    private record SinkBytes(Sink sink, LongAdder bytes) {
+    }
+
+    // ------------------ Recording ------------------
+
+    /** Counts a message that was printed or recorded. */
+    static void emitted(Level level) {
+        Counters.EMITTED[level.index].increment();
+    }
+
+    /** Counts a message removed by the level filter or by throttling. */
+    static void filtered(Level level) {
+        Counters.FILTERED[level.index].increment();
+    }
+
+    /** Writes text to a sink, recording its size and the time the write took. */
+    static void write(Sink sink, CharSequence text) {
+        if (!enabled) {
+            sink.write(text);
+            return;
+        }
+        long start = System.nanoTime();
+        sink.write(text);
+        Counters.WRITE_LATENCY.record(System.nanoTime() - start);
+        countBytes(sink, text);
+    }
+
+    /** Adds the UTF-8 size of text to a sink's byte count. */
+    static void countBytes(Sink sink, CharSequence text) {
+        SinkBytes last = Counters.lastSink;
+        if (last == null || last.sink != sink) {
+            last = new SinkBytes(sink, Counters.SINK_BYTES.computeIfAbsent(String.valueOf(sink), name -> new LongAdder()));
+            Counters.lastSink = last;
+        }
+        last.bytes.add(Utf8.length(text));
+    }
+
+    /** Records the time spent waiting for an output lock. */
+    static void lockWait(long nanos) {
+        Counters.LOCK_WAIT_NANOS.add(nanos);
+        Counters.LOCK_ACQUISITIONS.increment();
+    }
+
+    // ------------------ Reading ------------------
+
+    static JQuillMetrics snapshot() {
+        long[] emitted = new long[Level.COUNT];
+        long[] filtered = new long[Level.COUNT];
+        for (int i = 0; i < Level.COUNT; i++) {
+            emitted[i] = Counters.EMITTED[i].sum();
+            filtered[i] = Counters.FILTERED[i].sum();
+        }
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        Counters.SINK_BYTES.forEach((name, adder) -> bytes.put(name, adder.sum()));
+        return new JQuillMetrics(emitted, filtered, bytes, Counters.LOCK_WAIT_NANOS.sum(), Counters.LOCK_ACQUISITIONS.sum(),
+                Counters.WRITE_LATENCY.snapshot());
+    }
+
+    static void reset() {
+        for (int i = 0; i < Level.COUNT; i++) {
+            Counters.EMITTED[i].reset();
+            Counters.FILTERED[i].reset();
+        }
+        Counters.SINK_BYTES.clear();
+        Counters.lastSink = null;
+        Counters.LOCK_WAIT_NANOS.reset();
+        Counters.LOCK_ACQUISITIONS.reset();
+        Counters.WRITE_LATENCY.reset();
+    }
+}
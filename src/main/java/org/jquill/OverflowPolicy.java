@@ -0,0 +1,34 @@
+package org.jquill;
+
+/**
+ * Defines what happens when a message is published while the asynchronous output buffer is full.
+ * Only relevant once asynchronous output has been enabled with {@link Debug#setAsync(boolean)}.
+ *
+ * <ul>
+ *   <li>{@link #BLOCK} — the calling thread waits until the writer has made room.</li>
+ *   <li>{@link #DROP_NEWEST} — the message being published is discarded.</li>
+ *   <li>{@link #DROP_LOWEST_LEVEL} — messages below {@link Level#WARN} are discarded, higher levels wait for room.</li>
+ * </ul>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * Debug.setOverflowPolicy(OverflowPolicy.DROP_LOWEST_LEVEL);
+ * Debug.setAsync(true);
+ *
+ * Debug.info("May be dropped under heavy load");
+ * Debug.error("Always delivered");
+ * }</pre>
+ *
+ * @see Debug#setOverflowPolicy(OverflowPolicy)
+ * @see Debug#getDroppedCount()
+ */
+public enum OverflowPolicy {
+    /** Wait for free space; no message is ever lost. */
+    BLOCK,
+
+    /** Discard the message that could not be buffered. */
+    DROP_NEWEST,
+
+    /** Discard trace, debug and info messages that could not be buffered; block for everything else. */
+    DROP_LOWEST_LEVEL
+}
@@ -0,0 +1,159 @@
+package org.jquill;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A live progress bar kept at the bottom of the console while {@link Debug} output scrolls above it.
+ * Updates are striped counter increments, so any number of worker threads can call
+ * {@link #increment()} without contending or blocking; a single renderer thread redraws the bar at a
+ * capped frame rate (see {@link Debug#setLiveFrameRate(int)}) and only rewrites the characters that
+ * changed. When the output is not a terminal, the bar is printed once, in its final state, when it
+ * is closed.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (Progress progress = Progress.start("Indexing", files.size())) {
+ *     files.parallelStream().forEach(file -> {
+ *         index(file);
+ *         progress.increment();
+ *     });
+ * }
+ * Debug.flush();
+ * }</pre>
+ *
+ * @see StatusLine
+ * @see Debug#setLiveFrameRate(int)
+ */
+public final class Progress implements AutoCloseable {
+
+    private static final int BAR_WIDTH = 30;
+
+    private final String label;
+    private final Style barStyle;
+    private final LongAdder count = new LongAdder();
+    private volatile long total;
+
+    private final LiveRegion.Line line = new LiveRegion.Line() {
+        @Override
+        void render(LiveRegion.Row row) {
+            renderTo(row);
+        }
+    };
+
+    private Progress(String label, long total, Style barStyle) {
+        this.label = label;
+        this.total = total;
+        this.barStyle = barStyle;
+    }
+
+    // ------------------ Creation ------------------
+
+    /**
+     * Starts a progress bar and adds it to the bottom of the console.
+     *
+     * @param label the text shown before the bar
+     * @param total the count that means complete, or 0 if unknown, which shows the count only
+     * @return the progress bar
+     */
+    public static Progress start(String label, long total) {
+        return start(label, total, Style.GREEN);
+    }
+
+    /**
+     * Starts a progress bar drawn in the given style and adds it to the bottom of the console.
+     *
+     * @param label    the text shown before the bar
+     * @param total    the count that means complete, or 0 if unknown, which shows the count only
+     * @param barStyle the style of the filled part of the bar
+     * @return the progress bar
+     * @throws IllegalArgumentException if {@code total} is negative
+     */
+    public static Progress start(String label, long total, Style barStyle) {
+        if (total < 0) throw new IllegalArgumentException("total must not be negative: " + total);
+        Progress progress = new Progress(label != null ? label : "", total, barStyle);
+        LiveRegion.INSTANCE.add(progress.line);
+        return progress;
+    }
+
+    // ------------------ Updates ------------------
+
+    /** Adds one to the count. Never blocks. */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds to the count. Never blocks.
+     *
+     * @param amount the amount to add
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * Changes the count that means complete, for work whose size is discovered as it runs.
+     *
+     * @param total the new total, or 0 if unknown
+     * @throws IllegalArgumentException if {@code total} is negative
+     */
+    public void setTotal(long total) {
+        if (total < 0) throw new IllegalArgumentException("total must not be negative: " + total);
+        this.total = total;
+    }
+
+    /**
+     * Returns the current count.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the count that means complete.
+     *
+     * @return the total, or 0 if unknown
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Finishes the bar. It is drawn once more in its final state on the next frame and then becomes
+     * part of the regular output. Does not wait for the frame; use {@link Debug#flush()} for that.
+     */
+    @Override
+    public void close() {
+        line.close();
+    }
+
+    // ------------------ Rendering ------------------
+
+    /** Draws {@code label [#########.........]  45% 450/1000}. */
+    private void renderTo(LiveRegion.Row row) {
+        long done = count.sum();
+        long max = total;
+        row.append(label, Style.BOLD).append(" ", null);
+        if (max <= 0) {
+            row.append(done, null);
+            return;
+        }
+        long clamped = Math.min(done, max);
+        int filled = (int) (clamped * BAR_WIDTH / max);
+        int percent = (int) (clamped * 100 / max);
+        row.append("[", Style.GRAY)
+                .repeat('#', filled, barStyle)
+                .repeat('.', BAR_WIDTH - filled, Style.GRAY)
+                .append("] ", Style.GRAY);
+        if (percent < 100) row.append(" ", null);
+        if (percent < 10) row.append(" ", null);
+        row.append(percent, null).append("% ", null).append(done, null).append("/", Style.GRAY).append(max, null);
+    }
+
+    @Override
+    public String toString() {
+        return "Progress[" + label + ", " + getCount() + "/" + total + "]";
+    }
+}
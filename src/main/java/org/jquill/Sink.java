@@ -0,0 +1,61 @@
+package org.jquill;
+
+/**
+ * Destination for the text produced by {@link Debug}.
+ * Each call to {@link #write(CharSequence)} receives one complete, already styled unit of output —
+ * usually a single line including its line separator, or a batch of lines in asynchronous mode.
+ * The character sequence may be a reused buffer and must not be retained after the call returns.
+ * Implementations must be thread-safe and should never throw from {@link #write(CharSequence)}.
+ *
+ * <ul>
+ *   <li>{@link ConsoleSink} — writes to a {@link java.io.PrintStream}, {@code System.out} by default.</li>
+ *   <li>{@link FileSink} — writes to a file through a {@link java.nio.channels.FileChannel}, with rotation.</li>
+ *   <li>{@link SocketSink} — streams to a {@link LogCollector} over TCP or a Unix domain socket.</li>
+ *   <li>{@link #of(Sink...)} — fans output out to several sinks at once.</li>
+ * </ul>
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * FileSink file = FileSink.builder(Path.of("app.log"))
+ *         .maxBytes(10 * 1024 * 1024)
+ *         .flushPolicy(FlushPolicy.interval(200))
+ *         .build();
+ * Debug.setSink(Sink.of(ConsoleSink.stdout(), file));
+ * }</pre>
+ *
+ * @see Debug#setSink(Sink)
+ */
+@FunctionalInterface
+public interface Sink extends AutoCloseable {
+
+    /**
+     * Writes text to this sink.
+     *
+     * @param text the text to write, including any line separators
+     */
+    void write(CharSequence text);
+
+    /**
+     * Pushes any buffered output to its destination.
+     */
+    default void flush() {
+    }
+
+    /**
+     * Flushes and releases any resources held by this sink.
+     */
+    @Override
+    default void close() {
+        flush();
+    }
+
+    /**
+     * Returns a sink that writes every piece of output to each of the given sinks, in order.
+     *
+     * @param sinks the sinks to write to
+     * @return the fan-out sink, or the sink itself if only one is given
+     */
+    static Sink of(Sink... sinks) {
+        return sinks.length == 1 ? sinks[0] : new FanOutSink(sinks.clone());
+    }
+}
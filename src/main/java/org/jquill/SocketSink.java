@@ -0,0 +1,463 @@
+package org.jquill;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Sink} that streams output to a {@link LogCollector} over TCP or a Unix domain socket,
+ * so several JVMs on one machine can print into a single merged stream.
+ * Each write is stamped with {@link TimeSource#currentTimeMillis()} and encoded as UTF-8 straight
+ * into a direct {@link ByteBuffer}; a background thread sends the buffer as one length-prefixed
+ * frame through a non-blocking {@link SocketChannel} while producers fill a second buffer, so lines
+ * written while a frame is in flight are batched into the next frame.
+ * <p>
+ * Producers never wait for the network. While the collector is unreachable, output collects in the
+ * buffer, which is bounded by {@link Builder#bufferSize(int)}; once it is full further messages are
+ * dropped and counted, and a notice with the count is sent after the connection returns.
+ * The sink reconnects on its own, doubling the delay after each failed attempt up to a limit.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * // java -cp jquill.jar org.jquill.LogCollector --port 5170
+ * SocketSink sink = SocketSink.builder(5170)
+ *         .source("orders")
+ *         .build();
+ * Debug.setSink(Sink.of(ConsoleSink.stdout(), sink));
+ * }</pre>
+ *
+ * @see LogCollector
+ * @see Sink
+ */
+public final class SocketSink implements Sink {
+
+    static final int MAGIC = 0x4A51534B; // "JQSK"
+    static final short VERSION = 1;
+    static final int FRAME_HEADER = 4;
+    static final int RECORD_HEADER = 12;
+
+    private final SocketAddress address;
+    private final ByteBuffer hello;
+    private final long minBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Selector selector;
+    private final Thread ioThread;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    // Guarded by lock
+    private ByteBuffer active;
+    private ByteBuffer spare;
+    private long handedOff;
+    private long completed;
+    private long dropped;
+    private boolean connected;
+    private boolean idle;
+    private boolean closed;
+
+    // Owned by the I/O thread
+    private SocketChannel channel;
+    private SelectionKey key;
+    private ByteBuffer pendingHello;
+    private ByteBuffer sending;
+    private final ByteBuffer discard = ByteBuffer.allocate(256);
+    private long backoffMillis;
+    private long retryAt;
+    private boolean reported;
+
+    private SocketSink(Builder builder) throws IOException {
+        this.address = builder.address;
+        this.minBackoffMillis = builder.minBackoff.toMillis();
+        this.maxBackoffMillis = Math.max(minBackoffMillis, builder.maxBackoff.toMillis());
+        this.backoffMillis = minBackoffMillis;
+
+        byte[] name = builder.source.getBytes(StandardCharsets.UTF_8);
+        this.hello = ByteBuffer.allocate(8 + name.length).putInt(MAGIC).putShort(VERSION)
+                .putShort((short) name.length).put(name).flip();
+
+        this.active = ByteBuffer.allocateDirect(builder.bufferSize).position(FRAME_HEADER);
+        this.spare = ByteBuffer.allocateDirect(builder.bufferSize);
+        this.selector = Selector.open();
+        this.ioThread = new Thread(this::runIo, "jquill-socket-sink");
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    /**
+     * Starts building a sink that connects to the given address.
+     *
+     * @param address an {@link InetSocketAddress} for TCP or a {@link UnixDomainSocketAddress}
+     * @return a new builder
+     */
+    public static Builder builder(SocketAddress address) {
+        if (address == null) throw new IllegalArgumentException("Address must not be null");
+        return new Builder(address);
+    }
+
+    /**
+     * Starts building a sink that connects to a collector on the loopback interface.
+     *
+     * @param port the collector's TCP port
+     * @return a new builder
+     */
+    public static Builder builder(int port) {
+        return builder(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Starts building a sink that connects to a collector through a Unix domain socket.
+     *
+     * @param socket the socket file the collector listens on
+     * @return a new builder
+     */
+    public static Builder builder(Path socket) {
+        return builder(UnixDomainSocketAddress.of(socket));
+    }
+
+    /**
+     * Returns the address output is sent to.
+     *
+     * @return the collector's address
+     */
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    @Override
+    public String toString() {
+        return "SocketSink[" + address + "]";
+    }
+
+    // ------------------ Producer Side ------------------
+
+    @Override
+    public void write(CharSequence text) {
+        int length = Utf8.length(text);
+        long time = Debug.getTimeSource().currentTimeMillis();
+        lock.lock();
+        try {
+            if (closed) return;
+            if (!append(active, time, text, length)) {
+                dropped++;
+                return;
+            }
+            if (idle) {
+                // Only the first line after the I/O thread went idle wakes it; the rest join its frame
+                idle = false;
+                selector.wakeup();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Encodes one record, or returns false if it does not fit. */
+    private static boolean append(ByteBuffer buf, long time, CharSequence text, int length) {
+        // Utf8.encode stops short of the last few bytes, so keep one step of slack
+        if (buf.remaining() < RECORD_HEADER + length + Utf8.MAX_BYTES_PER_STEP) return false;
+        buf.putLong(time).putInt(length);
+        Utf8.encode(text, 0, text.length(), buf);
+        return true;
+    }
+
+    /**
+     * Waits until everything written so far has been sent. Returns early while the collector is
+     * unreachable, since output buffered then is only sent after the sink reconnects.
+     */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            awaitSent(false, Long.MAX_VALUE);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends what is buffered, waiting up to a second for the collector if it is unreachable, then
+     * disconnects.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) return;
+            awaitSent(true, System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+            closed = true;
+            selector.wakeup();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            ioThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Waits until the buffered output has been sent. Requires lock. */
+    private void awaitSent(boolean whileDisconnected, long deadline) {
+        long target = active.position() > FRAME_HEADER ? handedOff + 1 : handedOff;
+        if (idle) {
+            idle = false;
+            selector.wakeup();
+        }
+        boolean interrupted = false;
+        while (completed < target && !closed && (connected || whileDisconnected)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+            try {
+                changed.awaitNanos(remaining);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // ------------------ I/O Side ------------------
+
+    private void runIo() {
+        try {
+            while (true) {
+                long timeout = 0;
+                if (channel == null && retryAt <= System.currentTimeMillis()) connect();
+                if (channel == null) timeout = Math.max(1, retryAt - System.currentTimeMillis());
+
+                boolean pending;
+                lock.lock();
+                try {
+                    if (closed) return;
+                    if (sending == null && connected && active.position() > FRAME_HEADER) sending = takeFrame();
+                    pending = pendingHello != null || sending != null;
+                    idle = connected && !pending;
+                } finally {
+                    lock.unlock();
+                }
+                if (key != null && key.isValid() && channel.isConnected()) {
+                    key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+                }
+
+                selector.select(timeout);
+                for (SelectionKey ready : selector.selectedKeys()) {
+                    if (ready == key) handle(ready);
+                }
+                selector.selectedKeys().clear();
+            }
+        } catch (IOException e) {
+            System.err.println("JQuill: failed to run socket sink for " + address + ": " + e);
+        } finally {
+            if (channel != null) closeChannel();
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // nothing left to release
+            }
+        }
+    }
+
+    /** Swaps the active buffer out as a complete frame. Requires lock. */
+    private ByteBuffer takeFrame() {
+        ByteBuffer frame = active;
+        frame.putInt(0, frame.position() - FRAME_HEADER).flip();
+        active = spare.clear().position(FRAME_HEADER);
+        spare = null;
+        handedOff++;
+        if (dropped > 0) {
+            String notice = "JQuill: dropped " + dropped + " messages while " + address
+                    + " was unreachable or slow" + System.lineSeparator();
+            if (append(active, Debug.getTimeSource().currentTimeMillis(), notice, Utf8.length(notice))) dropped = 0;
+        }
+        return frame;
+    }
+
+    private void connect() {
+        try {
+            channel = address instanceof UnixDomainSocketAddress
+                    ? SocketChannel.open(StandardProtocolFamily.UNIX)
+                    : SocketChannel.open();
+            channel.configureBlocking(false);
+            if (channel.connect(address)) {
+                key = channel.register(selector, SelectionKey.OP_READ);
+                connected();
+            } else {
+                key = channel.register(selector, SelectionKey.OP_CONNECT);
+            }
+        } catch (IOException e) {
+            disconnect(e);
+        }
+    }
+
+    private void handle(SelectionKey ready) {
+        try {
+            if (ready.isConnectable()) {
+                channel.finishConnect();
+                ready.interestOps(SelectionKey.OP_READ);
+                connected();
+                return;
+            }
+            if (ready.isReadable()) {
+                // The collector never sends anything; a read only tells us it went away
+                discard.clear();
+                if (channel.read(discard) < 0) throw new EOFException("Connection closed by collector");
+            }
+            if (ready.isValid() && ready.isWritable()) send();
+        } catch (IOException e) {
+            disconnect(e);
+        }
+    }
+
+    private void send() throws IOException {
+        if (pendingHello != null) {
+            channel.write(pendingHello);
+            if (pendingHello.hasRemaining()) return;
+            pendingHello = null;
+        }
+        if (sending == null) return;
+        channel.write(sending);
+        if (sending.hasRemaining()) return;
+
+        lock.lock();
+        try {
+            spare = sending;
+            sending = null;
+            completed++;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void connected() {
+        backoffMillis = minBackoffMillis;
+        reported = false;
+        pendingHello = hello.duplicate();
+        lock.lock();
+        try {
+            connected = true;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void disconnect(IOException e) {
+        if (!reported) {
+            reported = true;
+            System.err.println("JQuill: failed to send to " + address + ", retrying: " + e);
+        }
+        closeChannel();
+        // A frame cut off mid-send is discarded by the collector; send it again in full
+        if (sending != null) sending.rewind();
+        pendingHello = null;
+        retryAt = System.currentTimeMillis() + backoffMillis;
+        backoffMillis = Math.min(backoffMillis * 2, maxBackoffMillis);
+        lock.lock();
+        try {
+            connected = false;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeChannel() {
+        if (key != null) key.cancel();
+        key = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // already gone
+        }
+        channel = null;
+    }
+
+    // ------------------ Builder ------------------
+
+    /**
+     * Configures and starts a {@link SocketSink}.
+     */
+    public static final class Builder {
+
+        private final SocketAddress address;
+        private String source = "pid " + ProcessHandle.current().pid();
+        private int bufferSize = 256 * 1024;
+        private Duration minBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+
+        private Builder(SocketAddress address) {
+            this.address = address;
+        }
+
+        /**
+         * Sets the name the collector shows for this process. Defaults to {@code pid <pid>}.
+         *
+         * @param name the source name
+         * @return this builder
+         */
+        public Builder source(String name) {
+            if (name == null || name.isBlank()) throw new IllegalArgumentException("Source name must not be blank");
+            if (name.getBytes(StandardCharsets.UTF_8).length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Source name too long");
+            }
+            this.source = name;
+            return this;
+        }
+
+        /**
+         * Sets the size of each of the two encoding buffers, which bounds both the largest frame and
+         * how much output is kept while the collector is unreachable. Defaults to 256 KiB.
+         *
+         * @param bytes the buffer size in bytes (at least 256)
+         * @return this builder
+         */
+        public Builder bufferSize(int bytes) {
+            this.bufferSize = Math.max(256, bytes);
+            return this;
+        }
+
+        /**
+         * Sets the delay before the first reconnection attempt, which doubles after each failure up to
+         * {@code max}. Defaults to 100 ms and 10 s.
+         *
+         * @param min the first delay
+         * @param max the longest delay
+         * @return this builder
+         */
+        public Builder reconnectBackoff(Duration min, Duration max) {
+            if (min == null || max == null || min.isNegative() || max.isNegative()) {
+                throw new IllegalArgumentException("Backoff must be a positive duration");
+            }
+            this.minBackoff = min.isZero() ? Duration.ofMillis(1) : min;
+            this.maxBackoff = max;
+            return this;
+        }
+
+        /**
+         * Creates the sink. It connects in the background; output written before the connection is
+         * established is buffered.
+         *
+         * @return the sink
+         * @throws IOException if the selector cannot be opened
+         */
+        public SocketSink build() throws IOException {
+            return new SocketSink(this);
+        }
+    }
+}
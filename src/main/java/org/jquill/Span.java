@@ -0,0 +1,47 @@
+package org.jquill;
+
+/**
+ * A running measurement started by {@link Debug#span(String)}. Closing the span records the time
+ * since it was started, measured with {@link System#nanoTime()}, into the histogram of its label;
+ * nothing is printed per sample. A span holds only its histogram and start time and is meant to be
+ * used in a try-with-resources block, where the JIT can keep it out of the heap entirely, so timing
+ * adds no allocation to the measured code.
+ * A span should be closed exactly once; each close records another sample.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (Span span = Debug.span("query")) {
+ *     rows = statement.executeQuery();
+ * }
+ * ...
+ * Debug.printTimings();
+ * }</pre>
+ *
+ * @see Debug#span(String)
+ * @see Debug#printTimings()
+ */
+public final class Span implements AutoCloseable {
+
+    private final LatencyHistogram histogram;
+    private final long start;
+
+    Span(LatencyHistogram histogram, long start) {
+        this.histogram = histogram;
+        this.start = start;
+    }
+
+    /**
+     * Returns the time since the span was started.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - start;
+    }
+
+    /** Records the time since the span was started. */
+    @Override
+    public void close() {
+        histogram.record(System.nanoTime() - start);
+    }
+}
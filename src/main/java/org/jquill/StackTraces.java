@@ -0,0 +1,261 @@
+package org.jquill;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Renders the stack traces attached to messages by overloads such as {@link Debug#error(String, Object)}.
+ * Traces are styled like the rest of the output: exception lines keep the message's level style, frames
+ * are dimmed, and runs of frames from common frameworks (reflection, proxies, servlet containers,
+ * Spring, Netty, JUnit, ...) collapse into a single line naming the packages they came from.
+ * <p>
+ * Each rendered trace is cached under a fingerprint of its structure — the exception types and stack
+ * frames of the whole cause chain, but not the messages — in a bounded LRU cache. The first occurrence
+ * is printed in full and numbered; an identical trace thrown again prints only its exception line and
+ * a reference such as {@code (same as #17, x42)}, so a retry storm does not flood the output or pay
+ * for rendering the same frames again.
+ *
+ * @see Debug#setStackTraceCacheSize(int)
+ * @see Debug#setCollapsedPackages(String...)
+ */
+final class StackTraces {
+
+    static final int DEFAULT_CACHE_SIZE = 256;
+
+    private static final String[] DEFAULT_COLLAPSED = {
+            "java.lang.reflect.", "jdk.internal.reflect.", "sun.reflect.", "jdk.proxy", "com.sun.proxy.",
+            "org.junit.", "junit.", "org.springframework.", "org.apache.catalina.", "org.apache.tomcat.",
+            "org.eclipse.jetty.", "io.undertow.", "io.netty.", "reactor.core."
+    };
+
+    private static final String INDENT = "  ";
+    private static final String FRAME_INDENT = "      ";
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final Object LOCK = new Object();
+    // Guarded by LOCK
+    private static int capacity = DEFAULT_CACHE_SIZE;
+    private static int nextId;
+    private static final Map<Long, Entry> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    private static volatile String[] collapsed = DEFAULT_COLLAPSED;
+
+    private StackTraces() {
+        // Utility class — prevent instantiation
+    }
+
+    /** A cached trace: its number, how often it was seen, and everything after its first line. */
+    private static final class Entry {
+        final int id;
+        final String body;
+        long count = 1;
+
+        Entry(int id, String body) {
+            this.id = id;
+            this.body = body;
+        }
+    }
+
+    // ------------------ Configuration ------------------
+
+    static void setCacheSize(int size) {
+        if (size < 0) throw new IllegalArgumentException("Cache size must not be negative: " + size);
+        synchronized (LOCK) {
+            capacity = size;
+            CACHE.clear();
+        }
+    }
+
+    static int getCacheSize() {
+        synchronized (LOCK) {
+            return capacity;
+        }
+    }
+
+    static void setCollapsedPackages(String... prefixes) {
+        String[] copy = prefixes != null ? prefixes.clone() : DEFAULT_COLLAPSED;
+        for (String prefix : copy) {
+            if (prefix == null || prefix.isEmpty()) throw new IllegalArgumentException("Package prefix must not be empty");
+        }
+        synchronized (LOCK) {
+            collapsed = copy;
+            // Cached traces were collapsed with the old prefixes
+            CACHE.clear();
+        }
+    }
+
+    static String[] getCollapsedPackages() {
+        return collapsed.clone();
+    }
+
+    /** Forgets every cached trace and restarts numbering. */
+    static void reset() {
+        synchronized (LOCK) {
+            CACHE.clear();
+            nextId = 0;
+        }
+    }
+
+    // ------------------ Rendering ------------------
+
+    /**
+     * Appends a trace on the lines following a message.
+     *
+     * @param sb        the message to append to
+     * @param thrown    the exception, or null for nothing
+     * @param reference true to print a reference instead of a trace already printed, false to always
+     *                  print the full trace (e.g. when replaying recorded messages)
+     */
+    static void append(StringBuilder sb, Throwable thrown, boolean reference) {
+        if (thrown == null) return;
+        sb.append(LINE_SEPARATOR).append(INDENT);
+
+        if (getCacheSize() == 0) {
+            sb.append(thrown).append(render(thrown));
+            return;
+        }
+
+        long fingerprint = fingerprint(thrown);
+        Entry entry;
+        long count;
+        synchronized (LOCK) {
+            entry = CACHE.get(fingerprint);
+            count = entry != null ? ++entry.count : 0;
+        }
+
+        if (entry == null) {
+            String body = render(thrown);
+            synchronized (LOCK) {
+                entry = CACHE.get(fingerprint);
+                if (entry == null) {
+                    entry = new Entry(++nextId, body);
+                    CACHE.put(fingerprint, entry);
+                } else {
+                    // Another thread rendered the same trace first
+                    count = ++entry.count;
+                }
+            }
+        }
+
+        if (count == 0 || !reference) {
+            sb.append(Style.lock(Style.apply("#" + entry.id, Style.MUTED))).append(' ').append(thrown).append(entry.body);
+        } else {
+            sb.append(thrown).append(' ')
+                    .append(Style.lock(Style.apply("(same as #" + entry.id + ", x" + count + ")", Style.MUTED)));
+        }
+    }
+
+    /** Renders everything after the first line of a trace: its frames, causes and suppressed exceptions. */
+    private static String render(Throwable thrown) {
+        StringBuilder sb = new StringBuilder(1024);
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.add(thrown);
+        StackTraceElement[] trace = thrown.getStackTrace();
+        appendFrames(sb, trace, null, "");
+        appendRelated(sb, thrown, trace, "", seen);
+        return sb.toString();
+    }
+
+    private static void appendRelated(StringBuilder sb, Throwable thrown, StackTraceElement[] trace, String indent,
+                                      Set<Throwable> seen) {
+        for (Throwable suppressed : thrown.getSuppressed()) {
+            appendEnclosed(sb, suppressed, trace, "Suppressed: ", indent + "    ", seen);
+        }
+        Throwable cause = thrown.getCause();
+        if (cause != null) appendEnclosed(sb, cause, trace, "Caused by: ", indent, seen);
+    }
+
+    private static void appendEnclosed(StringBuilder sb, Throwable thrown, StackTraceElement[] enclosing, String caption,
+                                       String indent, Set<Throwable> seen) {
+        sb.append(LINE_SEPARATOR).append(INDENT).append(indent);
+        if (!seen.add(thrown)) {
+            sb.append(caption).append("[CIRCULAR REFERENCE: ").append(thrown).append(']');
+            return;
+        }
+        sb.append(caption).append(thrown);
+        StackTraceElement[] trace = thrown.getStackTrace();
+        appendFrames(sb, trace, enclosing, indent);
+        appendRelated(sb, thrown, trace, indent, seen);
+    }
+
+    /**
+     * Appends frames, leaving out those shared with the enclosing trace and collapsing runs of
+     * framework frames. The first frame is always shown, since it is where the exception was thrown.
+     */
+    private static void appendFrames(StringBuilder sb, StackTraceElement[] trace, StackTraceElement[] enclosing,
+                                     String indent) {
+        int end = trace.length;
+        if (enclosing != null) {
+            for (int j = enclosing.length - 1; end > 0 && j >= 0 && trace[end - 1].equals(enclosing[j]); j--) end--;
+        }
+
+        String[] prefixes = collapsed;
+        StringBuilder frames = new StringBuilder(end * 64);
+        for (int i = 0; i < end; ) {
+            String prefix = i > 0 ? matchingPrefix(prefixes, trace[i].getClassName()) : null;
+            int run = i;
+            List<String> packages = null;
+            while (prefix != null && run < end) {
+                if (packages == null) packages = new ArrayList<>(2);
+                String name = prefix.endsWith(".") ? prefix.substring(0, prefix.length() - 1) : prefix;
+                if (!packages.contains(name)) packages.add(name);
+                run++;
+                prefix = run < end ? matchingPrefix(prefixes, trace[run].getClassName()) : null;
+            }
+            if (run - i > 1) {
+                frames.append(LINE_SEPARATOR).append(FRAME_INDENT).append(indent).append("... ").append(run - i)
+                        .append(" frames in ").append(String.join(", ", packages));
+                i = run;
+            } else {
+                frames.append(LINE_SEPARATOR).append(FRAME_INDENT).append(indent).append("at ").append(trace[i]);
+                i++;
+            }
+        }
+        if (end < trace.length) {
+            frames.append(LINE_SEPARATOR).append(FRAME_INDENT).append(indent).append("... ").append(trace.length - end).append(" more");
+        }
+        if (frames.length() > 0) sb.append(Style.lock(Style.apply(frames.toString(), Style.MUTED)));
+    }
+
+    private static String matchingPrefix(String[] prefixes, String className) {
+        for (String prefix : prefixes) {
+            if (className.startsWith(prefix)) return prefix;
+        }
+        return null;
+    }
+
+    // ------------------ Fingerprints ------------------
+
+    /** Hashes the exception types and frames of a trace and everything it wraps, ignoring messages. */
+    static long fingerprint(Throwable thrown) {
+        return fingerprint(thrown, 0x9E3779B97F4A7C15L, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static long fingerprint(Throwable thrown, long h, Set<Throwable> seen) {
+        if (!seen.add(thrown)) return mix(h, 1);
+        h = mix(h, thrown.getClass().getName().hashCode());
+        for (StackTraceElement frame : thrown.getStackTrace()) {
+            h = mix(h, frame.getClassName().hashCode());
+            h = mix(h, frame.getMethodName().hashCode());
+            h = mix(h, frame.getLineNumber());
+        }
+        for (Throwable suppressed : thrown.getSuppressed()) h = fingerprint(suppressed, mix(h, 2), seen);
+        Throwable cause = thrown.getCause();
+        return cause != null ? fingerprint(cause, mix(h, 3), seen) : h;
+    }
+
+    private static long mix(long h, int value) {
+        h = (h ^ value) * 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 31);
+    }
+}
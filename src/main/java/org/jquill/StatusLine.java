@@ -0,0 +1,87 @@
+package org.jquill;
+
+/**
+ * A live line of text kept at the bottom of the console while {@link Debug} output scrolls above it,
+ * such as "Connecting to db-3…" or the item a worker is on. {@link #set(String)} only publishes the
+ * new text, so it is cheap enough to call for every item; the renderer thread picks up the latest
+ * text at the next frame and rewrites just the characters that changed. When the output is not a
+ * terminal, the line is printed once, with its last text, when it is closed.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * try (StatusLine status = StatusLine.start("Starting", Style.CYAN)) {
+ *     for (Host host : hosts) {
+ *         status.set("Checking " + host.name());
+ *         check(host);
+ *     }
+ *     status.set("All hosts checked");
+ * }
+ * }</pre>
+ *
+ * @see Progress
+ * @see Debug#setLiveFrameRate(int)
+ */
+public final class StatusLine implements AutoCloseable {
+
+    private final Style style;
+    private volatile String text;
+
+    private final LiveRegion.Line line = new LiveRegion.Line() {
+        @Override
+        void render(LiveRegion.Row row) {
+            row.append(text, style);
+        }
+    };
+
+    private StatusLine(String text, Style style) {
+        this.text = text;
+        this.style = style;
+    }
+
+    /**
+     * Starts a status line and adds it to the bottom of the console.
+     *
+     * @param text   the initial text
+     * @param styles the styles to draw the text in
+     * @return the status line
+     */
+    public static StatusLine start(String text, Style... styles) {
+        Style style = null;
+        for (Style s : styles) style = style == null ? s : style.and(s);
+        StatusLine status = new StatusLine(text != null ? text : "", style);
+        LiveRegion.INSTANCE.add(status.line);
+        return status;
+    }
+
+    /**
+     * Replaces the text. Never blocks; only the latest text is drawn.
+     *
+     * @param text the new text
+     */
+    public void set(String text) {
+        this.text = text != null ? text : "";
+    }
+
+    /**
+     * Returns the current text.
+     *
+     * @return the text
+     */
+    public String get() {
+        return text;
+    }
+
+    /**
+     * Finishes the line. It is drawn once more with its last text on the next frame and then becomes
+     * part of the regular output. Does not wait for the frame; use {@link Debug#flush()} for that.
+     */
+    @Override
+    public void close() {
+        line.close();
+    }
+
+    @Override
+    public String toString() {
+        return "StatusLine[" + text + "]";
+    }
+}
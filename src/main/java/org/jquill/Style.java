@@ -1,9 +1,11 @@
 package org.jquill;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-/** @param code the ANSI code string
+/**
  * Represents ANSI text styles and colors for terminal output, supporting both foreground and background colors,
  * text attributes (bold, italic, underline, etc.), and semantic aliases for common debug levels.
  * This class also provides a locking mechanism to protect segments of text from being restyled when multiple
@@ -16,7 +18,7 @@ import java.util.regex.Pattern;
  *   <li>Foreground and background colors with RGB, hex, or 256-color codes</li>
  *   <li>Semantic style aliases for logging: {@link #INFO}, {@link #SUCCESS}, {@link #WARNING}, {@link #ERROR}, {@link #LOG}, {@link #MUTED}</li>
  *   <li>Locking system: {@link #lock(String)}, {@link #unlock(String)}, {@link #isLocked(String)}</li>
- *   <li>Style combination: {@link #and(Style)}</li>
+ *   <li>Style combination: {@link #and(Style)}, memoized per pair of styles</li>
  *   <li>Safe application of multiple styles with {@link #apply(String, Style...)}</li>
  * </ul>
  *
@@ -35,9 +37,37 @@ import java.util.regex.Pattern;
  * Methods like {@link #processLocks(StringBuilder, String, Style...)} handle locked and unlocked text separately,
  * ensuring safe styling in multithreaded logging scenarios.
  *
+ * <h2>Interning:</h2>
+ * Colors built with {@link #fg(int, int, int)}, {@link #bg(int, int, int)}, {@link #fg256(int)},
+ * {@link #bg256(int)} and their hex variants are interned, so building the same color again returns
+ * the same instance without allocating. Each style also keeps its code pre-encoded as UTF-8.
+ *
  * @see Debug
  */
-public record Style(String code) {
+public final class Style {
+
+    private static final int NOT_INTERNED = -1;
+    private static final int MAX_COMBINATIONS = 8;
+
+    private final String code;
+    private final int key;
+    private byte[] bytes;
+    private volatile Style[] combined;
+
+    /**
+     * Creates a style from a raw ANSI code string. Prefer the color builders, which reuse
+     * existing instances.
+     *
+     * @param code the ANSI code string
+     */
+    public Style(String code) {
+        this(code, NOT_INTERNED);
+    }
+
+    private Style(String code, int key) {
+        this.code = code;
+        this.key = key;
+    }
 
     // ------------------ Core ANSI Reset ------------------
     public static final Style RESET = new Style("\u001B[0m");
@@ -51,76 +81,76 @@ public record Style(String code) {
     public static final Style STRIKETHROUGH = new Style("\u001B[9m");
 
     // ------------------ Foreground Colors ------------------
-    public static final Style BLACK = fg(35, 35, 40);
-    public static final Style GRAY = fg(110, 115, 125);
-    public static final Style LIGHT_GRAY = fg(175, 180, 190);
-    public static final Style CHARCOAL = fg(55, 70, 80);
-    public static final Style SILVER = fg(190, 190, 190);
-    public static final Style WHITE = fg(245, 245, 245);
-
-    public static final Style RED = fg(220, 55, 70);
-    public static final Style ORANGE = fg(255, 140, 0);
-    public static final Style AMBER = fg(255, 195, 5);
-    public static final Style YELLOW = fg(255, 215, 0);
-    public static final Style GOLD = fg(210, 175, 55);
-    public static final Style LIME = fg(190, 255, 0);
-    public static final Style GREEN = fg(40, 165, 70);
-    public static final Style MINT = fg(150, 250, 150);
-    public static final Style TEAL = fg(55, 160, 160);
-    public static final Style CYAN = fg(0, 190, 210);
-    public static final Style SKY = fg(135, 205, 250);
-    public static final Style BLUE = fg(0, 123, 255);
-    public static final Style INDIGO = fg(75, 0, 130);
-    public static final Style PURPLE = fg(110, 65, 195);
-    public static final Style VIOLET = fg(150, 0, 210);
-    public static final Style LAVENDER = fg(180, 125, 220);
-    public static final Style PINK = fg(255, 105, 180);
-    public static final Style ROSE = fg(255, 180, 195);
-    public static final Style CORAL = fg(255, 130, 80);
-    public static final Style BROWN = fg(140, 70, 20);
-    public static final Style SAND = fg(195, 180, 130);
+    public static final Style BLACK = new Style("\u001B[38;2;35;35;40m");
+    public static final Style GRAY = new Style("\u001B[38;2;110;115;125m");
+    public static final Style LIGHT_GRAY = new Style("\u001B[38;2;175;180;190m");
+    public static final Style CHARCOAL = new Style("\u001B[38;2;55;70;80m");
+    public static final Style SILVER = new Style("\u001B[38;2;190;190;190m");
+    public static final Style WHITE = new Style("\u001B[38;2;245;245;245m");
+
+    public static final Style RED = new Style("\u001B[38;2;220;55;70m");
+    public static final Style ORANGE = new Style("\u001B[38;2;255;140;0m");
+    public static final Style AMBER = new Style("\u001B[38;2;255;195;5m");
+    public static final Style YELLOW = new Style("\u001B[38;2;255;215;0m");
+    public static final Style GOLD = new Style("\u001B[38;2;210;175;55m");
+    public static final Style LIME = new Style("\u001B[38;2;190;255;0m");
+    public static final Style GREEN = new Style("\u001B[38;2;40;165;70m");
+    public static final Style MINT = new Style("\u001B[38;2;150;250;150m");
+    public static final Style TEAL = new Style("\u001B[38;2;55;160;160m");
+    public static final Style CYAN = new Style("\u001B[38;2;0;190;210m");
+    public static final Style SKY = new Style("\u001B[38;2;135;205;250m");
+    public static final Style BLUE = new Style("\u001B[38;2;0;123;255m");
+    public static final Style INDIGO = new Style("\u001B[38;2;75;0;130m");
+    public static final Style PURPLE = new Style("\u001B[38;2;110;65;195m");
+    public static final Style VIOLET = new Style("\u001B[38;2;150;0;210m");
+    public static final Style LAVENDER = new Style("\u001B[38;2;180;125;220m");
+    public static final Style PINK = new Style("\u001B[38;2;255;105;180m");
+    public static final Style ROSE = new Style("\u001B[38;2;255;180;195m");
+    public static final Style CORAL = new Style("\u001B[38;2;255;130;80m");
+    public static final Style BROWN = new Style("\u001B[38;2;140;70;20m");
+    public static final Style SAND = new Style("\u001B[38;2;195;180;130m");
 
     // ------------------ Background Colors ------------------
-    public static final Style BG_BLACK = bg(35, 35, 40);
-    public static final Style BG_GRAY = bg(110, 115, 125);
-    public static final Style BG_LIGHT_GRAY = bg(175, 180, 190);
-    public static final Style BG_CHARCOAL = bg(55, 70, 80);
-    public static final Style BG_SILVER = bg(190, 190, 190);
-    public static final Style BG_WHITE = bg(245, 245, 245);
-
-    public static final Style BG_RED = bg(220, 55, 70);
-    public static final Style BG_ORANGE = bg(255, 140, 0);
-    public static final Style BG_AMBER = bg(255, 195, 5);
-    public static final Style BG_YELLOW = bg(255, 215, 0);
-    public static final Style BG_GOLD = bg(210, 175, 55);
-    public static final Style BG_LIME = bg(190, 255, 0);
-    public static final Style BG_GREEN = bg(40, 165, 70);
-    public static final Style BG_MINT = bg(150, 250, 150);
-    public static final Style BG_TEAL = bg(55, 160, 160);
-    public static final Style BG_CYAN = bg(0, 190, 210);
-    public static final Style BG_SKY = bg(135, 205, 250);
-    public static final Style BG_BLUE = bg(0, 123, 255);
-    public static final Style BG_INDIGO = bg(75, 0, 130);
-    public static final Style BG_PURPLE = bg(110, 65, 195);
-    public static final Style BG_VIOLET = bg(150, 0, 210);
-    public static final Style BG_LAVENDER = bg(180, 125, 220);
-    public static final Style BG_PINK = bg(255, 105, 180);
-    public static final Style BG_ROSE = bg(255, 180, 195);
-    public static final Style BG_CORAL = bg(255, 130, 80);
-    public static final Style BG_BROWN = bg(140, 70, 20);
-    public static final Style BG_SAND = bg(195, 180, 130);
+    public static final Style BG_BLACK = new Style("\u001B[48;2;35;35;40m");
+    public static final Style BG_GRAY = new Style("\u001B[48;2;110;115;125m");
+    public static final Style BG_LIGHT_GRAY = new Style("\u001B[48;2;175;180;190m");
+    public static final Style BG_CHARCOAL = new Style("\u001B[48;2;55;70;80m");
+    public static final Style BG_SILVER = new Style("\u001B[48;2;190;190;190m");
+    public static final Style BG_WHITE = new Style("\u001B[48;2;245;245;245m");
+
+    public static final Style BG_RED = new Style("\u001B[48;2;220;55;70m");
+    public static final Style BG_ORANGE = new Style("\u001B[48;2;255;140;0m");
+    public static final Style BG_AMBER = new Style("\u001B[48;2;255;195;5m");
+    public static final Style BG_YELLOW = new Style("\u001B[48;2;255;215;0m");
+    public static final Style BG_GOLD = new Style("\u001B[48;2;210;175;55m");
+    public static final Style BG_LIME = new Style("\u001B[48;2;190;255;0m");
+    public static final Style BG_GREEN = new Style("\u001B[48;2;40;165;70m");
+    public static final Style BG_MINT = new Style("\u001B[48;2;150;250;150m");
+    public static final Style BG_TEAL = new Style("\u001B[48;2;55;160;160m");
+    public static final Style BG_CYAN = new Style("\u001B[48;2;0;190;210m");
+    public static final Style BG_SKY = new Style("\u001B[48;2;135;205;250m");
+    public static final Style BG_BLUE = new Style("\u001B[48;2;0;123;255m");
+    public static final Style BG_INDIGO = new Style("\u001B[48;2;75;0;130m");
+    public static final Style BG_PURPLE = new Style("\u001B[48;2;110;65;195m");
+    public static final Style BG_VIOLET = new Style("\u001B[48;2;150;0;210m");
+    public static final Style BG_LAVENDER = new Style("\u001B[48;2;180;125;220m");
+    public static final Style BG_PINK = new Style("\u001B[48;2;255;105;180m");
+    public static final Style BG_ROSE = new Style("\u001B[48;2;255;180;195m");
+    public static final Style BG_CORAL = new Style("\u001B[48;2;255;130;80m");
+    public static final Style BG_BROWN = new Style("\u001B[48;2;140;70;20m");
+    public static final Style BG_SAND = new Style("\u001B[48;2;195;180;130m");
 
     // ------------------ Semantic Aliases ------------------
-    public static final Style INFO = CYAN.and(ITALIC);
+    public static final Style INFO = new Style("\u001B[38;2;0;190;210m\u001B[3m");
     public static final Style SUCCESS = GREEN;
     public static final Style WARNING = AMBER;
     public static final Style ERROR = RED;
-    public static final Style LOG = SILVER.and(ITALIC);
-    public static final Style MUTED = GRAY.and(DIM);
+    public static final Style LOG = new Style("\u001B[38;2;190;190;190m\u001B[3m");
+    public static final Style MUTED = new Style("\u001B[38;2;110;115;125m\u001B[2m");
 
     // ------------------ Lock System ------------------
-    private static final String LOCK_START = "\u001B[?200h";
-    private static final String LOCK_END = "\u001B[?200l";
+    static final String LOCK_START = "\u001B[?200h";
+    static final String LOCK_END = "\u001B[?200l";
 
     /**
      * Marks text as locked — prevents re-styling during processing.
@@ -161,7 +191,19 @@ public record Style(String code) {
      * @return a new style representing both
      */
     public Style and(Style other) {
-        return new Style(this.code + other.code);
+        Style[] pairs = combined;
+        int length = pairs != null ? pairs.length : 0;
+        for (int i = 0; i < length; i += 2) {
+            if (pairs[i] == other) return pairs[i + 1];
+        }
+        Style result = new Style(code + other.code);
+        if (length < 2 * MAX_COMBINATIONS) {
+            Style[] grown = pairs != null ? Arrays.copyOf(pairs, length + 2) : new Style[2];
+            grown[length] = other;
+            grown[length + 1] = result;
+            combined = grown;
+        }
+        return result;
     }
 
     /**
@@ -173,6 +215,118 @@ public record Style(String code) {
         return code;
     }
 
+    /**
+     * Returns the ANSI code for this style.
+     *
+     * @return the ANSI code string
+     */
+    public String code() {
+        return code;
+    }
+
+    /** @return the code encoded as UTF-8, encoded on first use; shared, must not be modified */
+    byte[] bytes() {
+        byte[] encoded = bytes;
+        if (encoded == null) {
+            // Racy single-check: every thread computes the same array, so a lost update is harmless
+            encoded = code.getBytes(StandardCharsets.UTF_8);
+            bytes = encoded;
+        }
+        return encoded;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Style other && code.equals(other.code));
+    }
+
+    @Override
+    public int hashCode() {
+        return code.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Style[code=" + code + "]";
+    }
+
+    // ------------------ Interning ------------------
+
+    private static final int FG_RGB = 0;
+    private static final int BG_RGB = 1;
+    private static final int FG_256 = 2;
+    private static final int BG_256 = 3;
+
+    /**
+     * Open-addressing table of interned colors, keyed by the color kind in the top byte and the
+     * packed RGB value or palette index below it. Slots are only ever filled, never cleared, and the
+     * table doubles once it is half full; past {@link #MAX_CAPACITY} new colors are no longer interned.
+     * Held in its own class so it is only set up once a color is built at runtime.
+     */
+    private static final class Interned {
+        private static final int INITIAL_CAPACITY = 1 << 10;
+        private static final int MAX_CAPACITY = 1 << 17;
+        private static final AtomicInteger COUNT = new AtomicInteger();
+        private static volatile AtomicReferenceArray<Style> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+        static Style get(int kind, int value) {
+            int key = kind << 24 | value;
+            AtomicReferenceArray<Style> current = table;
+            int mask = current.length() - 1;
+            for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+                Style existing = current.get(slot);
+                if (existing == null) {
+                    if (COUNT.get() >= MAX_CAPACITY / 2) return new Style(sequence(kind, value));
+                    Style created = new Style(sequence(kind, value), key);
+                    if (current.compareAndSet(slot, null, created)) {
+                        if (COUNT.incrementAndGet() > current.length() / 2) grow(current);
+                        return created;
+                    }
+                    existing = current.get(slot);
+                }
+                if (existing.key == key) return existing;
+            }
+        }
+
+        /**
+         * Doubles the table. A color interned into the old table while it is copied may be missed and
+         * interned again later, which only costs a duplicate instance.
+         */
+        private static synchronized void grow(AtomicReferenceArray<Style> old) {
+            if (old != table || old.length() >= MAX_CAPACITY) return;
+            AtomicReferenceArray<Style> grown = new AtomicReferenceArray<>(old.length() * 2);
+            int mask = grown.length() - 1;
+            int count = 0;
+            for (int i = 0; i < old.length(); i++) {
+                Style style = old.get(i);
+                if (style == null) continue;
+                int slot = hash(style.key) & mask;
+                while (grown.get(slot) != null) slot = (slot + 1) & mask;
+                grown.set(slot, style);
+                count++;
+            }
+            COUNT.set(count);
+            table = grown;
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /** Builds the escape sequence for an interned color by hand. */
+    private static String sequence(int kind, int value) {
+        StringBuilder sb = new StringBuilder(19).append(ESC).append('[')
+                .append(kind == FG_RGB || kind == FG_256 ? "38;" : "48;");
+        if (kind == FG_RGB || kind == BG_RGB) {
+            sb.append("2;").append(value >>> 16).append(';').append((value >>> 8) & 0xFF).append(';').append(value & 0xFF);
+        } else {
+            sb.append("5;").append(value);
+        }
+        return sb.append('m').toString();
+    }
+
     // ------------------ Color Builders ------------------
 
     /**
@@ -184,7 +338,7 @@ public record Style(String code) {
      * @return the foreground style
      */
     public static Style fg(int r, int g, int b) {
-        return new Style(String.format("\u001B[38;2;%d;%d;%dm", r, g, b));
+        return rgb(FG_RGB, r, g, b);
     }
 
     /**
@@ -196,7 +350,7 @@ public record Style(String code) {
      * @return the background style
      */
     public static Style bg(int r, int g, int b) {
-        return new Style(String.format("\u001B[48;2;%d;%d;%dm", r, g, b));
+        return rgb(BG_RGB, r, g, b);
     }
 
     /**
@@ -226,7 +380,7 @@ public record Style(String code) {
      * @return the foreground style
      */
     public static Style fg256(int code) {
-        return new Style(String.format("\u001B[38;5;%dm", code));
+        return palette(FG_256, code);
     }
 
     /**
@@ -236,18 +390,41 @@ public record Style(String code) {
      * @return the background style
      */
     public static Style bg256(int code) {
-        return new Style(String.format("\u001B[48;5;%dm", code));
+        return palette(BG_256, code);
+    }
+
+    private static Style rgb(int kind, int r, int g, int b) {
+        if (((r | g | b) & ~0xFF) != 0) {
+            // Out of range: not interned, written as given
+            String prefix = kind == FG_RGB ? "\u001B[38;2;" : "\u001B[48;2;";
+            return new Style(new StringBuilder(24).append(prefix).append(r).append(';').append(g).append(';').append(b).append('m').toString());
+        }
+        return Interned.get(kind, r << 16 | g << 8 | b);
+    }
+
+    private static Style palette(int kind, int code) {
+        if ((code & ~0xFF) != 0) {
+            // Out of range: not interned, written as given
+            String prefix = kind == FG_256 ? "\u001B[38;5;" : "\u001B[48;5;";
+            return new Style(new StringBuilder(16).append(prefix).append(code).append('m').toString());
+        }
+        return Interned.get(kind, code);
     }
 
     private static Style parseHex(String hex, boolean foreground) {
-        if (hex == null || !hex.matches("^#?[0-9A-Fa-f]{6}$")) {
+        int start = hex != null && hex.length() == 7 && hex.charAt(0) == '#' ? 1 : 0;
+        if (hex == null || hex.length() - start != 6) {
             throw new IllegalArgumentException("Invalid hex color: " + hex);
         }
-        hex = hex.startsWith("#") ? hex.substring(1) : hex;
-        int r = Integer.parseInt(hex.substring(0, 2), 16);
-        int g = Integer.parseInt(hex.substring(2, 4), 16);
-        int b = Integer.parseInt(hex.substring(4, 6), 16);
-        return foreground ? fg(r, g, b) : bg(r, g, b);
+        int rgb = 0;
+        for (int i = start; i < hex.length(); i++) {
+            int digit = Character.digit(hex.charAt(i), 16);
+            if (digit < 0 || hex.charAt(i) > 'f') {
+                throw new IllegalArgumentException("Invalid hex color: " + hex);
+            }
+            rgb = rgb << 4 | digit;
+        }
+        return Interned.get(foreground ? FG_RGB : BG_RGB, rgb);
     }
 
     // ------------------ Application ------------------
@@ -277,6 +454,20 @@ public record Style(String code) {
         return sb.toString();
     }
 
+    /** @return the opening codes of the given styles, concatenated as UTF-8 */
+    static byte[] openBytes(Style... styles) {
+        int length = 0;
+        for (Style s : styles) length += s.bytes().length;
+        byte[] out = new byte[length];
+        int pos = 0;
+        for (Style s : styles) {
+            byte[] code = s.bytes();
+            System.arraycopy(code, 0, out, pos, code.length);
+            pos += code.length;
+        }
+        return out;
+    }
+
     /**
      * Returns the ANSI reset code.
      *
@@ -288,7 +479,7 @@ public record Style(String code) {
 
     // ------------------ Lock-Aware Processing ------------------
 
-    private static final Pattern ANSI_PATTERN = Pattern.compile("\u001B\\[[0-9;?]*[A-Za-z]");
+    private static final char ESC = '\u001B';
 
     /**
      * Processes a message, preserving locked segments while applying styles elsewhere.
@@ -299,32 +490,256 @@ public record Style(String code) {
      * @return the fully styled message
      */
     public static String processLocks(StringBuilder sb, String msg, Style... styles) {
-        String[] segments = msg.split("(?=\\u001B\\[\\?200h)|(?<=\\u001B\\[\\?200l)");
+        if (msg == null) msg = "null";
+        return processLocks(sb, msg, 0, msg.length(), styles).toString();
+    }
 
-        for (String segment : segments) {
-            if (isLocked(segment)) {
-                sb.append(segment);
-            } else {
-                Matcher matcher = ANSI_PATTERN.matcher(segment);
-                int lastIdx = 0;
-                while (matcher.find()) {
-                    if (matcher.start() > lastIdx) {
-                        String text = segment.substring(lastIdx, matcher.start());
-                        for (Style s : styles) sb.append(s.code);
-                        sb.append(text);
-                        sb.append(RESET.code);
-                    }
-                    sb.append(matcher.group());
-                    lastIdx = matcher.end();
+    /**
+     * Processes a range of a message in a single pass, appending the result directly to the builder.
+     * Text outside of locked segments and ANSI sequences is wrapped in the given styles followed by
+     * {@link #RESET}; ANSI sequences and locked segments are copied unchanged. A lock left open at the
+     * end of the range extends to the end of the range. Messages without any escape character are
+     * copied through in one step.
+     *
+     * @param sb     the string builder to append results to
+     * @param msg    the message to process
+     * @param start  index of the first character to process
+     * @param end    index after the last character to process
+     * @param styles styles to apply
+     * @return the given string builder
+     */
+    public static StringBuilder processLocks(StringBuilder sb, CharSequence msg, int start, int end, Style... styles) {
+        int i = indexOfEsc(msg, start, end);
+        if (i < 0) {
+            appendText(sb, msg, start, end, styles);
+            return sb;
+        }
+
+        int textStart = start;
+        int lockStart = -1;
+        int depth = 0;
+        while (i < end) {
+            if (msg.charAt(i) != ESC) {
+                i++;
+                continue;
+            }
+            int seqEnd = ansiEnd(msg, i, end);
+            if (seqEnd < 0) {
+                i++;
+                continue;
+            }
+
+            if (regionEquals(msg, i, seqEnd, LOCK_START)) {
+                if (depth++ == 0) {
+                    appendText(sb, msg, textStart, i, styles);
+                    lockStart = i;
                 }
-                if (lastIdx < segment.length()) {
-                    String text = segment.substring(lastIdx);
-                    for (Style s : styles) sb.append(s.code);
-                    sb.append(RESET.code);
+            } else if (depth > 0) {
+                if (regionEquals(msg, i, seqEnd, LOCK_END) && --depth == 0) {
+                    sb.append(msg, lockStart, seqEnd);
+                    textStart = seqEnd;
                 }
+            } else {
+                appendText(sb, msg, textStart, i, styles);
+                sb.append(msg, i, seqEnd);
+                textStart = seqEnd;
             }
+            i = seqEnd;
         }
 
-        return sb.toString();
+        if (depth > 0) {
+            sb.append(msg, lockStart, end);
+        } else {
+            appendText(sb, msg, textStart, end, styles);
+        }
+        return sb;
+    }
+
+    /**
+     * Appends a range of a message with every ANSI sequence, including lock markers, removed.
+     *
+     * @param sb    the string builder to append results to
+     * @param msg   the message to strip
+     * @param start index of the first character to process
+     * @param end   index after the last character to process
+     * @return the given string builder
+     */
+    static StringBuilder strip(StringBuilder sb, CharSequence msg, int start, int end) {
+        int textStart = start;
+        for (int i = indexOfEsc(msg, start, end); i >= 0 && i < end; ) {
+            int seqEnd = ansiEnd(msg, i, end);
+            if (seqEnd < 0) {
+                i = indexOfEsc(msg, i + 1, end);
+                continue;
+            }
+            sb.append(msg, textStart, i);
+            textStart = i = seqEnd;
+            i = indexOfEsc(msg, i, end);
+        }
+        return sb.append(msg, textStart, end);
+    }
+
+    // ------------------ 256-Color Downgrade ------------------
+
+    private static final int MAX_SGR_PARAMS = 16;
+
+    /** Lookup tables for {@link #toAnsi256(int, int, int)}, built on first use. */
+    private static final class Palette256 {
+        /** Channel values of the 6x6x6 color cube at palette indices 16-231. */
+        static final int[] CUBE_LEVELS = {0, 95, 135, 175, 215, 255};
+
+        /** Nearest cube level for each channel value. */
+        static final byte[] CUBE_INDEX = new byte[256];
+
+        /** Nearest step of the gray ramp at palette indices 232-255 (values {@code 8 + 10 * step}) for each channel value. */
+        static final byte[] GRAY_INDEX = new byte[256];
+
+        static {
+            for (int v = 0; v < 256; v++) {
+                CUBE_INDEX[v] = (byte) (v < 48 ? 0 : v < 115 ? 1 : (v - 35) / 40);
+                GRAY_INDEX[v] = (byte) Math.max(0, Math.min(23, (v - 3) / 10));
+            }
+        }
+    }
+
+    /**
+     * Returns the 256-color palette index closest to an RGB color, choosing between the nearest
+     * color cube entry and the nearest gray.
+     *
+     * @param r red component (0-255)
+     * @param g green component (0-255)
+     * @param b blue component (0-255)
+     * @return the palette index (16-255)
+     */
+    static int toAnsi256(int r, int g, int b) {
+        int[] levels = Palette256.CUBE_LEVELS;
+        int ri = Palette256.CUBE_INDEX[r];
+        int gi = Palette256.CUBE_INDEX[g];
+        int bi = Palette256.CUBE_INDEX[b];
+        int cubeDistance = square(levels[ri] - r) + square(levels[gi] - g) + square(levels[bi] - b);
+
+        int gray = Palette256.GRAY_INDEX[(r + g + b) / 3];
+        int level = 8 + 10 * gray;
+        int grayDistance = square(level - r) + square(level - g) + square(level - b);
+
+        return grayDistance < cubeDistance ? 232 + gray : 16 + 36 * ri + 6 * gi + bi;
+    }
+
+    private static int square(int v) {
+        return v * v;
+    }
+
+    /**
+     * Appends a range of a message with every 24-bit color in its SGR sequences replaced by the
+     * nearest 256-color equivalent. All other text and sequences are copied unchanged.
+     *
+     * @param sb    the string builder to append results to
+     * @param msg   the message to convert
+     * @param start index of the first character to process
+     * @param end   index after the last character to process
+     * @return the given string builder
+     */
+    static StringBuilder downgrade(StringBuilder sb, CharSequence msg, int start, int end) {
+        int textStart = start;
+        for (int i = indexOfEsc(msg, start, end); i >= 0 && i < end; i = indexOfEsc(msg, i, end)) {
+            int seqEnd = ansiEnd(msg, i, end);
+            if (seqEnd < 0 || msg.charAt(seqEnd - 1) != 'm') {
+                i++;
+                continue;
+            }
+            sb.append(msg, textStart, i);
+            appendSgr256(sb, msg, i, seqEnd);
+            textStart = i = seqEnd;
+        }
+        return sb.append(msg, textStart, end);
+    }
+
+    /** Appends one SGR sequence, rewriting {@code 38;2;r;g;b} and {@code 48;2;r;g;b} to their 256-color form. */
+    private static void appendSgr256(StringBuilder sb, CharSequence msg, int start, int end) {
+        int[] params = new int[MAX_SGR_PARAMS];
+        int count = 0;
+        int value = 0;
+        boolean truecolor = false;
+        for (int i = start + 2; i < end; i++) {
+            char c = msg.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = Math.min(value * 10 + (c - '0'), 0xFFFF);
+            } else if ((c == ';' || c == 'm') && count < MAX_SGR_PARAMS) {
+                if (value == 2 && count > 0 && (params[count - 1] == 38 || params[count - 1] == 48)) truecolor = true;
+                params[count++] = value;
+                value = 0;
+            } else {
+                truecolor = false;
+                break;
+            }
+        }
+        if (!truecolor) {
+            sb.append(msg, start, end);
+            return;
+        }
+
+        sb.append(ESC).append('[');
+        for (int k = 0; k < count; k++) {
+            if (k > 0) sb.append(';');
+            int p = params[k];
+            if ((p == 38 || p == 48) && k + 4 < count && params[k + 1] == 2) {
+                sb.append(p).append(";5;").append(toAnsi256(channel(params[k + 2]), channel(params[k + 3]), channel(params[k + 4])));
+                k += 4;
+            } else if ((p == 38 || p == 48) && k + 2 < count && params[k + 1] == 5) {
+                sb.append(p).append(";5;").append(params[k + 2]);
+                k += 2;
+            } else {
+                sb.append(p);
+            }
+        }
+        sb.append('m');
+    }
+
+    private static int channel(int v) {
+        return Math.min(v, 255);
+    }
+
+    private static void appendText(StringBuilder sb, CharSequence msg, int start, int end, Style[] styles) {
+        if (start >= end) return;
+        if (styles == null || styles.length == 0) {
+            sb.append(msg, start, end);
+            return;
+        }
+        for (Style s : styles) sb.append(s.code);
+        sb.append(msg, start, end);
+        sb.append(RESET.code);
+    }
+
+    private static int indexOfEsc(CharSequence msg, int start, int end) {
+        if (msg instanceof String str) {
+            int i = str.indexOf(ESC, start);
+            return i < end ? i : -1;
+        }
+        for (int i = start; i < end; i++) {
+            if (msg.charAt(i) == ESC) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index just past an ANSI sequence of the form {@code ESC [ [0-9;?]* [A-Za-z]}
+     * starting at {@code i}, or -1 if no complete sequence starts there.
+     */
+    static int ansiEnd(CharSequence msg, int i, int end) {
+        if (i + 1 >= end || msg.charAt(i + 1) != '[') return -1;
+        for (int j = i + 2; j < end; j++) {
+            char c = msg.charAt(j);
+            if ((c >= '0' && c <= '9') || c == ';' || c == '?') continue;
+            return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') ? j + 1 : -1;
+        }
+        return -1;
+    }
+
+    private static boolean regionEquals(CharSequence msg, int start, int end, String token) {
+        if (end - start != token.length()) return false;
+        for (int k = 0; k < token.length(); k++) {
+            if (msg.charAt(start + k) != token.charAt(k)) return false;
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,46 @@
+package org.jquill;
+
+import java.util.ResourceBundle;
+
+/**
+ * A {@link System.Logger} that writes through a JQuill {@link Logger}. Inside this class the simple
+ * name {@code Level} means {@link System.Logger.Level}, so JQuill's levels are written out in full.
+ *
+ * @see JQuillLoggerFinder
+ */
+final class SystemLoggerAdapter implements System.Logger {
+
+    private final Logger logger;
+
+    SystemLoggerAdapter(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public String getName() {
+        return logger.getName();
+    }
+
+    @Override
+    public boolean isLoggable(Level level) {
+        org.jquill.Level mapped = JQuillLoggerFinder.toLevel(level);
+        return mapped != null && logger.isEnabled(mapped);
+    }
+
+    @Override
+    public void log(Level level, ResourceBundle bundle, String msg, Throwable thrown) {
+        org.jquill.Level mapped = JQuillLoggerFinder.toLevel(level);
+        if (mapped != null) logger.logBridged(mapped, bundle, msg, null, thrown);
+    }
+
+    @Override
+    public void log(Level level, ResourceBundle bundle, String format, Object... params) {
+        org.jquill.Level mapped = JQuillLoggerFinder.toLevel(level);
+        if (mapped != null) logger.logBridged(mapped, bundle, format, params, null);
+    }
+
+    @Override
+    public String toString() {
+        return "SystemLoggerAdapter[" + logger.getName() + "]";
+    }
+}
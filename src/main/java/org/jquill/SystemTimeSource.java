@@ -0,0 +1,36 @@
+package org.jquill;
+
+import java.time.ZoneId;
+
+/**
+ * The {@link TimeSource} backed by {@link System#currentTimeMillis()} and {@link System#nanoTime()}.
+ *
+ * @see TimeSource#system()
+ */
+final class SystemTimeSource implements TimeSource {
+
+    static final SystemTimeSource INSTANCE = new SystemTimeSource();
+
+    private SystemTimeSource() {
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public ZoneId zone() {
+        return DefaultZone.ZONE;
+    }
+
+    /** Resolves the zone on first use; loading the time-zone rules is a noticeable part of startup. */
+    private static final class DefaultZone {
+        static final ZoneId ZONE = ZoneId.systemDefault();
+    }
+}
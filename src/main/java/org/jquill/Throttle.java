@@ -0,0 +1,243 @@
+package org.jquill;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Message throttling used by {@link Debug} once {@link Debug#setRateLimit(int, int)} or
+ * {@link Debug#setCollapseRepeats(boolean)} is enabled.
+ * <p>
+ * Rate limiting keeps a token bucket per message template (or per supplier lambda, which stands
+ * for its call site). A literal message is keyed by its full text, so messages built by string
+ * concatenation each get a bucket of their own and are not limited; use a <code>{}</code> pattern
+ * for those. At most {@value #MAX_KEYS} buckets are kept: once that many exist, buckets that have
+ * refilled completely are evicted, as a fresh bucket would behave the same; those still holding an
+ * unreported count of suppressed messages go last. If every bucket is still in use, a message with
+ * a new template is let through without one. Each bucket is a single theoretical-arrival-time value
+ * advanced with a CAS only while tokens are available; a throttled message merely reads it and
+ * increments a striped {@link LongAdder}, so a flood of identical errors never contends on a lock.
+ * The number of suppressed messages is reported with the next message the bucket lets through.
+ * <p>
+ * Repeat collapsing remembers the last message printed. Consecutive identical messages (same level,
+ * logger and text) only increment a counter; a single "last message repeated N times" line is written
+ * once a different message arrives or on {@link Debug#flush()}. Under concurrent use the counts are
+ * approximate.
+ * <p>
+ * A daemon thread checks every {@link #QUIET_NANOS} for counts that have stopped growing since its
+ * previous check and reports them, so a burst that ends the output is still summarized. It only
+ * reads the counters, leaving the logging threads' path unchanged.
+ *
+ * @see Debug#setRateLimit(int, int)
+ * @see Debug#setCollapseRepeats(boolean)
+ */
+final class Throttle {
+
+    private static final int MAX_KEYS = 4096;
+
+    /** How often pending counts are checked; a count unchanged for that long belongs to a finished burst. */
+    static final long QUIET_NANOS = 1_000_000_000L;
+
+    /** Returned by {@link #collapse} for a message that repeats the previous one. */
+    static final Line DUPLICATE = new Line(null, null, "", new LongAdder());
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final boolean collapseRepeats;
+
+    private final Map<Object, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder suppressed = new LongAdder();
+    private final AtomicReference<Line> last = new AtomicReference<>();
+    private final Thread reporter;
+    private volatile boolean running = true;
+
+    // Guarded by this; the counts seen by the previous quiet check
+    private Line seenLine;
+    private long seenRepeats;
+
+    /** A token bucket, stored as the time at which it would be full again. */
+    private static final class Bucket {
+        final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+        final LongAdder suppressed = new LongAdder();
+        // The level and logger of the message that created the bucket, for reporting its count on its own
+        final Level level;
+        final Logger logger;
+        // Guarded by the throttle
+        long seen;
+
+        Bucket(Level level, Logger logger) {
+            this.level = level;
+            this.logger = logger;
+        }
+    }
+
+    /** The last message printed and how often it has been repeated since. */
+    record Line(Level level, Logger logger, String text, LongAdder repeats) {
+    }
+
+    /**
+     * @param messagesPerSecond sustained rate per template, or 0 to disable rate limiting
+     * @param burst             messages per template allowed at once before the rate applies
+     * @param collapseRepeats   whether consecutive identical messages are collapsed
+     */
+    Throttle(int messagesPerSecond, int burst, boolean collapseRepeats) {
+        this.intervalNanos = messagesPerSecond > 0 ? 1_000_000_000L / messagesPerSecond : 0;
+        this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.collapseRepeats = collapseRepeats;
+        this.reporter = new Thread(this::run, "jquill-throttle");
+        this.reporter.setDaemon(true);
+        this.reporter.start();
+    }
+
+    /** Stops the quiet check; counts still pending are left to {@link #drain()} and {@link #reportSuppressed(boolean)}. */
+    void stop() {
+        running = false;
+        LockSupport.unpark(reporter);
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, QUIET_NANOS);
+            if (running) reportQuiet();
+        }
+    }
+
+    /** Reports the repeat and suppression counts that have not grown since the previous check. */
+    private synchronized void reportQuiet() {
+        Line line = last.get();
+        long repeats = line != null ? line.repeats.sum() : 0;
+        if (repeats > 0 && line == seenLine && repeats == seenRepeats) {
+            Debug.reportRepeats(line);
+            repeats = 0;
+        }
+        seenLine = line;
+        seenRepeats = repeats;
+        reportSuppressed(false);
+    }
+
+    // ------------------ Rate Limiting ------------------
+
+    /**
+     * Takes a token for the template of a message.
+     *
+     * @return -1 if the message must be dropped, otherwise the number of messages with the same
+     *         template dropped since the last one let through
+     */
+    long admit(Logger logger, Level level, String pattern, int argc, Object a1, long nowNanos) {
+        if (intervalNanos == 0) return 0;
+        Object key = argc == MessageFormatter.SUPPLIED ? a1.getClass() : String.valueOf(pattern);
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= MAX_KEYS && !evictRefilled(nowNanos)) return 0;
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(level, logger));
+        }
+
+        AtomicLong arrival = bucket.arrival;
+        while (true) {
+            long tat = arrival.get();
+            if (tat != Long.MIN_VALUE && tat - nowNanos > toleranceNanos) {
+                bucket.suppressed.increment();
+                suppressed.increment();
+                return -1;
+            }
+            long next = (tat == Long.MIN_VALUE || tat - nowNanos < 0 ? nowNanos : tat) + intervalNanos;
+            if (arrival.compareAndSet(tat, next)) break;
+        }
+        return bucket.suppressed.sum() > 0 ? bucket.suppressed.sumThenReset() : 0;
+    }
+
+    /**
+     * Removes the buckets that have refilled completely. A sweep that frees nothing is not
+     * retried for one interval, so a flood of new templates does not rescan the map every time.
+     *
+     * @return whether there is room for another bucket
+     */
+    private boolean evictRefilled(long nowNanos) {
+        long after = nextSweep.get();
+        if (after != Long.MIN_VALUE && after - nowNanos > 0) return false;
+        if (!nextSweep.compareAndSet(after, nowNanos + intervalNanos)) return buckets.size() < MAX_KEYS;
+
+        buckets.values().removeIf(bucket -> bucket.arrival.get() - nowNanos <= 0 && bucket.suppressed.sum() == 0);
+        if (buckets.size() >= MAX_KEYS) {
+            // Only then give up refilled buckets whose suppressed count has not been reported yet;
+            // those messages are still part of suppressedCount()
+            buckets.values().removeIf(bucket -> bucket.arrival.get() - nowNanos <= 0);
+        }
+        if (buckets.size() < MAX_KEYS) {
+            nextSweep.set(Long.MIN_VALUE);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reports the suppressed counts of buckets on their own, without waiting for the next message
+     * they let through.
+     *
+     * @param all true to report every pending count, false for those unchanged since the last check
+     */
+    synchronized void reportSuppressed(boolean all) {
+        for (Bucket bucket : buckets.values()) {
+            long pending = bucket.suppressed.sum();
+            if (pending > 0 && (all || pending == bucket.seen)) {
+                pending = bucket.suppressed.sumThenReset();
+                if (pending > 0) Debug.reportSuppressed(bucket.logger, bucket.level, pending);
+                pending = 0;
+            }
+            bucket.seen = pending;
+        }
+    }
+
+    /** @return the total number of messages dropped by rate limiting */
+    long suppressedCount() {
+        return suppressed.sum();
+    }
+
+    // ------------------ Repeat Collapsing ------------------
+
+    /** @return whether consecutive identical messages are collapsed */
+    boolean collapsesRepeats() {
+        return collapseRepeats;
+    }
+
+    /**
+     * Checks a formatted message against the previous one.
+     *
+     * @param line the formatted line
+     * @param from index where the message text starts, after prefixes and timestamp
+     * @return {@link #DUPLICATE} if the message repeats the previous one and must be skipped,
+     *         the previous message if its repeats need reporting first, or null
+     */
+    Line collapse(Level level, Logger logger, CharSequence line, int from) {
+        Line previous = last.get();
+        if (previous != null && previous.level == level && previous.logger == logger
+                && contentEquals(previous.text, line, from)) {
+            previous.repeats.increment();
+            return DUPLICATE;
+        }
+        last.set(new Line(level, logger, line.subSequence(from, line.length()).toString(), new LongAdder()));
+        return previous != null && previous.repeats.sum() > 0 ? previous : null;
+    }
+
+    /**
+     * Forgets the previous message, e.g. on flush.
+     *
+     * @return the previous message if its repeats need reporting, or null
+     */
+    Line drain() {
+        Line previous = last.getAndSet(null);
+        return previous != null && previous.repeats.sum() > 0 ? previous : null;
+    }
+
+    private static boolean contentEquals(String text, CharSequence line, int from) {
+        if (text.length() != line.length() - from) return false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != line.charAt(from + i)) return false;
+        }
+        return true;
+    }
+}
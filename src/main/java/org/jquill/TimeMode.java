@@ -7,7 +7,7 @@ package org.jquill;
  * <ul>
  *   <li>{@link #NONE} — do not display any timestamp.</li>
  *   <li>{@link #ABSOLUTE} — display the current local time formatted according to {@link Debug#setTimeFormat(String)}.</li>
- *   <li>{@link #ELAPSED} — display the time elapsed since the {@link Debug} class was loaded, formatted as [MM:SS:ms].</li>
+ *   <li>{@link #ELAPSED} — display the monotonic time elapsed since the {@link Debug} class was loaded, formatted as [MM:SS:ms].</li>
  * </ul>
  *
  * <h2>Usage Example:</h2>
@@ -31,6 +31,6 @@ public enum TimeMode {
     /** Current local wall-clock time formatted according to {@link Debug#setTimeFormat(String)}. */
     ABSOLUTE,
 
-    /** Time elapsed since {@link Debug} was first loaded, formatted as <code>[MM:SS:ms]</code>. */
+    /** Time elapsed since {@link Debug} was first loaded (or since {@link Debug#setTimeSource(TimeSource)}), formatted as <code>[MM:SS:ms]</code>. */
     ELAPSED
 }
@@ -0,0 +1,59 @@
+package org.jquill;
+
+import java.time.ZoneId;
+
+/**
+ * Supplies the clock readings used by {@link Debug} for timestamps.
+ * The default implementation, {@link #system()}, reads {@link System#currentTimeMillis()} for
+ * {@link TimeMode#ABSOLUTE} timestamps and {@link System#nanoTime()} for monotonic
+ * {@link TimeMode#ELAPSED} timestamps. Tests and simulations can install their own source
+ * with {@link Debug#setTimeSource(TimeSource)} to drive time deterministically.
+ *
+ * <h2>Usage Example:</h2>
+ * <pre>{@code
+ * AtomicLong now = new AtomicLong();
+ * Debug.setTimeSource(new TimeSource() {
+ *     public long currentTimeMillis() { return now.get(); }
+ *     public long nanoTime() { return now.get() * 1_000_000L; }
+ * });
+ * now.addAndGet(1500);
+ * Debug.info("1.5 seconds later");
+ * }</pre>
+ *
+ * @see Debug#setTimeSource(TimeSource)
+ * @see TimeMode
+ */
+public interface TimeSource {
+
+    /**
+     * Returns the current wall-clock time, used for absolute timestamps.
+     *
+     * @return milliseconds since the epoch
+     */
+    long currentTimeMillis();
+
+    /**
+     * Returns a monotonic reading, used for elapsed timestamps. Only differences between readings are meaningful.
+     *
+     * @return the current value in nanoseconds
+     */
+    long nanoTime();
+
+    /**
+     * Returns the time zone absolute timestamps are rendered in.
+     *
+     * @return the time zone, the system default unless overridden
+     */
+    default ZoneId zone() {
+        return ZoneId.systemDefault();
+    }
+
+    /**
+     * Returns the time source backed by the system clock.
+     *
+     * @return the system time source
+     */
+    static TimeSource system() {
+        return SystemTimeSource.INSTANCE;
+    }
+}
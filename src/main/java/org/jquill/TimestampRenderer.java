@@ -0,0 +1,156 @@
+package org.jquill;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renders timestamp prefixes for {@link Debug} without per-message formatter work.
+ * An instance is compiled once per {@link Debug#setTimeFormat(String)} call. Absolute timestamps
+ * are rendered through the {@link DateTimeFormatter} at most once per second; within that second the
+ * cached text is reused and only the fraction-of-second digits (pattern letter {@code S}) are patched
+ * in. Patterns with other sub-second fields fall back to formatting every message with the compiled
+ * formatter. Elapsed timestamps are rendered by hand.
+ *
+ * @see TimeMode
+ * @see TimeSource
+ */
+final class TimestampRenderer {
+
+    private static final char PLACEHOLDER = '\uE000';
+
+    private final String pattern;
+    private final DateTimeFormatter formatter;
+    private final DateTimeFormatter placeholderFormatter;
+    private final int fractionDigits;
+
+    private volatile Second cached;
+
+    /** The rendered prefix for one second, with the fraction digits left as placeholders. */
+    private record Second(long epochSecond, ZoneId zone, char[] text, int fractionPos) {
+    }
+
+    /**
+     * Compiles a renderer for the given pattern.
+     *
+     * @param pattern a {@link DateTimeFormatter} pattern
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    TimestampRenderer(String pattern) {
+        this.pattern = pattern;
+        this.formatter = DateTimeFormatter.ofPattern(pattern);
+
+        int[] run = fractionRun(pattern);
+        if (run == null) {
+            this.placeholderFormatter = null;
+            this.fractionDigits = -1;
+        } else if (run.length == 0) {
+            this.placeholderFormatter = formatter;
+            this.fractionDigits = 0;
+        } else {
+            // Non-letter characters are literals in a pattern, so the placeholder needs no quoting
+            String substituted = pattern.substring(0, run[0]) + String.valueOf(PLACEHOLDER).repeat(run[1] - run[0])
+                    + pattern.substring(run[1]);
+            this.placeholderFormatter = DateTimeFormatter.ofPattern(substituted);
+            this.fractionDigits = run[1] - run[0];
+        }
+    }
+
+    /** @return the pattern this renderer was compiled from */
+    String pattern() {
+        return pattern;
+    }
+
+    /**
+     * Appends {@code [<formatted time>] } for the given wall-clock time.
+     *
+     * @param sb           the builder to append to
+     * @param epochMillis  milliseconds since the epoch
+     * @param zone         the zone to render in
+     */
+    void appendAbsolute(StringBuilder sb, long epochMillis, ZoneId zone) {
+        if (placeholderFormatter == null) {
+            sb.append('[');
+            formatter.formatTo(Instant.ofEpochMilli(epochMillis).atZone(zone), sb);
+            sb.append("] ");
+            return;
+        }
+
+        long epochSecond = Math.floorDiv(epochMillis, 1000);
+        Second second = cached;
+        if (second == null || second.epochSecond != epochSecond || !second.zone.equals(zone)) {
+            second = render(epochSecond, zone);
+            cached = second;
+        }
+
+        char[] text = second.text;
+        if (second.fractionPos < 0) {
+            sb.append(text);
+            return;
+        }
+        sb.append(text, 0, second.fractionPos);
+        int millis = Math.floorMod(epochMillis, 1000);
+        for (int i = 0, div = 100; i < fractionDigits; i++, div /= 10) {
+            sb.append(div > 0 ? (char) ('0' + (millis / div) % 10) : '0');
+        }
+        int after = second.fractionPos + fractionDigits;
+        sb.append(text, after, text.length - after);
+    }
+
+    private Second render(long epochSecond, ZoneId zone) {
+        StringBuilder sb = new StringBuilder(32).append('[');
+        placeholderFormatter.formatTo(Instant.ofEpochSecond(epochSecond).atZone(zone), sb);
+        sb.append("] ");
+        int pos = fractionDigits > 0 ? sb.indexOf(String.valueOf(PLACEHOLDER)) : -1;
+        char[] text = new char[sb.length()];
+        sb.getChars(0, sb.length(), text, 0);
+        return new Second(epochSecond, zone, text, pos);
+    }
+
+    /**
+     * Appends {@code [MM:SS:mmm] } for the given elapsed time, without allocating.
+     *
+     * @param sb           the builder to append to
+     * @param elapsedNanos nanoseconds elapsed since the start
+     */
+    static void appendElapsed(StringBuilder sb, long elapsedNanos) {
+        long elapsed = Math.max(0, elapsedNanos / 1_000_000L);
+        int ms = (int) (elapsed % 1000);
+        int s = (int) ((elapsed / 1000) % 60);
+        int m = (int) ((elapsed / (1000 * 60)) % 60);
+        sb.append('[')
+                .append((char) ('0' + m / 10)).append((char) ('0' + m % 10)).append(':')
+                .append((char) ('0' + s / 10)).append((char) ('0' + s % 10)).append(':')
+                .append((char) ('0' + ms / 100)).append((char) ('0' + (ms / 10) % 10)).append((char) ('0' + ms % 10))
+                .append("] ");
+    }
+
+    /**
+     * Locates the fraction-of-second field in a pattern, skipping quoted literals.
+     *
+     * @return {@code {start, end}} of the single {@code S} run, an empty array if the pattern has no
+     *         sub-second fields, or {@code null} if it cannot be cached per second
+     */
+    private static int[] fractionRun(String pattern) {
+        int[] run = new int[0];
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (quoted) {
+                continue;
+            } else if (c == 'n' || c == 'N' || c == 'A') {
+                return null;
+            } else if (c == 'S') {
+                if (run.length > 0) return null;
+                int end = i;
+                while (end < pattern.length() && pattern.charAt(end) == 'S') end++;
+                if (end - i > 9) return null;
+                run = new int[]{i, end};
+                i = end - 1;
+            }
+        }
+        return run;
+    }
+}
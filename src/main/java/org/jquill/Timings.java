@@ -0,0 +1,122 @@
+package org.jquill;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The per-label histograms behind {@link Debug#span(String)} and {@link Debug#time(String, Runnable)},
+ * and the summary printed from them. A label's histogram is created on first use; after that, finding
+ * it is a single lock-free map read.
+ *
+ * @see Span
+ */
+final class Timings {
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private static final Object REPORT_LOCK = new Object();
+    private static volatile Thread reporter;
+
+    private Timings() {
+        // Utility class — prevent instantiation
+    }
+
+    /** @return the histogram of a label, creating it on first use */
+    static LatencyHistogram histogram(String label) {
+        if (label == null) throw new IllegalArgumentException("Label must not be null");
+        LatencyHistogram histogram = HISTOGRAMS.get(label);
+        if (histogram == null) histogram = HISTOGRAMS.computeIfAbsent(label, l -> new LatencyHistogram());
+        return histogram;
+    }
+
+    /** @return snapshots of every label, sorted by label */
+    static Map<String, LatencySnapshot> snapshot() {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        HISTOGRAMS.forEach((label, histogram) -> snapshots.put(label, histogram.snapshot()));
+        return snapshots;
+    }
+
+    static void reset() {
+        HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+    }
+
+    // ------------------ Summary ------------------
+
+    /** Prints one line per label with its count, median, 99th percentile and maximum, as a single write. */
+    static void print() {
+        Map<String, LatencySnapshot> snapshots = snapshot();
+        int width = 0;
+        for (String label : snapshots.keySet()) width = Math.max(width, label.length());
+
+        StringBuilder sb = new StringBuilder(64 + snapshots.size() * 80);
+        sb.append(Style.lock(Style.apply("Timings", Style.BOLD)));
+        if (snapshots.isEmpty()) sb.append(" (none recorded)");
+        for (Map.Entry<String, LatencySnapshot> entry : snapshots.entrySet()) {
+            String label = entry.getKey();
+            LatencySnapshot s = entry.getValue();
+            sb.append(System.lineSeparator()).append("  ")
+                    .append(Style.lock(Style.apply(label, Style.BOLD, Style.CYAN)));
+            for (int i = label.length(); i < width; i++) sb.append(' ');
+            sb.append("  count=").append(s.getCount());
+            appendDuration(sb.append("  p50="), s.getPercentileNanos(50));
+            appendDuration(sb.append("  p99="), s.getPercentileNanos(99));
+            appendDuration(sb.append("  max="), s.getMaxNanos());
+        }
+        Debug.println(sb.toString(), Style.LIGHT_GRAY);
+    }
+
+    /** Appends a duration in the largest unit that keeps it at or above 1, with two decimals. */
+    static StringBuilder appendDuration(StringBuilder sb, long nanos) {
+        if (nanos < 1_000) return sb.append(nanos).append(" ns");
+        long unit;
+        String suffix;
+        if (nanos < 1_000_000) {
+            unit = 1_000;
+            suffix = " µs";
+        } else if (nanos < 1_000_000_000) {
+            unit = 1_000_000;
+            suffix = " ms";
+        } else {
+            unit = 1_000_000_000;
+            suffix = " s";
+        }
+        long hundredths = (nanos * 100 + unit / 2) / unit;
+        sb.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction).append(suffix);
+    }
+
+    // ------------------ Periodic Reports ------------------
+
+    /** Starts printing the summary every {@code seconds} seconds on a daemon thread, or stops it for 0. */
+    static void setReportInterval(int seconds) {
+        synchronized (REPORT_LOCK) {
+            Thread previous = reporter;
+            reporter = null;
+            if (previous != null) LockSupport.unpark(previous);
+            if (seconds == 0) return;
+
+            long intervalNanos = seconds * 1_000_000_000L;
+            Thread thread = new Thread(() -> report(intervalNanos), "jquill-timings");
+            thread.setDaemon(true);
+            reporter = thread;
+            thread.start();
+        }
+    }
+
+    private static void report(long intervalNanos) {
+        long next = System.nanoTime() + intervalNanos;
+        while (reporter == Thread.currentThread()) {
+            long remaining = next - System.nanoTime();
+            if (remaining > 0) {
+                LockSupport.parkNanos(Timings.class, remaining);
+                continue;
+            }
+            print();
+            next += intervalNanos;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.jquill;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hand-written UTF-8 encoding into {@link ByteBuffer}s, used by the byte-oriented sinks so that
+ * text can be encoded without an intermediate {@code byte[]} or {@link java.nio.charset.CharsetEncoder}.
+ * Unpaired surrogates are encoded as {@code '?'}.
+ */
+final class Utf8 {
+
+    /** The most bytes a single encoding step can write. */
+    static final int MAX_BYTES_PER_STEP = 4;
+
+    private Utf8() {
+        // Utility class — prevent instantiation
+    }
+
+    /**
+     * Encodes characters until the range is done or fewer than {@link #MAX_BYTES_PER_STEP} bytes remain.
+     *
+     * @param text the text to encode
+     * @param from index of the first character to encode
+     * @param to   index after the last character to encode
+     * @param buf  the buffer to write to
+     * @return the index of the first character not yet encoded
+     */
+    static int encode(CharSequence text, int from, int to, ByteBuffer buf) {
+        int i = from;
+        while (i < to && buf.remaining() >= MAX_BYTES_PER_STEP) {
+            char c = text.charAt(i++);
+            if (c < 0x80) {
+                buf.put((byte) c);
+            } else if (c < 0x800) {
+                buf.put((byte) (0xC0 | (c >> 6)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i < to && Character.isLowSurrogate(text.charAt(i))) {
+                int cp = Character.toCodePoint(c, text.charAt(i++));
+                buf.put((byte) (0xF0 | (cp >> 18)));
+                buf.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buf.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buf.put((byte) '?');
+            } else {
+                buf.put((byte) (0xE0 | (c >> 12)));
+                buf.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buf.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Returns the number of bytes {@link #encode(CharSequence, int, int, ByteBuffer)} writes for the text.
+     *
+     * @param text the text to measure
+     * @return the encoded length in bytes
+     */
+    static int length(CharSequence text) {
+        int bytes = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,117 @@
+package org.jquill;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Allocation budgets for the logging hot path, measured with {@code ThreadMXBean.getThreadAllocatedBytes}.
+ * Each case is warmed up until the JIT has compiled it, then run many times, so a single stray object
+ * does not fail a budget but an allocation on every call does. Arguments are small integers, which
+ * come from the {@link Integer} cache and box without allocating. Skipped on JVMs that cannot count
+ * allocated bytes per thread.
+ */
+public class AllocationTest {
+
+    private static final int WARMUP = 300_000;
+    private static final int CALLS = 1_000_000;
+
+    /** A filtered call must not allocate at all; the budget only absorbs measurement noise. */
+    private static final double FILTERED_BUDGET = 0.5;
+    /** Emitting a line reuses per-thread buffers; plain output needs no per-call objects. */
+    private static final double EMITTED_PLAIN_BUDGET = 16;
+    /** Styled output with timestamps may allocate a few small objects per line. */
+    private static final double EMITTED_STYLED_BUDGET = 64;
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    private long written;
+
+    @BeforeClass
+    public static void checkSupport() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        if (!threads.isThreadAllocatedMemoryEnabled()) threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Before
+    public void setUp() {
+        Debug.setConfig(DebugConfig.builder()
+                .colorMode(ColorMode.PLAIN)
+                .timeMode(TimeMode.NONE)
+                .level(Level.WARN)
+                .build());
+        // Counts characters so the output is used without measuring a stream's own allocations
+        Debug.setSink(text -> written += text.length());
+    }
+
+    @After
+    public void tearDown() {
+        Debug.setConfig(null);
+        Debug.setSink(null);
+    }
+
+    // ------------------ Filtered ------------------
+
+    @Test
+    public void filteredPatternCallDoesNotAllocate() {
+        assertWithin(FILTERED_BUDGET, () -> Debug.info("Request {} took {} ms", 42, 7));
+    }
+
+    @Test
+    public void filteredLiteralCallDoesNotAllocate() {
+        assertWithin(FILTERED_BUDGET, () -> Debug.log("Cache refreshed"));
+    }
+
+    @Test
+    public void filteredLoggerCallDoesNotAllocate() {
+        Logger logger = Debug.logger("db");
+        assertWithin(FILTERED_BUDGET, () -> logger.info("Request {} took {} ms", 42, 7));
+    }
+
+    @Test
+    public void filteredSupplierCallDoesNotAllocate() {
+        assertWithin(FILTERED_BUDGET, () -> Debug.info(() -> "Request " + System.nanoTime()));
+    }
+
+    // ------------------ Emitted ------------------
+
+    @Test
+    public void emittedPlainCallStaysWithinBudget() {
+        assertWithin(EMITTED_PLAIN_BUDGET, () -> Debug.warn("Request {} took {} ms", 42, 7));
+        assertTrue(written > 0);
+    }
+
+    @Test
+    public void emittedLoggerCallStaysWithinBudget() {
+        Logger logger = Debug.logger("db");
+        assertWithin(EMITTED_PLAIN_BUDGET, () -> logger.warn("Request {} took {} ms", 42, 7));
+    }
+
+    @Test
+    public void emittedStyledCallStaysWithinBudget() {
+        Debug.setConfig(Debug.getConfig().toBuilder()
+                .colorMode(ColorMode.TRUECOLOR)
+                .timeMode(TimeMode.ELAPSED)
+                .build());
+        assertWithin(EMITTED_STYLED_BUDGET, () -> Debug.warn("Request {} took {} ms", 42, 7));
+    }
+
+    // ------------------ Measurement ------------------
+
+    private static void assertWithin(double budget, Runnable call) {
+        for (int i = 0; i < WARMUP; i++) call.run();
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < CALLS; i++) call.run();
+        double perCall = (threads.getThreadAllocatedBytes(thread) - before) / (double) CALLS;
+        assertTrue(String.format("%.2f bytes per call, budget %.2f", perCall, budget), perCall <= budget);
+    }
+}
@@ -0,0 +1,76 @@
+package org.jquill;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Messages recorded in a {@link BinaryLog} decode with {@link LogDecoder} to the text {@link Debug} prints.
+ */
+public class BinaryLogTest {
+
+    private final StringBuilder out = new StringBuilder();
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("jquill-binary-log");
+        Debug.setConfig(DebugConfig.builder()
+                .colorMode(ColorMode.PLAIN)
+                .timeMode(TimeMode.NONE)
+                .showType(true)
+                .level(Level.TRACE)
+                .build());
+        Debug.setSink(out::append);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Debug.setBinaryLog(null);
+        Debug.setConfig(null);
+        Debug.setSink(null);
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+
+    @Test
+    public void decodedLogMatchesPrintedText() throws IOException {
+        logEverything();
+        String printed = out.toString();
+        out.setLength(0);
+
+        Path base = dir.resolve("app");
+        try (BinaryLog log = BinaryLog.open(base)) {
+            Debug.setBinaryLog(log);
+            logEverything();
+            Debug.setBinaryLog(null);
+        }
+        assertEquals("", out.toString());
+
+        StringBuilder decoded = new StringBuilder();
+        new LogDecoder(true).decode(BinaryLog.segmentPath(base, 1), decoded);
+        assertEquals(printed, decoded.toString());
+    }
+
+    @SuppressWarnings("deprecation")
+    private static void logEverything() {
+        Debug.trace("trace {}", 1);
+        Debug.log("debug {} {}", 2L, 'c');
+        Debug.info("info {} {} {}", 1.5, 2.5f, true);
+        Debug.warn("warn {}", (Object) null);
+        Debug.error("error {}", "text");
+        Debug.success("plain success");
+        Debug.log(Level.LOW, null, "low alias");
+        Debug.log(Level.HIGH, null, "high alias");
+        Debug.logger("db.pool").info("Acquired connection {}", 7);
+    }
+}
@@ -0,0 +1,287 @@
+package org.jquill;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Multi-threaded stress tests: many threads write long lines at once, and the output must contain
+ * every line exactly once, whole, and in each thread's order. Also checks that throughput with 16
+ * writing threads does not collapse compared to a single thread, and — on JDKs that have them — that
+ * 100,000 virtual threads writing at once neither pin their carriers nor lose lines, and keep up with
+ * a single platform thread.
+ */
+public class ContentionTest {
+
+    private static final int THREADS = 16;
+    private static final int LINES_PER_THREAD = 2_000;
+    /** Long enough that a line takes several writes' worth of time to copy. */
+    private static final String PAYLOAD = "x".repeat(200);
+    private static final Pattern LINE = Pattern.compile("\\[INFO] {4}worker (\\d+) line (\\d+) (x+)");
+    private static final Pattern ANSI = Pattern.compile("\u001B\\[[0-9;?]*[A-Za-z]");
+
+    /** 16 threads must reach at least this share of one thread's throughput. */
+    private static final double MIN_SCALING = 0.2;
+    private static final int THROUGHPUT_LINES = 200_000;
+
+    @Before
+    public void setUp() {
+        Debug.setConfig(DebugConfig.builder()
+                .colorMode(ColorMode.PLAIN)
+                .timeMode(TimeMode.NONE)
+                .showType(true)
+                .build());
+    }
+
+    @After
+    public void tearDown() {
+        Debug.setConfig(null);
+        Debug.setSink(null);
+    }
+
+    // ------------------ Interleaving ------------------
+
+    @Test(timeout = 60_000)
+    public void debugLinesAreNeitherInterleavedNorLost() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Debug.setSink(new ConsoleSink(new PrintStream(bytes, false, StandardCharsets.UTF_8)));
+
+        runConcurrently(THREADS, worker -> {
+            for (int i = 0; i < LINES_PER_THREAD; i++) Debug.info("worker {} line {} {}", worker, i, PAYLOAD);
+        });
+        Debug.flush();
+
+        assertComplete(bytes.toString(StandardCharsets.UTF_8), THREADS);
+    }
+
+    @Test(timeout = 60_000)
+    public void lockedPrintStreamLinesAreNeitherInterleavedNorLost() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        LockedPrintStream out = new LockedPrintStream(new PrintStream(bytes, false, StandardCharsets.UTF_8), Style.BOLD);
+
+        runConcurrently(THREADS, worker -> {
+            for (int i = 0; i < LINES_PER_THREAD; i++) {
+                String line = "[INFO]    worker " + worker + " line " + i + " " + PAYLOAD;
+                // Rotate through overloads that PrintStream itself would write in several pieces
+                switch (i % 4) {
+                    case 0 -> out.println(line);
+                    case 1 -> out.println((Object) (Style.lock("") + line));
+                    case 2 -> out.println(line.toCharArray());
+                    default -> out.printf("[INFO]    worker %d line %d %s%n", worker, i, PAYLOAD);
+                }
+            }
+        });
+        out.flush();
+
+        assertComplete(ANSI.matcher(bytes.toString(StandardCharsets.UTF_8)).replaceAll(""), THREADS);
+    }
+
+    // ------------------ Throughput ------------------
+
+    @Test(timeout = 120_000)
+    public void throughputDoesNotCollapseUnderContention() throws InterruptedException {
+        Debug.setSink(new ConsoleSink(new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8)));
+
+        // Warm up both shapes, then keep the best of a few runs to ride out scheduler noise
+        throughput(1);
+        throughput(THREADS);
+        double single = 0;
+        double contended = 0;
+        for (int run = 0; run < 3; run++) {
+            single = Math.max(single, throughput(1));
+            contended = Math.max(contended, throughput(THREADS));
+        }
+
+        assertTrue(String.format("%d threads: %.0f lines/s, 1 thread: %.0f lines/s", THREADS, contended, single),
+                contended >= single * MIN_SCALING);
+    }
+
+    /** @return lines per second written by the given number of threads sharing a fixed amount of work */
+    private static double throughput(int threads) throws InterruptedException {
+        int perThread = THROUGHPUT_LINES / threads;
+        long start = System.nanoTime();
+        runConcurrently(threads, worker -> {
+            for (int i = 0; i < perThread; i++) Debug.info("worker {} line {} {}", worker, i, PAYLOAD);
+        });
+        long elapsed = System.nanoTime() - start;
+        return perThread * threads * 1e9 / elapsed;
+    }
+
+    // ------------------ Virtual Threads ------------------
+
+    /**
+     * Runs {@link VirtualThreadWorkload} in a separate JVM with {@code -Djdk.tracePinnedThreads=short},
+     * which makes the JDK print the stack of every virtual thread that parks while pinned to its carrier.
+     * JDKs that no longer pin on monitors ignore the property; there the check passes trivially.
+     */
+    @Test(timeout = 300_000)
+    public void virtualThreadsDoNotPinOrLoseLines() throws Exception {
+        try {
+            Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            Assume.assumeNoException("Virtual threads need JDK 21 or later", e);
+            return;
+        }
+        Path log = Files.createTempFile("jquill-virtual", ".log");
+        try {
+            Process process = new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Djdk.tracePinnedThreads=short",
+                    "-cp", System.getProperty("java.class.path"),
+                    VirtualThreadWorkload.class.getName(), log.toString())
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(output, 0, process.waitFor());
+
+            // A pinned park is reported as the carrier thread's name followed by the frames holding monitors
+            assertFalse("Virtual thread pinned its carrier:\n" + output,
+                    output.contains("<== monitors") || output.contains("CarrierThreads]"));
+
+            Matcher m = Pattern.compile("THROUGHPUT (\\d+) (\\d+)").matcher(output);
+            assertTrue(output, m.find());
+            long single = Long.parseLong(m.group(1));
+            long virtual = Long.parseLong(m.group(2));
+            assertTrue(String.format("%d virtual threads: %d lines/s, 1 thread: %d lines/s",
+                            VirtualThreadWorkload.THREADS, virtual, single),
+                    virtual >= single * MIN_SCALING);
+
+            try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+                assertComplete(reader.lines().iterator(), VirtualThreadWorkload.THREADS, VirtualThreadWorkload.LINES);
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    /**
+     * Forked by {@link #virtualThreadsDoNotPinOrLoseLines()}: measures the throughput of
+     * {@value #THREADS} virtual threads against one platform thread writing the same lines, prints it,
+     * then has {@value #THREADS} virtual threads write their lines to the file named by the argument.
+     */
+    public static final class VirtualThreadWorkload {
+
+        static final int THREADS = 100_000;
+        static final int LINES = 2;
+
+        public static void main(String[] args) throws Exception {
+            Debug.setConfig(DebugConfig.builder()
+                    .colorMode(ColorMode.PLAIN)
+                    .timeMode(TimeMode.NONE)
+                    .showType(true)
+                    .build());
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method start = Class.forName("java.lang.Thread$Builder").getMethod("start", Runnable.class);
+
+            Debug.setSink(new ConsoleSink(new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8)));
+            long single = 0;
+            long virtual = 0;
+            // Warm up, then keep the best of a few runs
+            for (int run = 0; run < 4; run++) {
+                long t0 = System.nanoTime();
+                for (int w = 0; w < THREADS; w++) {
+                    for (int i = 0; i < LINES; i++) Debug.info("worker {} line {} {}", w, i, PAYLOAD);
+                }
+                long t1 = System.nanoTime();
+                runVirtual(builder, start);
+                long t2 = System.nanoTime();
+                single = Math.max(single, (long) (THREADS * LINES * 1e9 / (t1 - t0)));
+                virtual = Math.max(virtual, (long) (THREADS * LINES * 1e9 / (t2 - t1)));
+            }
+            System.out.println("THROUGHPUT " + single + " " + virtual);
+
+            try (PrintStream file = new PrintStream(new FileOutputStream(args[0]), false, StandardCharsets.UTF_8)) {
+                Debug.setSink(new ConsoleSink(file));
+                runVirtual(builder, start);
+                Debug.flush();
+            }
+        }
+
+        private static void runVirtual(Object builder, Method start) throws Exception {
+            List<Thread> started = new ArrayList<>(THREADS);
+            for (int w = 0; w < THREADS; w++) {
+                int worker = w;
+                started.add((Thread) start.invoke(builder, (Runnable) () -> {
+                    for (int i = 0; i < LINES; i++) Debug.info("worker {} line {} {}", worker, i, PAYLOAD);
+                }));
+            }
+            for (Thread thread : started) thread.join();
+        }
+    }
+
+    // ------------------ Helpers ------------------
+
+    /** Runs the task on the given number of platform threads, all released at once, and waits for them. */
+    private static void runConcurrently(int threads, IntConsumer task) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        Throwable[] failure = new Throwable[1];
+        List<Thread> started = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            Thread thread = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                    task.accept(worker);
+                } catch (Throwable e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                }
+            }, "stress-" + t);
+            thread.start();
+            started.add(thread);
+        }
+        ready.await();
+        go.countDown();
+        for (Thread thread : started) thread.join();
+        synchronized (failure) {
+            if (failure[0] != null) throw new AssertionError("Worker failed", failure[0]);
+        }
+    }
+
+    private static void assertComplete(String output, int workers) {
+        assertComplete(Arrays.asList(output.split(System.lineSeparator())).iterator(), workers, LINES_PER_THREAD);
+    }
+
+    /** Checks that every worker's lines appear whole, exactly once and in order. */
+    private static void assertComplete(Iterator<String> lines, int workers, int linesPerWorker) {
+        int[] next = new int[workers];
+        int count = 0;
+        while (lines.hasNext()) {
+            String line = lines.next();
+            Matcher m = LINE.matcher(line);
+            if (!m.matches() || m.group(3).length() != PAYLOAD.length()) fail("Garbled line: " + line);
+            int worker = Integer.parseInt(m.group(1));
+            assertEquals("Line out of order for worker " + worker, next[worker], Integer.parseInt(m.group(2)));
+            next[worker]++;
+            count++;
+        }
+        assertEquals(workers * linesPerWorker, count);
+    }
+}
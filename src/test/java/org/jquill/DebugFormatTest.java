@@ -0,0 +1,365 @@
+package org.jquill;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Correctness of the lines {@link Debug} writes: placeholders, prefixes, filtering and stack traces.
+ * Output is captured in plain mode without timestamps unless a test turns them on.
+ */
+public class DebugFormatTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private final StringBuilder out = new StringBuilder();
+    private int writes;
+
+    @Before
+    public void setUp() {
+        Debug.setConfig(DebugConfig.builder()
+                .colorMode(ColorMode.PLAIN)
+                .timeMode(TimeMode.NONE)
+                .showType(true)
+                .level(Level.TRACE)
+                .build());
+        Debug.setSink(text -> {
+            out.append(text);
+            writes++;
+        });
+        StackTraces.reset();
+    }
+
+    @After
+    public void tearDown() {
+        Debug.setConfig(null);
+        Debug.setSink(null);
+        StackTraces.reset();
+    }
+
+    // ------------------ Placeholders ------------------
+
+    @Test
+    public void placeholdersAreReplacedInOrder() {
+        Debug.info("Loaded {} entries in {} ms", 3, 12);
+        assertEquals("[INFO]    Loaded 3 entries in 12 ms" + NL, out.toString());
+    }
+
+    @Test
+    public void escapedPlaceholderIsPrintedLiterally() {
+        Debug.info("a \\{} b {}", 1);
+        assertEquals("[INFO]    a {} b 1" + NL, out.toString());
+    }
+
+    @Test
+    public void nullSecondArgumentStillMeansNoOverride() {
+        Debug.info("plain", null);
+        assertEquals("[INFO]    plain" + NL, out.toString());
+    }
+
+    @Test
+    public void booleanArgumentFillsAPlaceholder() {
+        Debug.info("enabled={}", true);
+        Debug.setShowType(false);
+        Debug.info("forced", true);
+        assertEquals("[INFO]    enabled=true" + NL + "[INFO]    forced" + NL, out.toString());
+    }
+
+    @Test
+    public void surplusPlaceholdersAreKept() {
+        Debug.info("{} {}", "x");
+        assertEquals("[INFO]    x {}" + NL, out.toString());
+    }
+
+    @Test
+    public void nullsAndArraysAreRendered() {
+        Debug.info("{} {}", null, new int[]{1, 2});
+        assertEquals("[INFO]    null [1, 2]" + NL, out.toString());
+    }
+
+    @Test
+    public void literalMessageIsNotFormatted() {
+        Debug.info("literal {}");
+        assertEquals("[INFO]    literal {}" + NL, out.toString());
+    }
+
+    // ------------------ Prefixes ------------------
+
+    @Test
+    public void iconsReplaceLabelsWhenTypesAreHidden() {
+        Debug.setShowType(false);
+        Debug.trace("t");
+        Debug.log("d");
+        Debug.info("i");
+        Debug.warn("w");
+        Debug.error("e");
+        Debug.success("s");
+        assertEquals("- t" + NL + "* d" + NL + "i i" + NL + "? w" + NL + "x e" + NL + "+ s" + NL, out.toString());
+    }
+
+    @Test
+    public void loggerNameFollowsTheLabel() {
+        Debug.logger("db").warn("slow {}", 5);
+        assertEquals("[WARN]    [db] slow 5" + NL, out.toString());
+    }
+
+    @Test
+    public void threadNameLeadsTheLine() {
+        Debug.setShowThread(true);
+        Debug.info("thread");
+        assertEquals("[" + Thread.currentThread().getName() + "] [INFO]    thread" + NL, out.toString());
+    }
+
+    @Test
+    public void absoluteTimestampUsesTheTimeSource() {
+        Debug.setConfig(Debug.getConfig().toBuilder()
+                .timeMode(TimeMode.ABSOLUTE)
+                .timeSource(new TimeSource() {
+                    public long currentTimeMillis() { return 1_700_000_000_123L; }
+                    public long nanoTime() { return 0; }
+                    public ZoneId zone() { return ZoneOffset.UTC; }
+                })
+                .build());
+        Debug.info("at");
+        assertEquals("[INFO]    [22:13:20] at" + NL, out.toString());
+    }
+
+    @Test
+    public void colorModeWrapsTheLineInTheLevelStyle() {
+        Debug.setColorMode(ColorMode.TRUECOLOR);
+        Debug.info("styled");
+        String line = out.toString();
+        assertTrue(line, line.startsWith(Style.INFO.getCode()));
+        assertTrue(line, line.endsWith(Style.RESET.getCode() + NL));
+        assertEquals("[INFO]    styled" + NL, Style.strip(new StringBuilder(), line, 0, line.length()).toString());
+    }
+
+    // ------------------ Filtering ------------------
+
+    @Test
+    public void levelsBelowTheThresholdAreDropped() {
+        Debug.setLevel(Level.WARN);
+        Debug.info("dropped {}", 1);
+        Debug.warn("kept");
+        Debug.setEnabled(Level.WARN, false);
+        Debug.warn("dropped");
+        Debug.error("kept");
+        assertEquals("[WARN]    kept" + NL + "[ERROR]   kept" + NL, out.toString());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void lowAndHighStillWorkAsAliases() {
+        assertEquals(Level.LOW, Level.valueOf("LOW"));
+        assertEquals("HIGH", Level.HIGH.name());
+        assertEquals(Level.DEBUG.getPriority(), Level.LOW.getPriority());
+
+        Debug.setLevel(Level.HIGH);
+        Debug.info("dropped");
+        Debug.warn("kept");
+        Debug.log(Level.LOW, null, "dropped");
+        Debug.log(Level.HIGH, null, "kept");
+        assertEquals(Level.HIGH, Debug.getLevel());
+        assertEquals("[WARN]    kept" + NL + "[WARN]    kept" + NL, out.toString());
+    }
+
+    @Test
+    public void supplierOfFilteredMessageIsNotCalled() {
+        Debug.setLevel(Level.WARN);
+        boolean[] called = {false};
+        Debug.info(() -> {
+            called[0] = true;
+            return "expensive";
+        });
+        assertFalse(called[0]);
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    public void batchIsWrittenInOnePiece() {
+        Debug.batch(batch -> {
+            batch.info("one");
+            batch.warn("two");
+        });
+        assertEquals(1, writes);
+        assertEquals("[INFO]    one" + NL + "[WARN]    two" + NL, out.toString());
+    }
+
+    @Test
+    public void errorInBatchDumpsMessagesFilteredInIt() {
+        Debug.setLevel(Level.WARN);
+        Debug.setFlightRecorder(2);
+        try {
+            assertEquals(2, Debug.getFlightRecorderCapacity());
+            Debug.batch(batch -> {
+                batch.info("context");
+                batch.error("boom");
+            });
+        } finally {
+            Debug.setFlightRecorder(0);
+        }
+        String text = out.toString();
+        assertTrue(text, text.contains("context"));
+        assertTrue(text, text.indexOf("context") < text.indexOf("boom"));
+    }
+
+    @Test
+    public void filteredBridgedRecordIsFormattedOnlyWhenDumped() {
+        Debug.setLevel(Level.WARN);
+        Debug.setFlightRecorder(4);
+        int[] formatted = {0};
+        Object param = new Object() {
+            @Override
+            public String toString() {
+                formatted[0]++;
+                return "42";
+            }
+        };
+        try {
+            new SystemLoggerAdapter(Debug.logger("bridge")).log(System.Logger.Level.DEBUG, "answer={0}", param);
+            assertEquals(0, formatted[0]);
+            assertEquals(1, Debug.dumpRecent());
+        } finally {
+            Debug.setFlightRecorder(0);
+        }
+        assertEquals(1, formatted[0]);
+        assertTrue(out.toString(), out.toString().contains("[bridge] answer=42"));
+    }
+
+    @Test
+    public void unconfiguredSystemLoggerStaysAtInfo() {
+        System.Logger jdk = System.getLogger("jquill.test.unconfigured");
+        jdk.log(System.Logger.Level.DEBUG, "request headers {0}", "Cookie: secret");
+        assertFalse(jdk.isLoggable(System.Logger.Level.DEBUG));
+        assertEquals("", out.toString());
+
+        jdk.log(System.Logger.Level.INFO, "connected");
+        assertEquals("[INFO]    [jquill.test.unconfigured] connected" + NL, out.toString());
+
+        Debug.setLevel("jquill.test", Level.DEBUG);
+        try {
+            assertTrue(jdk.isLoggable(System.Logger.Level.DEBUG));
+        } finally {
+            Debug.setLevel("jquill.test", null);
+        }
+    }
+
+    // ------------------ Throttling ------------------
+
+    @Test(timeout = 10_000)
+    public void pendingCountsAreReportedOnceTheBurstEnds() throws InterruptedException {
+        Debug.setSink(text -> {
+            synchronized (out) {
+                out.append(text);
+            }
+        });
+        try {
+            // No further message and no flush: the reporter thread has to notice the quiet
+            Debug.setCollapseRepeats(true);
+            for (int i = 0; i < 3; i++) Debug.warn("disk full");
+            awaitOutput("[WARN]    (last message repeated 2 times)" + NL);
+            Debug.setCollapseRepeats(false);
+
+            Debug.setRateLimit(1, 1);
+            for (int i = 0; i < 3; i++) Debug.info("retry {}", i);
+            awaitOutput("[INFO]    (2 similar messages suppressed)" + NL);
+        } finally {
+            Debug.setRateLimit(0, 1);
+            Debug.setCollapseRepeats(false);
+        }
+    }
+
+    private void awaitOutput(String expected) throws InterruptedException {
+        while (true) {
+            synchronized (out) {
+                if (out.indexOf(expected) >= 0) return;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    // ------------------ Asynchronous Output ------------------
+
+    @Test(timeout = 10_000)
+    public void asyncWriterSurvivesAThrowingSink() {
+        boolean[] thrown = {false};
+        Debug.setSink(text -> {
+            if (!thrown[0]) {
+                thrown[0] = true;
+                throw new IllegalStateException("disk full");
+            }
+            out.append(text);
+        });
+        Debug.setAsyncBufferSize(2);
+        Debug.setOverflowPolicy(OverflowPolicy.BLOCK);
+        Debug.setAsync(true);
+        try {
+            // More lines than the buffer holds: publishers would park forever if the writer had died
+            for (int i = 0; i < 16; i++) Debug.info("line {}", i);
+            Debug.flush();
+        } finally {
+            Debug.setAsync(false);
+            Debug.setAsyncBufferSize(8192);
+        }
+        assertTrue(thrown[0]);
+        assertTrue(out.toString(), out.toString().endsWith("[INFO]    line 15" + NL));
+    }
+
+    @Test(timeout = 10_000)
+    public void publishingAfterShutdownStillWrites() {
+        AsyncWriter writer = new AsyncWriter(8, OverflowPolicy.BLOCK);
+        writer.publish(Level.INFO, "before" + NL);
+        writer.shutdown();
+        // A producer that read the writer before setAsync(false) replaced it
+        assertTrue(writer.publish(Level.INFO, "after" + NL));
+        assertEquals("before" + NL + "after" + NL, out.toString());
+        assertEquals(0, writer.droppedCount());
+    }
+
+    // ------------------ Stack Traces ------------------
+
+    @Test
+    public void repeatedTraceIsPrintedAsReference() {
+        for (int i = 0; i < 2; i++) Debug.error("Request failed", failure());
+        String[] lines = out.toString().split(NL);
+
+        assertEquals("[ERROR]   Request failed", lines[0]);
+        assertEquals("  #1 java.lang.IllegalStateException: timeout", lines[1]);
+        assertTrue(lines[2], lines[2].trim().startsWith("at org.jquill.DebugFormatTest.failure"));
+        assertEquals("  java.lang.IllegalStateException: timeout (same as #1, x2)", lines[lines.length - 1]);
+    }
+
+    @Test
+    public void batchPrintsTheTraceOfAnException() {
+        Debug.batch(batch -> batch.error("Request failed", failure()));
+        String[] lines = out.toString().split(NL);
+
+        assertEquals("[ERROR]   Request failed", lines[0]);
+        assertEquals("  #1 java.lang.IllegalStateException: timeout", lines[1]);
+    }
+
+    @Test
+    public void traceCacheCanBeTurnedOff() {
+        Debug.setStackTraceCacheSize(0);
+        try {
+            for (int i = 0; i < 2; i++) Debug.error("Request failed", failure());
+        } finally {
+            Debug.setStackTraceCacheSize(StackTraces.DEFAULT_CACHE_SIZE);
+        }
+        String text = out.toString();
+        String frame = "at org.jquill.DebugFormatTest.failure";
+        assertFalse(text, text.contains("same as"));
+        assertTrue(text, text.lastIndexOf(frame) > text.indexOf(frame));
+    }
+
+    private static IllegalStateException failure() {
+        return new IllegalStateException("timeout");
+    }
+}
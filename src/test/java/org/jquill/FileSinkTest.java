@@ -0,0 +1,85 @@
+package org.jquill;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Lines written through a {@link FileSink} reach the file, including across rotation and close.
+ */
+public class FileSinkTest {
+
+    private Path dir;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("jquill-file-sink");
+        file = dir.resolve("app.log");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+
+    @Test
+    public void closeWritesBufferedLines() throws IOException {
+        FileSink sink = FileSink.builder(file).build();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String line = "line " + i + "\n";
+            sink.write(line);
+            expected.append(line);
+        }
+        sink.close();
+        assertEquals(expected.toString(), read(file));
+    }
+
+    @Test(timeout = 10_000)
+    public void quietFileIsRotatedOnTime() throws Exception {
+        FileSink sink = FileSink.builder(file).rotateEvery(Duration.ofMillis(100)).build();
+        try {
+            sink.write("only line\n");
+            sink.flush();
+            Path rotated = dir.resolve("app.log.1");
+            while (!Files.exists(rotated)) Thread.sleep(10);
+            assertEquals("only line\n", read(rotated));
+        } finally {
+            sink.close();
+        }
+    }
+
+    @Test
+    public void failedRotationKeepsWritingToTheOriginalPath() throws IOException {
+        FileSink sink = FileSink.builder(file).maxBytes(10).flushPolicy(FlushPolicy.everyLine()).build();
+        try {
+            sink.write("first line\n");
+            // Renaming a file that no longer exists fails
+            Files.delete(file);
+            sink.write("second\n");
+            sink.write("third\n");
+        } finally {
+            sink.close();
+        }
+        assertEquals("second\nthird\n", read(file));
+        assertTrue(Files.notExists(dir.resolve("app.log.1")));
+    }
+
+    private static String read(Path path) throws IOException {
+        return Files.readString(path, StandardCharsets.UTF_8);
+    }
+}
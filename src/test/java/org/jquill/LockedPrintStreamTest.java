@@ -0,0 +1,92 @@
+package org.jquill;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Correctness of {@link LockedPrintStream}'s byte-level scanner, including sequences and characters
+ * split across write calls. Concurrent use is covered by {@link ContentionTest}.
+ */
+public class LockedPrintStreamTest {
+
+    private static final String BOLD = Style.BOLD.getCode();
+    private static final String RED = Style.RED.getCode();
+    private static final String RESET = Style.RESET.getCode();
+
+    private ByteArrayOutputStream bytes;
+
+    @Before
+    public void setUp() {
+        bytes = new ByteArrayOutputStream();
+    }
+
+    private LockedPrintStream stream(Style... styles) {
+        return new LockedPrintStream(new PrintStream(bytes, false, StandardCharsets.UTF_8), styles);
+    }
+
+    private String output() {
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytewise(PrintStream out, String text) {
+        for (byte b : text.getBytes(StandardCharsets.UTF_8)) out.write(new byte[]{b}, 0, 1);
+    }
+
+    // ------------------ Styling ------------------
+
+    @Test
+    public void textWithoutStylesPassesThrough() {
+        LockedPrintStream out = stream();
+        out.println("plain" + Style.lock("kept"));
+        out.flush();
+        assertEquals("plain" + Style.lock("kept") + System.lineSeparator(), output());
+    }
+
+    @Test
+    public void unlockedTextIsStyled() {
+        LockedPrintStream out = stream(Style.BOLD);
+        out.print("a" + Style.lock("kept") + "b");
+        out.flush();
+        assertEquals(BOLD + "a" + RESET + Style.lock("kept") + BOLD + "b" + RESET, output());
+    }
+
+    @Test
+    public void foreignAnsiSequencesPassThrough() {
+        LockedPrintStream out = stream(Style.BOLD);
+        out.print("a" + RED + "b");
+        out.flush();
+        assertEquals(BOLD + "a" + RESET + RED + BOLD + "b" + RESET, output());
+    }
+
+    // ------------------ Split Writes ------------------
+
+    @Test
+    public void lockMarkersSplitAcrossWritesAreRecognized() {
+        LockedPrintStream out = stream(Style.BOLD);
+        writeBytewise(out, "x" + Style.lock("L") + "y");
+        out.flush();
+        assertEquals(BOLD + "x" + RESET + Style.lock("L") + BOLD + "y" + RESET, output());
+    }
+
+    @Test
+    public void multiByteCharactersAreNeverSplitByStyles() {
+        LockedPrintStream out = stream(Style.BOLD);
+        writeBytewise(out, "é€");
+        out.flush();
+        assertEquals(BOLD + "é" + RESET + BOLD + "€" + RESET, output());
+    }
+
+    @Test
+    public void incompleteSequenceIsFlushedAsText() {
+        LockedPrintStream out = stream();
+        writeBytewise(out, "a\u001B[?20");
+        out.flush();
+        assertEquals("a\u001B[?20", output());
+    }
+}
@@ -0,0 +1,199 @@
+package org.jquill;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SocketSink} output reaching a {@link LogCollector}, or a hand-written server, over loopback.
+ */
+public class SocketSinkTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private Path dir;
+    private LogCollector collector;
+    private Thread collecting;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("jquill-socket-sink");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Debug.setTimeSource(TimeSource.system());
+        if (collector != null) {
+            collector.close();
+            collecting.join();
+        }
+        Files.deleteIfExists(dir.resolve("sink.sock"));
+        Files.delete(dir);
+    }
+
+    @Test(timeout = 10_000)
+    public void frameReachesTheCollector() throws Exception {
+        startCollector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        SocketSink sink = SocketSink.builder(collector.getAddress()).source("orders").build();
+        try {
+            sink.write("first" + NL);
+            sink.write("second ünïcode" + NL);
+            awaitOutput("orders | second ünïcode" + NL);
+        } finally {
+            sink.close();
+        }
+        assertEquals("orders | first" + NL + "orders | second ünïcode" + NL, output());
+    }
+
+    @Test(timeout = 10_000)
+    public void linesFromTwoSourcesMergeInTimestampOrder() throws Exception {
+        AtomicLong now = new AtomicLong(2_000);
+        Debug.setTimeSource(new TimeSource() {
+            public long currentTimeMillis() {
+                return now.get();
+            }
+
+            public long nanoTime() {
+                return now.get() * 1_000_000L;
+            }
+        });
+        startCollector(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2_000);
+        SocketSink late = SocketSink.builder(collector.getAddress()).source("late").build();
+        SocketSink early = SocketSink.builder(collector.getAddress()).source("early").build();
+        try {
+            // Each source's lines arrive together, so whichever comes first, they have to be interleaved
+            late.write("at 2000" + NL);
+            now.set(2_500);
+            late.write("at 2500" + NL);
+            now.set(1_000);
+            early.write("at 1000" + NL);
+            now.set(2_200);
+            early.write("at 2200" + NL);
+            awaitOutput("late | at 2500" + NL);
+        } finally {
+            late.close();
+            early.close();
+        }
+        assertEquals("early | at 1000" + NL + "late | at 2000" + NL + "early | at 2200" + NL + "late | at 2500" + NL,
+                output());
+    }
+
+    @Test(timeout = 20_000)
+    public void frameCutOffMidSendIsResentInFull() throws Exception {
+        // A Unix domain socket lets the sink buffer everything before the server exists
+        Path socket = dir.resolve("sink.sock");
+        SocketSink sink = SocketSink.builder(socket).source("big").bufferSize(16 * 1024 * 1024)
+                .reconnectBackoff(Duration.ofMillis(10), Duration.ofMillis(50)).build();
+        StringBuilder expected = new StringBuilder();
+        String padding = "x".repeat(90);
+        for (int i = 0; expected.length() < 8 * 1024 * 1024; i++) {
+            String line = i + " " + padding + NL;
+            sink.write(line);
+            expected.append(line);
+        }
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            try (SocketChannel first = server.accept()) {
+                // Far less than the frame: the sink is still sending when the connection drops
+                readFully(first, 64 * 1024);
+            }
+            try (SocketChannel second = server.accept()) {
+                ByteBuffer hello = readFully(second, 8);
+                assertEquals(SocketSink.MAGIC, hello.getInt());
+                assertEquals(SocketSink.VERSION, hello.getShort());
+                readFully(second, hello.getShort());
+
+                // A resent tail of the old frame would be misread as a frame header here
+                int length = readFully(second, SocketSink.FRAME_HEADER).getInt();
+                assertTrue("frame length " + length, length > 0 && length <= 16 * 1024 * 1024);
+                ByteBuffer frame = readFully(second, length);
+                StringBuilder received = new StringBuilder();
+                while (frame.hasRemaining()) {
+                    frame.getLong();
+                    byte[] text = new byte[frame.getInt()];
+                    frame.get(text);
+                    received.append(new String(text, StandardCharsets.UTF_8));
+                }
+                assertEquals(expected.toString(), received.toString());
+            }
+        } finally {
+            sink.close();
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void droppedMessagesAreReportedAfterReconnecting() throws Exception {
+        Path socket = dir.resolve("sink.sock");
+        SocketSink sink = SocketSink.builder(socket).source("small").bufferSize(256)
+                .reconnectBackoff(Duration.ofMillis(10), Duration.ofMillis(50)).build();
+        int total = 40;
+        try {
+            for (int i = 0; i < total; i++) sink.write("line " + i + NL);
+            startCollector(UnixDomainSocketAddress.of(socket), 0);
+            awaitOutput(" messages while ");
+        } finally {
+            sink.close();
+        }
+
+        String text = output();
+        Matcher notice = Pattern.compile("JQuill: dropped (\\d+) messages while .* was unreachable or slow" + NL).matcher(text);
+        assertTrue(text, notice.find());
+        assertTrue(text, text.startsWith("small | line 0" + NL));
+        int delivered = text.split("line ", -1).length - 1;
+        assertTrue(text, delivered > 0);
+        assertEquals(total, delivered + Integer.parseInt(notice.group(1)));
+    }
+
+    // ------------------ Helpers ------------------
+
+    private void startCollector(SocketAddress address, long windowMillis) throws IOException {
+        collector = new LogCollector(address, windowMillis, true, out);
+        collecting = new Thread(() -> {
+            try {
+                collector.run();
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }, "collector");
+        collecting.start();
+    }
+
+    private String output() {
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void awaitOutput(String expected) throws InterruptedException {
+        while (!output().contains(expected)) Thread.sleep(10);
+    }
+
+    private static ByteBuffer readFully(SocketChannel channel, int size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf) < 0) throw new IOException("Connection closed after " + buf.position() + " bytes");
+        }
+        return buf.flip();
+    }
+}
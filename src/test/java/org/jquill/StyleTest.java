@@ -0,0 +1,102 @@
+package org.jquill;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Correctness of lock markers and of {@link Style#processLocks}, which every styled line passes through.
+ */
+public class StyleTest {
+
+    private static final String BOLD = Style.BOLD.getCode();
+    private static final String RED = Style.RED.getCode();
+    private static final String RESET = Style.RESET.getCode();
+
+    // ------------------ Locks ------------------
+
+    @Test
+    public void lockWrapsTextInMarkers() {
+        assertEquals(Style.LOCK_START + "text" + Style.LOCK_END, Style.lock("text"));
+    }
+
+    @Test
+    public void unlockRemovesEveryMarker() {
+        String nested = "a" + Style.lock("b" + Style.lock("c") + "d") + "e";
+        assertEquals("abcde", Style.unlock(nested));
+        assertEquals("plain", Style.unlock("plain"));
+    }
+
+    @Test
+    public void isLockedNeedsBothMarkers() {
+        assertTrue(Style.isLocked("a" + Style.lock("b")));
+        assertFalse(Style.isLocked("plain"));
+        assertFalse(Style.isLocked("a" + Style.LOCK_START + "open"));
+        assertFalse(Style.isLocked("closed" + Style.LOCK_END));
+    }
+
+    // ------------------ processLocks ------------------
+
+    @Test
+    public void plainTextIsCopiedUnchangedWithoutStyles() {
+        assertEquals("plain", Style.processLocks(new StringBuilder(), "plain"));
+    }
+
+    @Test
+    public void plainTextIsWrappedInStylesAndReset() {
+        assertEquals(BOLD + RED + "text" + RESET, Style.processLocks(new StringBuilder(), "text", Style.BOLD, Style.RED));
+    }
+
+    @Test
+    public void lockedSegmentsAreNotRestyled() {
+        String locked = Style.lock("kept");
+        assertEquals(BOLD + "a" + RESET + locked + BOLD + "b" + RESET,
+                Style.processLocks(new StringBuilder(), "a" + locked + "b", Style.BOLD));
+    }
+
+    @Test
+    public void nestedLocksEndAtTheOutermostMarker() {
+        String locked = Style.lock("b" + Style.lock("inner") + "c");
+        assertEquals(BOLD + "a" + RESET + locked + BOLD + "d" + RESET,
+                Style.processLocks(new StringBuilder(), "a" + locked + "d", Style.BOLD));
+    }
+
+    @Test
+    public void unterminatedLockExtendsToTheEnd() {
+        String open = Style.LOCK_START + "open";
+        assertEquals(BOLD + "a" + RESET + open, Style.processLocks(new StringBuilder(), "a" + open, Style.BOLD));
+    }
+
+    @Test
+    public void foreignAnsiSequencesPassThrough() {
+        assertEquals(BOLD + "a" + RESET + RED + BOLD + "b" + RESET,
+                Style.processLocks(new StringBuilder(), "a" + RED + "b", Style.BOLD));
+    }
+
+    @Test
+    public void loneEscapeCharacterIsTreatedAsText() {
+        assertEquals(BOLD + "a\u001Bb" + RESET, Style.processLocks(new StringBuilder(), "a\u001Bb", Style.BOLD));
+    }
+
+    @Test
+    public void nullMessagePrintsNull() {
+        assertEquals(BOLD + "null" + RESET, Style.processLocks(new StringBuilder(), null, Style.BOLD));
+    }
+
+    @Test
+    public void rangeIsAppendedToTheGivenBuilder() {
+        String msg = "x" + Style.lock("L") + "yz";
+        StringBuilder sb = new StringBuilder("pre:");
+        assertSame(sb, Style.processLocks(sb, msg, 1, msg.length() - 1, Style.BOLD));
+        assertEquals("pre:" + Style.lock("L") + BOLD + "y" + RESET, sb.toString());
+    }
+
+    @Test
+    public void stripRemovesStylesAndMarkers() {
+        String msg = BOLD + "a" + RESET + Style.lock(RED + "b") + "c";
+        assertEquals("abc", Style.strip(new StringBuilder(), msg, 0, msg.length()).toString());
+    }
+}